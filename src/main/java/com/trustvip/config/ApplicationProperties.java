@@ -11,4 +11,512 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final Pdf pdf = new Pdf();
+
+    private final Storage storage = new Storage();
+
+    private final Search search = new Search();
+
+    private final Extraction extraction = new Extraction();
+
+    private final Dashboard dashboard = new Dashboard();
+
+    private final Cache cache = new Cache();
+
+    private final Cluster cluster = new Cluster();
+
+    public Pdf getPdf() {
+        return pdf;
+    }
+
+    public Storage getStorage() {
+        return storage;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Extraction getExtraction() {
+        return extraction;
+    }
+
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Cluster getCluster() {
+        return cluster;
+    }
+
+    public static class Pdf {
+
+        private int corePoolSize = 1;
+
+        private int maxPoolSize = 2;
+
+        private int queueCapacity = 500;
+
+        private int maxAttempts = 3;
+
+        private long retryDelay = 2000;
+
+        private String coverTemplate = "classpath:CDT.pdf";
+
+        private boolean renderOnSave = true;
+
+        private long statusTtl = 3600000;
+
+        private long statusCacheSize = 10000;
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public void setCorePoolSize(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(long retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+
+        public String getCoverTemplate() {
+            return coverTemplate;
+        }
+
+        public void setCoverTemplate(String coverTemplate) {
+            this.coverTemplate = coverTemplate;
+        }
+
+        public boolean isRenderOnSave() {
+            return renderOnSave;
+        }
+
+        public void setRenderOnSave(boolean renderOnSave) {
+            this.renderOnSave = renderOnSave;
+        }
+
+        public long getStatusTtl() {
+            return statusTtl;
+        }
+
+        public void setStatusTtl(long statusTtl) {
+            this.statusTtl = statusTtl;
+        }
+
+        public long getStatusCacheSize() {
+            return statusCacheSize;
+        }
+
+        public void setStatusCacheSize(long statusCacheSize) {
+            this.statusCacheSize = statusCacheSize;
+        }
+    }
+
+    public static class Storage {
+
+        private String type = "filesystem";
+
+        private String root = "data/blobs";
+
+        private long maxUploadSize = 50 * 1024 * 1024;
+
+        private int maxConcurrentUploads = 4;
+
+        private long uploadWaitTimeout = 2000;
+
+        private long orphanRetention = 86400000;
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getRoot() {
+            return root;
+        }
+
+        public void setRoot(String root) {
+            this.root = root;
+        }
+
+        public long getMaxUploadSize() {
+            return maxUploadSize;
+        }
+
+        public void setMaxUploadSize(long maxUploadSize) {
+            this.maxUploadSize = maxUploadSize;
+        }
+
+        public int getMaxConcurrentUploads() {
+            return maxConcurrentUploads;
+        }
+
+        public void setMaxConcurrentUploads(int maxConcurrentUploads) {
+            this.maxConcurrentUploads = maxConcurrentUploads;
+        }
+
+        public long getUploadWaitTimeout() {
+            return uploadWaitTimeout;
+        }
+
+        public void setUploadWaitTimeout(long uploadWaitTimeout) {
+            this.uploadWaitTimeout = uploadWaitTimeout;
+        }
+
+        public long getOrphanRetention() {
+            return orphanRetention;
+        }
+
+        public void setOrphanRetention(long orphanRetention) {
+            this.orphanRetention = orphanRetention;
+        }
+    }
+
+    public static class Search {
+
+        private int outboxBatchSize = 500;
+
+        private long outboxPollInterval = 1000;
+
+        private long retryDelay = 5000;
+
+        private long maxRetryDelay = 600000;
+
+        private int maxAttempts = 15;
+
+        private long outboxLease = 60000;
+
+        private long reindexTimeout = 600000;
+
+        private int bulkActions = 500;
+
+        private long bulkSize = 5 * 1024 * 1024;
+
+        private long resultCacheTtl = 30000;
+
+        private long resultCacheSize = 1000;
+
+        public int getOutboxBatchSize() {
+            return outboxBatchSize;
+        }
+
+        public void setOutboxBatchSize(int outboxBatchSize) {
+            this.outboxBatchSize = outboxBatchSize;
+        }
+
+        public long getOutboxPollInterval() {
+            return outboxPollInterval;
+        }
+
+        public void setOutboxPollInterval(long outboxPollInterval) {
+            this.outboxPollInterval = outboxPollInterval;
+        }
+
+        public long getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(long retryDelay) {
+            this.retryDelay = retryDelay;
+        }
+
+        public long getMaxRetryDelay() {
+            return maxRetryDelay;
+        }
+
+        public void setMaxRetryDelay(long maxRetryDelay) {
+            this.maxRetryDelay = maxRetryDelay;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getOutboxLease() {
+            return outboxLease;
+        }
+
+        public void setOutboxLease(long outboxLease) {
+            this.outboxLease = outboxLease;
+        }
+
+        public long getReindexTimeout() {
+            return reindexTimeout;
+        }
+
+        public void setReindexTimeout(long reindexTimeout) {
+            this.reindexTimeout = reindexTimeout;
+        }
+
+        public int getBulkActions() {
+            return bulkActions;
+        }
+
+        public void setBulkActions(int bulkActions) {
+            this.bulkActions = bulkActions;
+        }
+
+        public long getBulkSize() {
+            return bulkSize;
+        }
+
+        public void setBulkSize(long bulkSize) {
+            this.bulkSize = bulkSize;
+        }
+
+        public long getResultCacheTtl() {
+            return resultCacheTtl;
+        }
+
+        public void setResultCacheTtl(long resultCacheTtl) {
+            this.resultCacheTtl = resultCacheTtl;
+        }
+
+        public long getResultCacheSize() {
+            return resultCacheSize;
+        }
+
+        public void setResultCacheSize(long resultCacheSize) {
+            this.resultCacheSize = resultCacheSize;
+        }
+    }
+
+    public static class Extraction {
+
+        private int corePoolSize = 1;
+
+        private int maxPoolSize = 2;
+
+        private int queueCapacity = 100;
+
+        private long maxSize = 20 * 1024 * 1024;
+
+        private int maxChars = 1000000;
+
+        private long timeout = 30000;
+
+        private long sweepInterval = 60000;
+
+        private int sweepBatchSize = 100;
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public void setCorePoolSize(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxChars() {
+            return maxChars;
+        }
+
+        public void setMaxChars(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        public long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        public long getSweepInterval() {
+            return sweepInterval;
+        }
+
+        public void setSweepInterval(long sweepInterval) {
+            this.sweepInterval = sweepInterval;
+        }
+
+        public int getSweepBatchSize() {
+            return sweepBatchSize;
+        }
+
+        public void setSweepBatchSize(int sweepBatchSize) {
+            this.sweepBatchSize = sweepBatchSize;
+        }
+    }
+
+    public static class Dashboard {
+
+        private long facetRefreshInterval = 600000;
+
+        public long getFacetRefreshInterval() {
+            return facetRefreshInterval;
+        }
+
+        public void setFacetRefreshInterval(long facetRefreshInterval) {
+            this.facetRefreshInterval = facetRefreshInterval;
+        }
+    }
+
+    public static class Cache {
+
+        private final Region reference = new Region(3600, 1000);
+
+        private final Region article = new Region(300, 500);
+
+        private final Region published = new Region(600, 1000);
+
+        private int publishedListingPages = 5;
+
+        public Region getReference() {
+            return reference;
+        }
+
+        public Region getArticle() {
+            return article;
+        }
+
+        public Region getPublished() {
+            return published;
+        }
+
+        public int getPublishedListingPages() {
+            return publishedListingPages;
+        }
+
+        public void setPublishedListingPages(int publishedListingPages) {
+            this.publishedListingPages = publishedListingPages;
+        }
+
+        public static class Region {
+
+            private long timeToLiveSeconds;
+
+            private long maxEntries;
+
+            public Region(long timeToLiveSeconds, long maxEntries) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+                this.maxEntries = maxEntries;
+            }
+
+            public long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
+
+    public static class Cluster {
+
+        private String bus = "database";
+
+        private long pollInterval = 1000;
+
+        private long commitWindow = 10000;
+
+        private long retention = 3600000;
+
+        public String getBus() {
+            return bus;
+        }
+
+        public void setBus(String bus) {
+            this.bus = bus;
+        }
+
+        public long getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(long pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public long getCommitWindow() {
+            return commitWindow;
+        }
+
+        public void setCommitWindow(long commitWindow) {
+            this.commitWindow = commitWindow;
+        }
+
+        public long getRetention() {
+            return retention;
+        }
+
+        public void setRetention(long retention) {
+            this.retention = retention;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.*;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -23,8 +24,11 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public AsyncConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -39,6 +43,32 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    @Bean(name = "pdfRenderExecutor")
+    public ThreadPoolTaskExecutor pdfRenderExecutor() {
+        log.debug("Creating PDF Render Task Executor");
+        ApplicationProperties.Pdf pdf = applicationProperties.getPdf();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(pdf.getCorePoolSize());
+        executor.setMaxPoolSize(pdf.getMaxPoolSize());
+        executor.setQueueCapacity(pdf.getQueueCapacity());
+        executor.setThreadNamePrefix("vip-adpq-pdf-");
+        // Rejected renders are not run on the calling thread, ArticlePdfRenderService renders them on their first GET
+        return executor;
+    }
+
+    @Bean(name = "textExtractionExecutor")
+    public TaskExecutor textExtractionExecutor() {
+        log.debug("Creating Text Extraction Task Executor");
+        ApplicationProperties.Extraction extraction = applicationProperties.getExtraction();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(extraction.getCorePoolSize());
+        executor.setMaxPoolSize(extraction.getMaxPoolSize());
+        executor.setQueueCapacity(extraction.getQueueCapacity());
+        executor.setThreadNamePrefix("vip-adpq-extraction-");
+        // Rejected extractions are not run on the calling thread, the sweep of DocumentTextExtractionService retries them
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -0,0 +1,32 @@
+package com.trustvip.config;
+
+import com.trustvip.service.storage.BlobStore;
+import com.trustvip.service.storage.DatabaseBlobStore;
+import com.trustvip.service.storage.FileSystemBlobStore;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Selects where the payloads of the related documents are stored, with the "application.storage.type" property.
+ */
+@Configuration
+public class BlobStoreConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.storage", name = "type", havingValue = "filesystem", matchIfMissing = true)
+    public BlobStore fileSystemBlobStore(ApplicationProperties applicationProperties) throws IOException {
+        return new FileSystemBlobStore(Paths.get(applicationProperties.getStorage().getRoot()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.storage", name = "type", havingValue = "database")
+    public BlobStore databaseBlobStore(JdbcTemplate jdbcTemplate) {
+        return new DatabaseBlobStore(jdbcTemplate);
+    }
+}
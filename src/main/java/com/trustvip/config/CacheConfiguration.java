@@ -0,0 +1,76 @@
+package com.trustvip.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.Expirations;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.codahale.metrics.MetricRegistry;
+import com.trustvip.domain.Article;
+import com.trustvip.domain.Authority;
+import com.trustvip.domain.TaskOwner;
+import com.trustvip.domain.User;
+
+/**
+ * Local, size-bounded caches backing the Hibernate second level cache.
+ * <p>
+ * Each region is created upfront with the time to live and size of its "application.cache" group: the
+ * region factory refuses to create unconfigured regions, so an entity cannot end up in an unbounded cache.
+ * The hits, misses and puts of each region are exported as "hibernate.cache" gauges.
+ */
+@Configuration
+@EnableCaching
+@AutoConfigureAfter(value = { MetricsConfiguration.class })
+@AutoConfigureBefore(value = { WebConfigurer.class, DatabaseConfiguration.class })
+public class CacheConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private final Map<String, ApplicationProperties.Cache.Region> regions = new LinkedHashMap<>();
+
+    public CacheConfiguration(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache cache = applicationProperties.getCache();
+        regions.put(Authority.class.getName(), cache.getReference());
+        regions.put(TaskOwner.class.getName(), cache.getReference());
+        regions.put(User.class.getName() + ".authorities", cache.getReference());
+        regions.put(Article.class.getName(), cache.getArticle());
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> regions.forEach((name, region) -> {
+            log.debug("Creating the {} cache region ({} entries, {}s)", name, region.getMaxEntries(),
+                region.getTimeToLiveSeconds());
+            cm.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                    ResourcePoolsBuilder.heap(region.getMaxEntries()))
+                    .withExpiry(Expirations.timeToLiveExpiration(
+                        org.ehcache.expiry.Duration.of(region.getTimeToLiveSeconds(), TimeUnit.SECONDS)))
+                    .build()));
+        });
+    }
+
+    @Bean
+    public SecondLevelCacheMetricSet secondLevelCacheMetricSet(EntityManagerFactory entityManagerFactory,
+            MetricRegistry metricRegistry) {
+        SecondLevelCacheMetricSet metricSet = new SecondLevelCacheMetricSet(
+            entityManagerFactory.unwrap(SessionFactory.class), regions.keySet());
+        metricRegistry.register("hibernate.cache", metricSet);
+        return metricSet;
+    }
+}
@@ -0,0 +1,34 @@
+package com.trustvip.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trustvip.service.cluster.ClusterEventBus;
+import com.trustvip.service.cluster.DatabaseClusterEventBus;
+import com.trustvip.service.cluster.LocalClusterEventBus;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Selects how the cache invalidation events reach the other nodes, with the "application.cluster.bus" property.
+ */
+@Configuration
+public class ClusterEventBusConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cluster", name = "bus", havingValue = "database", matchIfMissing = true)
+    public ClusterEventBus databaseClusterEventBus(ObjectMapper objectMapper,
+            ApplicationEventPublisher applicationEventPublisher, JdbcTemplate jdbcTemplate,
+            ApplicationProperties applicationProperties) {
+        return new DatabaseClusterEventBus(objectMapper, applicationEventPublisher, jdbcTemplate, applicationProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.cluster", name = "bus", havingValue = "local")
+    public ClusterEventBus localClusterEventBus(ObjectMapper objectMapper,
+            ApplicationEventPublisher applicationEventPublisher) {
+        return new LocalClusterEventBus(objectMapper, applicationEventPublisher);
+    }
+}
@@ -9,15 +9,32 @@ import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.core.EntityMapper;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
+import com.codahale.metrics.MetricRegistry;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trustvip.repository.search.BulkIndexer;
+import com.trustvip.repository.search.SearchReindexStateRepository;
 
 @Configuration
 public class ElasticsearchConfiguration {
 
     @Bean
-    public ElasticsearchTemplate elasticsearchTemplate(Client client, Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
-        return new ElasticsearchTemplate(client, new CustomEntityMapper(jackson2ObjectMapperBuilder.createXmlMapper(false).build()));
+    public CustomEntityMapper searchEntityMapper(Jackson2ObjectMapperBuilder jackson2ObjectMapperBuilder) {
+        return new CustomEntityMapper(jackson2ObjectMapperBuilder.createXmlMapper(false).build());
+    }
+
+    @Bean
+    public ElasticsearchTemplate elasticsearchTemplate(Client client, CustomEntityMapper searchEntityMapper) {
+        return new ElasticsearchTemplate(client, searchEntityMapper);
+    }
+
+    @Bean
+    public BulkIndexer bulkIndexer(ElasticsearchTemplate elasticsearchTemplate, CustomEntityMapper searchEntityMapper,
+            SearchReindexStateRepository searchReindexStateRepository, MetricRegistry metricRegistry,
+            ApplicationProperties applicationProperties) {
+        ApplicationProperties.Search search = applicationProperties.getSearch();
+        return new BulkIndexer(elasticsearchTemplate, searchEntityMapper, searchReindexStateRepository, metricRegistry,
+            search.getBulkActions(), search.getBulkSize());
     }
 
     public class CustomEntityMapper implements EntityMapper {
@@ -0,0 +1,50 @@
+package com.trustvip.config;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.MetricSet;
+
+/**
+ * Gauges of the hits, misses and puts of Hibernate second level cache regions.
+ * <p>
+ * The values are read from the Hibernate statistics, which must be enabled with "hibernate.generate_statistics".
+ */
+public class SecondLevelCacheMetricSet implements MetricSet {
+
+    private final SessionFactory sessionFactory;
+
+    private final Collection<String> regions;
+
+    public SecondLevelCacheMetricSet(SessionFactory sessionFactory, Collection<String> regions) {
+        this.sessionFactory = sessionFactory;
+        this.regions = regions;
+    }
+
+    @Override
+    public Map<String, Metric> getMetrics() {
+        Map<String, Metric> gauges = new HashMap<>();
+        for (String region : regions) {
+            gauges.put(MetricRegistry.name(region, "hits"), gauge(region, SecondLevelCacheStatistics::getHitCount));
+            gauges.put(MetricRegistry.name(region, "misses"), gauge(region, SecondLevelCacheStatistics::getMissCount));
+            gauges.put(MetricRegistry.name(region, "puts"), gauge(region, SecondLevelCacheStatistics::getPutCount));
+        }
+        return gauges;
+    }
+
+    private Gauge<Long> gauge(String region, ToLongFunction<SecondLevelCacheStatistics> value) {
+        return () -> {
+            // null while the second level cache is disabled
+            SecondLevelCacheStatistics statistics = sessionFactory.getStatistics().getSecondLevelCacheStatistics(region);
+            return statistics == null ? 0L : value.applyAsLong(statistics);
+        };
+    }
+}
@@ -15,7 +15,10 @@ import javax.persistence.Lob;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Mapping;
 
 import com.trustvip.domain.enumeration.ArticleStatus;
 import com.trustvip.domain.enumeration.ArticleType;
@@ -25,7 +28,9 @@ import com.trustvip.domain.enumeration.ArticleType;
  */
 @Entity
 @Table(name = "article")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Document(indexName = "article")
+@Mapping(mappingPath = "/config/elasticsearch/article-mapping.json")
 public class Article implements Serializable {
 
     private static final long serialVersionUID = 1L;
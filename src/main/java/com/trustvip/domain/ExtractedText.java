@@ -0,0 +1,157 @@
+package com.trustvip.domain;
+
+import com.trustvip.domain.enumeration.ExtractionStatus;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * The text extracted from a payload of the blob store, indexed with the related documents using it.
+ * <p>
+ * Stored under the key of the payload, which is the SHA-256 checksum of its content, so a content is only
+ * parsed once whatever the number of documents or uploads sharing it.
+ */
+@Entity
+@Table(name = "extracted_text")
+public class ExtractedText implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 64)
+    @Column(name = "payload_key", length = 64)
+    private String key;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ExtractionStatus status;
+
+    @Lob
+    @Column(name = "content")
+    private String content;
+
+    @NotNull
+    @Column(name = "truncated", nullable = false)
+    private Boolean truncated;
+
+    @Size(max = 255)
+    @Column(name = "error", length = 255)
+    private String error;
+
+    @NotNull
+    @Column(name = "extracted_on", nullable = false)
+    private Instant extractedOn;
+
+    public String getKey() {
+        return key;
+    }
+
+    public ExtractedText key(String key) {
+        this.key = key;
+        return this;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public ExtractionStatus getStatus() {
+        return status;
+    }
+
+    public ExtractedText status(ExtractionStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    public void setStatus(ExtractionStatus status) {
+        this.status = status;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public ExtractedText content(String content) {
+        this.content = content;
+        return this;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Boolean isTruncated() {
+        return truncated;
+    }
+
+    public ExtractedText truncated(Boolean truncated) {
+        this.truncated = truncated;
+        return this;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public ExtractedText error(String error) {
+        this.error = error;
+        return this;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public Instant getExtractedOn() {
+        return extractedOn;
+    }
+
+    public ExtractedText extractedOn(Instant extractedOn) {
+        this.extractedOn = extractedOn;
+        return this;
+    }
+
+    public void setExtractedOn(Instant extractedOn) {
+        this.extractedOn = extractedOn;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ExtractedText extractedText = (ExtractedText) o;
+        if (extractedText.getKey() == null || getKey() == null) {
+            return false;
+        }
+        return Objects.equals(getKey(), extractedText.getKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getKey());
+    }
+
+    @Override
+    public String toString() {
+        return "ExtractedText{" +
+            "key='" + getKey() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", truncated='" + isTruncated() + "'" +
+            ", error='" + getError() + "'" +
+            "}";
+    }
+}
@@ -4,7 +4,6 @@ package com.trustvip.domain;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
-import org.springframework.data.elasticsearch.annotations.Document;
 import java.io.Serializable;
 import java.util.Objects;
 
@@ -13,7 +12,6 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "related_document")
-@Document(indexName = "relateddocument")
 public class RelatedDocument implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -25,13 +23,27 @@ public class RelatedDocument implements Serializable {
     @Column(name = "doc_name")
     private String docName;
 
-    @Lob
-    @Column(name = "doc_file")
-    private byte[] docFile;
-
     @Column(name = "doc_file_content_type")
     private String docFileContentType;
 
+    /**
+     * Key of the payload in the BlobStore.
+     */
+    @Size(max = 64)
+    @Column(name = "doc_key", length = 64)
+    private String docKey;
+
+    @Column(name = "doc_size")
+    private Long docSize;
+
+    @Size(max = 64)
+    @Column(name = "doc_checksum", length = 64)
+    private String docChecksum;
+
+    @Size(max = 64)
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @ManyToOne(optional = false)
     @NotNull
     private Article article;
@@ -58,30 +70,69 @@ public class RelatedDocument implements Serializable {
         this.docName = docName;
     }
 
-    public byte[] getDocFile() {
-        return docFile;
+    public String getDocFileContentType() {
+        return docFileContentType;
     }
 
-    public RelatedDocument docFile(byte[] docFile) {
-        this.docFile = docFile;
+    public RelatedDocument docFileContentType(String docFileContentType) {
+        this.docFileContentType = docFileContentType;
         return this;
     }
 
-    public void setDocFile(byte[] docFile) {
-        this.docFile = docFile;
+    public void setDocFileContentType(String docFileContentType) {
+        this.docFileContentType = docFileContentType;
     }
 
-    public String getDocFileContentType() {
-        return docFileContentType;
+    public String getDocKey() {
+        return docKey;
     }
 
-    public RelatedDocument docFileContentType(String docFileContentType) {
-        this.docFileContentType = docFileContentType;
+    public RelatedDocument docKey(String docKey) {
+        this.docKey = docKey;
         return this;
     }
 
-    public void setDocFileContentType(String docFileContentType) {
-        this.docFileContentType = docFileContentType;
+    public void setDocKey(String docKey) {
+        this.docKey = docKey;
+    }
+
+    public Long getDocSize() {
+        return docSize;
+    }
+
+    public RelatedDocument docSize(Long docSize) {
+        this.docSize = docSize;
+        return this;
+    }
+
+    public void setDocSize(Long docSize) {
+        this.docSize = docSize;
+    }
+
+    public String getDocChecksum() {
+        return docChecksum;
+    }
+
+    public RelatedDocument docChecksum(String docChecksum) {
+        this.docChecksum = docChecksum;
+        return this;
+    }
+
+    public void setDocChecksum(String docChecksum) {
+        this.docChecksum = docChecksum;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public RelatedDocument contentHash(String contentHash) {
+        this.contentHash = contentHash;
+        return this;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
     }
 
     public Article getArticle() {
@@ -123,8 +174,11 @@ public class RelatedDocument implements Serializable {
         return "RelatedDocument{" +
             "id=" + getId() +
             ", docName='" + getDocName() + "'" +
-            ", docFile='" + getDocFile() + "'" +
             ", docFileContentType='" + getDocFileContentType() + "'" +
+            ", docKey='" + getDocKey() + "'" +
+            ", docSize=" + getDocSize() +
+            ", docChecksum='" + getDocChecksum() + "'" +
+            ", contentHash='" + getContentHash() + "'" +
             "}";
     }
 }
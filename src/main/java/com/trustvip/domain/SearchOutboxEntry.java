@@ -0,0 +1,187 @@
+package com.trustvip.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+import com.trustvip.domain.enumeration.SearchEntityType;
+
+/**
+ * An entity whose search index must be brought up to date.
+ * <p>
+ * Entries are written in the transaction changing the entity, and removed by the search indexer once
+ * the index has been updated. Entries which failed too many times are kept as dead letters, and not retried.
+ */
+@Entity
+@Table(name = "search_outbox")
+public class SearchOutboxEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", length = 32, nullable = false)
+    private SearchEntityType entityType;
+
+    @NotNull
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "created_on", nullable = false)
+    private Instant createdOn;
+
+    @NotNull
+    @Column(name = "next_attempt_on", nullable = false)
+    private Instant nextAttemptOn;
+
+    @Size(max = 255)
+    @Column(name = "last_error", length = 255)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "dead_letter", nullable = false)
+    private Boolean deadLetter = false;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchEntityType getEntityType() {
+        return entityType;
+    }
+
+    public SearchOutboxEntry entityType(SearchEntityType entityType) {
+        this.entityType = entityType;
+        return this;
+    }
+
+    public void setEntityType(SearchEntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public SearchOutboxEntry entityId(Long entityId) {
+        this.entityId = entityId;
+        return this;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public SearchOutboxEntry attempts(Integer attempts) {
+        this.attempts = attempts;
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getCreatedOn() {
+        return createdOn;
+    }
+
+    public SearchOutboxEntry createdOn(Instant createdOn) {
+        this.createdOn = createdOn;
+        return this;
+    }
+
+    public void setCreatedOn(Instant createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    public Instant getNextAttemptOn() {
+        return nextAttemptOn;
+    }
+
+    public SearchOutboxEntry nextAttemptOn(Instant nextAttemptOn) {
+        this.nextAttemptOn = nextAttemptOn;
+        return this;
+    }
+
+    public void setNextAttemptOn(Instant nextAttemptOn) {
+        this.nextAttemptOn = nextAttemptOn;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public SearchOutboxEntry lastError(String lastError) {
+        this.lastError = lastError;
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Boolean isDeadLetter() {
+        return deadLetter;
+    }
+
+    public SearchOutboxEntry deadLetter(Boolean deadLetter) {
+        this.deadLetter = deadLetter;
+        return this;
+    }
+
+    public void setDeadLetter(Boolean deadLetter) {
+        this.deadLetter = deadLetter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SearchOutboxEntry searchOutboxEntry = (SearchOutboxEntry) o;
+        if (searchOutboxEntry.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), searchOutboxEntry.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "SearchOutboxEntry{" +
+            "id=" + getId() +
+            ", entityType='" + getEntityType() + "'" +
+            ", entityId=" + getEntityId() +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptOn='" + getNextAttemptOn() + "'" +
+            ", deadLetter='" + isDeadLetter() + "'" +
+            "}";
+    }
+}
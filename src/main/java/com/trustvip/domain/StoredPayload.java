@@ -0,0 +1,119 @@
+package com.trustvip.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A payload of the blob store, shared by all the related documents with the same content.
+ * <p>
+ * Payloads are stored under the SHA-256 checksum of their content, and count the documents referencing
+ * them, so a payload is only deleted when its last document is.
+ */
+@Entity
+@Table(name = "stored_payload")
+public class StoredPayload implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Size(max = 64)
+    @Column(name = "payload_key", length = 64)
+    private String key;
+
+    @NotNull
+    @Column(name = "payload_size", nullable = false)
+    private Long size;
+
+    @NotNull
+    @Column(name = "ref_count", nullable = false)
+    private Long refCount;
+
+    @NotNull
+    @Column(name = "created_on", nullable = false)
+    private Instant createdOn;
+
+    public String getKey() {
+        return key;
+    }
+
+    public StoredPayload key(String key) {
+        this.key = key;
+        return this;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public StoredPayload size(Long size) {
+        this.size = size;
+        return this;
+    }
+
+    public void setSize(Long size) {
+        this.size = size;
+    }
+
+    public Long getRefCount() {
+        return refCount;
+    }
+
+    public StoredPayload refCount(Long refCount) {
+        this.refCount = refCount;
+        return this;
+    }
+
+    public void setRefCount(Long refCount) {
+        this.refCount = refCount;
+    }
+
+    public Instant getCreatedOn() {
+        return createdOn;
+    }
+
+    public StoredPayload createdOn(Instant createdOn) {
+        this.createdOn = createdOn;
+        return this;
+    }
+
+    public void setCreatedOn(Instant createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        StoredPayload storedPayload = (StoredPayload) o;
+        if (storedPayload.getKey() == null || getKey() == null) {
+            return false;
+        }
+        return Objects.equals(getKey(), storedPayload.getKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getKey());
+    }
+
+    @Override
+    public String toString() {
+        return "StoredPayload{" +
+            "key='" + getKey() + "'" +
+            ", size=" + getSize() +
+            ", refCount=" + getRefCount() +
+            "}";
+    }
+}
@@ -4,6 +4,8 @@ package com.trustvip.domain;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.elasticsearch.annotations.Document;
 import java.io.Serializable;
 import java.util.Objects;
@@ -13,6 +15,7 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "task_owner")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 @Document(indexName = "taskowner")
 public class TaskOwner implements Serializable {
 
@@ -0,0 +1,8 @@
+package com.trustvip.domain.enumeration;
+
+/**
+ * The ExtractionStatus enumeration: the outcome of the text extraction of a payload.
+ */
+public enum ExtractionStatus {
+    EXTRACTED, UNSUPPORTED, TOO_LARGE, FAILED
+}
@@ -0,0 +1,8 @@
+package com.trustvip.domain.enumeration;
+
+/**
+ * The SearchEntityType enumeration: the entities indexed in Elasticsearch.
+ */
+public enum SearchEntityType {
+    ARTICLE, TASK, TASK_OWNER, RELATED_DOCUMENT, USER
+}
@@ -0,0 +1,135 @@
+package com.trustvip.domain.search;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * The indexed copy of a RelatedDocument.
+ * <p>
+ * Only carries the metadata of the document, the name of its article and the text extracted from its payload,
+ * if any, so the payload itself and the linked Article entity are never sent to Elasticsearch.
+ */
+@Document(indexName = "relateddocument")
+public class RelatedDocumentSearchDocument implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long id;
+
+    private String docName;
+
+    private String docFileContentType;
+
+    private Long docSize;
+
+    private String docChecksum;
+
+    private Long articleId;
+
+    private String articleName;
+
+    private String content;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDocName() {
+        return docName;
+    }
+
+    public void setDocName(String docName) {
+        this.docName = docName;
+    }
+
+    public String getDocFileContentType() {
+        return docFileContentType;
+    }
+
+    public void setDocFileContentType(String docFileContentType) {
+        this.docFileContentType = docFileContentType;
+    }
+
+    public Long getDocSize() {
+        return docSize;
+    }
+
+    public void setDocSize(Long docSize) {
+        this.docSize = docSize;
+    }
+
+    public String getDocChecksum() {
+        return docChecksum;
+    }
+
+    public void setDocChecksum(String docChecksum) {
+        this.docChecksum = docChecksum;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public String getArticleName() {
+        return articleName;
+    }
+
+    public void setArticleName(String articleName) {
+        this.articleName = articleName;
+    }
+
+    /**
+     * @return the text extracted from the payload, or null if none was extracted
+     */
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RelatedDocumentSearchDocument document = (RelatedDocumentSearchDocument) o;
+        if (document.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), document.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "RelatedDocumentSearchDocument{" +
+            "id=" + getId() +
+            ", docName='" + getDocName() + "'" +
+            ", docFileContentType='" + getDocFileContentType() + "'" +
+            ", docSize=" + getDocSize() +
+            ", docChecksum='" + getDocChecksum() + "'" +
+            ", articleId=" + getArticleId() +
+            "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Elasticsearch documents which are not JPA entities.
+ */
+package com.trustvip.domain.search;
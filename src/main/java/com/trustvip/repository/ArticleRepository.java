@@ -1,10 +1,15 @@
 package com.trustvip.repository;
 
 import com.trustvip.domain.Article;
+import com.trustvip.domain.enumeration.ArticleStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.jpa.repository.*;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the Article entity.
@@ -13,4 +18,13 @@ import org.springframework.data.jpa.repository.*;
 @Repository
 public interface ArticleRepository extends JpaRepository<Article, Long> {
 
+    List<Article> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Page<Article> findAllByStatus(ArticleStatus status, Pageable pageable);
+
+    /**
+     * @return rows of type, status, publish date and number of articles
+     */
+    @Query("select a.type, a.status, a.publishDate, count(a) from Article a group by a.type, a.status, a.publishDate")
+    List<Object[]> countGroupedByTypeAndStatusAndPublishDate();
 }
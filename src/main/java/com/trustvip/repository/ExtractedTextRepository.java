@@ -0,0 +1,19 @@
+package com.trustvip.repository;
+
+import com.trustvip.domain.ExtractedText;
+import org.springframework.stereotype.Repository;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+
+/**
+ * Spring Data JPA repository for the ExtractedText entity.
+ */
+@Repository
+public interface ExtractedTextRepository extends JpaRepository<ExtractedText, String> {
+
+    @Modifying
+    @Query("delete from ExtractedText extractedText where extractedText.key = :key")
+    int deleteByKey(@Param("key") String key);
+}
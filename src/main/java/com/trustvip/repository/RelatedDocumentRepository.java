@@ -1,9 +1,15 @@
 package com.trustvip.repository;
 
 import com.trustvip.domain.RelatedDocument;
+import com.trustvip.service.dto.RelatedDocumentSummaryDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 
 /**
@@ -13,4 +19,30 @@ import org.springframework.data.jpa.repository.*;
 @Repository
 public interface RelatedDocumentRepository extends JpaRepository<RelatedDocument, Long> {
 
+    List<RelatedDocument> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    boolean existsByArticleIdAndDocNameAndContentHash(Long articleId, String docName, String contentHash);
+
+    RelatedDocument findFirstByArticleIdAndDocNameAndContentHash(Long articleId, String docName, String contentHash);
+
+    List<RelatedDocument> findAllByArticleIdOrderByIdAsc(Long articleId);
+
+    @Query("select new com.trustvip.service.dto.RelatedDocumentSummaryDTO(relatedDocument.id, relatedDocument.article.id, "
+        + "relatedDocument.docName, relatedDocument.docFileContentType, relatedDocument.docSize, relatedDocument.docChecksum) "
+        + "from RelatedDocument relatedDocument where relatedDocument.article.id = :articleId order by relatedDocument.id")
+    List<RelatedDocumentSummaryDTO> findSummariesByArticleId(@Param("articleId") Long articleId);
+
+    @Query("select new com.trustvip.service.dto.RelatedDocumentSummaryDTO(relatedDocument.id, relatedDocument.article.id, "
+        + "relatedDocument.docName, relatedDocument.docFileContentType, relatedDocument.docSize, relatedDocument.docChecksum) "
+        + "from RelatedDocument relatedDocument where relatedDocument.article.id in :articleIds "
+        + "order by relatedDocument.article.id, relatedDocument.id")
+    List<RelatedDocumentSummaryDTO> findSummariesByArticleIdIn(@Param("articleIds") Collection<Long> articleIds);
+
+    @Query("select relatedDocument.id from RelatedDocument relatedDocument where relatedDocument.docKey = :docKey")
+    List<Long> findIdsByDocKey(@Param("docKey") String docKey);
+
+    @Query("select relatedDocument from RelatedDocument relatedDocument where relatedDocument.docKey is not null "
+        + "and not exists (select extractedText from ExtractedText extractedText where extractedText.key = relatedDocument.docKey) "
+        + "order by relatedDocument.id")
+    List<RelatedDocument> findWithoutExtractedText(Pageable pageable);
 }
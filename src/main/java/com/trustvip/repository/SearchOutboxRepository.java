@@ -0,0 +1,35 @@
+package com.trustvip.repository;
+
+import com.trustvip.domain.SearchOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Spring Data JPA repository for the SearchOutboxEntry entity.
+ */
+@Repository
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEntry, Long> {
+
+    /**
+     * Lock the entries which are due, skipping the entries locked by the other nodes where the database
+     * supports it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<SearchOutboxEntry> findByDeadLetterFalseAndNextAttemptOnLessThanEqualOrderByIdAsc(Instant now,
+        Pageable pageable);
+
+    @Modifying
+    @Query("delete from SearchOutboxEntry searchOutboxEntry where searchOutboxEntry.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,38 @@
+package com.trustvip.repository;
+
+import com.trustvip.domain.StoredPayload;
+import org.springframework.stereotype.Repository;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Spring Data JPA repository for the StoredPayload entity.
+ * <p>
+ * The reference counts are only changed through single update statements, so concurrent saves sharing a
+ * payload never lose an update.
+ */
+@Repository
+public interface StoredPayloadRepository extends JpaRepository<StoredPayload, String> {
+
+    @Modifying
+    @Query("update StoredPayload storedPayload set storedPayload.refCount = storedPayload.refCount + 1 "
+        + "where storedPayload.key = :key")
+    int incrementRefCount(@Param("key") String key);
+
+    @Modifying
+    @Query("update StoredPayload storedPayload set storedPayload.refCount = storedPayload.refCount - 1 "
+        + "where storedPayload.key = :key and storedPayload.refCount > 0")
+    int decrementRefCount(@Param("key") String key);
+
+    @Query("select storedPayload.key from StoredPayload storedPayload where storedPayload.key in :keys")
+    List<String> findKeysByKeyIn(@Param("keys") Collection<String> keys);
+
+    @Modifying
+    @Query("delete from StoredPayload storedPayload where storedPayload.key = :key and storedPayload.refCount = 0")
+    int deleteUnreferenced(@Param("key") String key);
+}
@@ -1,10 +1,13 @@
 package com.trustvip.repository;
 
 import com.trustvip.domain.TaskOwner;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.jpa.repository.*;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the TaskOwner entity.
@@ -13,4 +16,5 @@ import org.springframework.data.jpa.repository.*;
 @Repository
 public interface TaskOwnerRepository extends JpaRepository<TaskOwner, Long> {
 
+    List<TaskOwner> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,10 +1,15 @@
 package com.trustvip.repository;
 
 import com.trustvip.domain.Task;
+import com.trustvip.domain.enumeration.TaskStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
 import org.springframework.data.jpa.repository.*;
 
+import java.util.List;
+
 
 /**
  * Spring Data JPA repository for the Task entity.
@@ -13,4 +18,7 @@ import org.springframework.data.jpa.repository.*;
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
+    List<Task> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Page<Task> findAllByStatus(TaskStatus status, Pageable pageable);
 }
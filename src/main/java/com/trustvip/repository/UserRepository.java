@@ -19,6 +19,8 @@ import java.time.Instant;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndCreatedDateBefore(Instant dateTime);
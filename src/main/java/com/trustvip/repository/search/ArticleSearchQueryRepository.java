@@ -0,0 +1,289 @@
+package com.trustvip.repository.search;
+
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.existsQuery;
+import static org.elasticsearch.index.query.QueryBuilders.matchAllQuery;
+import static org.elasticsearch.index.query.QueryBuilders.multiMatchQuery;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.suggest.SuggestResponse;
+import org.elasticsearch.common.text.Text;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MultiMatchQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.suggest.Suggest;
+import org.elasticsearch.search.suggest.SuggestBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import com.trustvip.domain.Article;
+import com.trustvip.service.dto.ArticleSearchCriteria;
+
+/**
+ * Structured searches on the article index, whose fields are declared in "article-mapping.json".
+ * <p>
+ * The text of the query is only matched against the name and the content, without any query syntax, so a
+ * search can neither hit every field nor expand leading wildcards. The other criteria are non-scoring filter
+ * clauses, which Elasticsearch caches between searches.
+ * <p>
+ * Documents indexed before the "raw" sub-fields were added to the mapping have no value for them, until the index
+ * is rebuilt, which the SearchIndexUpgrader starts once the application is ready. While such documents remain, the filters
+ * and sorts use the analysed fields, whose single token per enumeration value is the lowercase name.
+ */
+@Repository
+public class ArticleSearchQueryRepository {
+
+    private static final String[] TEXT_FIELDS = {"articleName^3", "articleName.english^2", "content", "content.english"};
+
+    private static final String SUGGESTION = "articleName";
+
+    private static final Map<String, String> SORT_FIELDS;
+
+    private static final String[] RAW_FIELDS = {"articleName", "type", "status"};
+
+    private static final long RAW_FIELDS_CHECK_INTERVAL = 60000;
+
+    static {
+        Map<String, String> sortFields = new HashMap<>();
+        sortFields.put("articleName", "articleName.raw");
+        sortFields.put("type", "type.raw");
+        sortFields.put("status", "status.raw");
+        SORT_FIELDS = Collections.unmodifiableMap(sortFields);
+    }
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final EntityMapper entityMapper;
+
+    private volatile boolean rawFieldsIndexed;
+
+    private volatile long rawFieldsCheckedOn;
+
+    public ArticleSearchQueryRepository(ElasticsearchTemplate elasticsearchTemplate, EntityMapper entityMapper) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.entityMapper = entityMapper;
+    }
+
+    /**
+     * Search for the articles matching some criteria.
+     * <p>
+     * Results are sorted by relevance, unless the page requests another order.
+     *
+     * @param criteria the criteria of the search
+     * @param pageable the pagination information
+     * @return the matching articles, with the highlighted fragments of their name and content
+     */
+    public Page<Hit> search(ArticleSearchCriteria criteria, Pageable pageable) {
+        SearchRequestBuilder request = prepareSearch(buildQuery(criteria))
+            .setFrom(pageable.getOffset())
+            .setSize(pageable.getPageSize());
+        if (pageable.getSort() != null) {
+            for (Sort.Order order : pageable.getSort()) {
+                String field = useRawFields()
+                    ? SORT_FIELDS.getOrDefault(order.getProperty(), order.getProperty()) : order.getProperty();
+                request.addSort(SortBuilders.fieldSort(field)
+                    .order(order.isAscending() ? SortOrder.ASC : SortOrder.DESC));
+            }
+        }
+        SearchResponse response = request.get();
+        return new PageImpl<>(toHits(response), pageable, response.getHits().getTotalHits());
+    }
+
+    /**
+     * Search for a page of the articles matching some criteria, after a cursor.
+     * <p>
+     * Results are sorted by id, in the direction of the cursor.
+     *
+     * @param criteria the criteria of the search
+     * @param cursor the position of the page
+     * @param size the size of the page
+     * @param count whether the exact number of matching articles must be computed
+     * @return the matching articles, with the highlighted fragments of their name and content
+     */
+    public CursorPage<Hit> search(ArticleSearchCriteria criteria, SearchCursor cursor, int size, boolean count) {
+        BoolQueryBuilder query = buildQuery(criteria);
+        Pageable pageRequest = cursor.pageRequest(size);
+        SearchResponse response = prepareSearch(cursor.apply(query))
+            .setSize(pageRequest.getPageSize())
+            .addSort(SortBuilders.fieldSort("id").order(cursor.getDirection().isAscending() ? SortOrder.ASC : SortOrder.DESC))
+            .get();
+        Long totalCount = count ? prepareSearch(query).setSize(0).get().getHits().getTotalHits() : null;
+        return cursor.toPage(toHits(response), size, hit -> hit.getArticle().getId(), totalCount);
+    }
+
+    /**
+     * Suggest the names of the articles starting with a prefix.
+     * <p>
+     * Suggestions are read from the "articleName.suggest" completion field, which Elasticsearch keeps in memory,
+     * so no search is run.
+     *
+     * @param prefix the beginning of the name
+     * @param size the maximum number of names
+     * @return the distinct matching names
+     */
+    public List<String> suggest(String prefix, int size) {
+        ElasticsearchPersistentEntity<?> entity = elasticsearchTemplate.getPersistentEntityFor(Article.class);
+        SuggestResponse response = elasticsearchTemplate.getClient().prepareSuggest(entity.getIndexName())
+            .addSuggestion(SuggestBuilders.completionSuggestion(SUGGESTION)
+                .field("articleName.suggest")
+                .text(prefix)
+                .size(size))
+            .get();
+        Set<String> names = new LinkedHashSet<>();
+        Suggest.Suggestion<? extends Suggest.Suggestion.Entry<? extends Suggest.Suggestion.Entry.Option>> suggestion =
+            response.getSuggest().getSuggestion(SUGGESTION);
+        if (suggestion != null) {
+            for (Suggest.Suggestion.Entry<? extends Suggest.Suggestion.Entry.Option> entry : suggestion) {
+                for (Suggest.Suggestion.Entry.Option option : entry) {
+                    names.add(option.getText().string());
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Count the articles indexed before the "raw" sub-fields were added to the mapping, which have a value for
+     * one of these fields but not for its sub-field.
+     *
+     * @return the number of articles to index again
+     */
+    public long countDocumentsWithoutRawFields() {
+        BoolQueryBuilder query = boolQuery();
+        for (String field : RAW_FIELDS) {
+            query.should(boolQuery().filter(existsQuery(field)).mustNot(existsQuery(field + ".raw")));
+        }
+        ElasticsearchPersistentEntity<?> entity = elasticsearchTemplate.getPersistentEntityFor(Article.class);
+        return elasticsearchTemplate.getClient().prepareSearch(entity.getIndexName())
+            .setTypes(entity.getIndexType())
+            .setQuery(query)
+            .setSize(0)
+            .get().getHits().getTotalHits();
+    }
+
+    private boolean useRawFields() {
+        // Once every document has them, the documents indexed later have them too
+        long now = System.currentTimeMillis();
+        if (!rawFieldsIndexed && now - rawFieldsCheckedOn >= RAW_FIELDS_CHECK_INTERVAL) {
+            rawFieldsCheckedOn = now;
+            rawFieldsIndexed = countDocumentsWithoutRawFields() == 0;
+        }
+        return rawFieldsIndexed;
+    }
+
+    private SearchRequestBuilder prepareSearch(QueryBuilder query) {
+        ElasticsearchPersistentEntity<?> entity = elasticsearchTemplate.getPersistentEntityFor(Article.class);
+        return elasticsearchTemplate.getClient().prepareSearch(entity.getIndexName())
+            .setTypes(entity.getIndexType())
+            .setQuery(query)
+            .setHighlighterRequireFieldMatch(false)
+            .addHighlightedField("articleName", 0, 0)
+            .addHighlightedField("content", 150, 3);
+    }
+
+    private List<Hit> toHits(SearchResponse response) {
+        List<Hit> hits = new ArrayList<>();
+        for (SearchHit searchHit : response.getHits()) {
+            hits.add(toHit(searchHit));
+        }
+        return hits;
+    }
+
+    private BoolQueryBuilder buildQuery(ArticleSearchCriteria criteria) {
+        BoolQueryBuilder query = boolQuery();
+        if (StringUtils.hasText(criteria.getQuery())) {
+            query.must(multiMatchQuery(criteria.getQuery().trim(), TEXT_FIELDS)
+                .type(MultiMatchQueryBuilder.Type.BEST_FIELDS)
+                .tieBreaker(0.3f));
+        } else {
+            query.must(matchAllQuery());
+        }
+        boolean useRawFields = useRawFields();
+        if (criteria.getType() != null) {
+            query.filter(useRawFields ? termQuery("type.raw", criteria.getType().name())
+                : termQuery("type", criteria.getType().name().toLowerCase(Locale.ROOT)));
+        }
+        if (criteria.getStatus() != null) {
+            query.filter(useRawFields ? termQuery("status.raw", criteria.getStatus().name())
+                : termQuery("status", criteria.getStatus().name().toLowerCase(Locale.ROOT)));
+        }
+        if (criteria.getPublishedFrom() != null || criteria.getPublishedTo() != null) {
+            RangeQueryBuilder publishDate = rangeQuery("publishDate");
+            if (criteria.getPublishedFrom() != null) {
+                publishDate.gte(criteria.getPublishedFrom().toString());
+            }
+            if (criteria.getPublishedTo() != null) {
+                publishDate.lte(criteria.getPublishedTo().toString());
+            }
+            query.filter(publishDate);
+        }
+        return query;
+    }
+
+    private Hit toHit(SearchHit searchHit) {
+        Article article;
+        try {
+            article = entityMapper.mapToObject(searchHit.getSourceAsString(), Article.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the indexed Article " + searchHit.getId(), e);
+        }
+        Map<String, List<String>> highlights = new LinkedHashMap<>();
+        searchHit.getHighlightFields().forEach((field, highlight) -> highlights.put(field,
+            Arrays.stream(highlight.getFragments()).map(Text::string).collect(Collectors.toList())));
+        return new Hit(article, highlights);
+    }
+
+    /**
+     * An article found by a search.
+     */
+    public static final class Hit {
+
+        private final Article article;
+
+        private final Map<String, List<String>> highlights;
+
+        private Hit(Article article, Map<String, List<String>> highlights) {
+            this.article = article;
+            this.highlights = highlights;
+        }
+
+        public Article getArticle() {
+            return article;
+        }
+
+        /**
+         * @return the highlighted fragments, by field name
+         */
+        public Map<String, List<String>> getHighlights() {
+            return highlights;
+        }
+    }
+}
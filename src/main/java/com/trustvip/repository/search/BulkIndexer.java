@@ -0,0 +1,288 @@
+package com.trustvip.repository.search;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Collections;
+
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequestBuilder;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequestBuilder;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.index.IndexRequestBuilder;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.index.VersionType;
+import org.elasticsearch.rest.RestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.EntityMapper;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.trustvip.repository.search.SearchReindexStateRepository.SearchReindexState;
+
+/**
+ * Sends index and delete operations to Elasticsearch with "_bulk" requests.
+ * <p>
+ * The operations are split into requests of at most "maxActions" operations and "maxBytes" bytes of source.
+ * A failed operation does not fail the others: the failures are reported per operation, so the caller can retry
+ * only those. The indices are not refreshed after each request, new documents becoming searchable with the
+ * next periodic refresh.
+ * <p>
+ * Operations with a version are sent with the "external_gte" version type, so an operation which reaches
+ * Elasticsearch after a more recent one is ignored instead of overwriting it, and its conflict is not a failure.
+ * <p>
+ * While an index is rebuilt by any node, as recorded by the {@link SearchReindexStateRepository}, the operations
+ * on its documents are also written to the new index, and fail while its alias is moved so they are retried.
+ * <p>
+ * The number of requests and operations, the request latency, the bytes of source sent per request and the
+ * failures are published in the metrics registry under "com.trustvip.repository.search.BulkIndexer".
+ */
+public class BulkIndexer {
+
+    private final Logger log = LoggerFactory.getLogger(BulkIndexer.class);
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final EntityMapper entityMapper;
+
+    private final int maxActions;
+
+    private final long maxBytes;
+
+    private final Timer requests;
+
+    private final Histogram requestSizes;
+
+    private final Meter operations;
+
+    private final Meter failures;
+
+    private final SearchReindexStateRepository searchReindexStateRepository;
+
+    public BulkIndexer(ElasticsearchTemplate elasticsearchTemplate, EntityMapper entityMapper,
+            SearchReindexStateRepository searchReindexStateRepository, MetricRegistry metricRegistry, int maxActions,
+            long maxBytes) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.entityMapper = entityMapper;
+        this.searchReindexStateRepository = searchReindexStateRepository;
+        this.maxActions = maxActions;
+        this.maxBytes = maxBytes;
+        this.requests = metricRegistry.timer(MetricRegistry.name(BulkIndexer.class, "requests"));
+        this.requestSizes = metricRegistry.histogram(MetricRegistry.name(BulkIndexer.class, "request-size"));
+        this.operations = metricRegistry.meter(MetricRegistry.name(BulkIndexer.class, "operations"));
+        this.failures = metricRegistry.meter(MetricRegistry.name(BulkIndexer.class, "failures"));
+    }
+
+    /**
+     * Execute operations on the indices of their documents, in as few requests as the limits allow.
+     *
+     * @param bulkOperations the operations to execute
+     * @return the error message of each failed operation, the other operations having succeeded
+     */
+    public Map<Operation, String> execute(List<Operation> bulkOperations) {
+        return execute(bulkOperations, null);
+    }
+
+    /**
+     * Execute operations, in as few requests as the limits allow.
+     * <p>
+     * The documents are only created in a target index: a document already written to it by the operations on
+     * the index of the documents is newer, and is kept.
+     *
+     * @param bulkOperations the operations to execute
+     * @param targetIndex the index to write to, or null to write to the index of each document
+     * @return the error message of each failed operation, the other operations having succeeded
+     */
+    public Map<Operation, String> execute(List<Operation> bulkOperations, String targetIndex) {
+        Map<Operation, String> failed = new IdentityHashMap<>();
+        // Read once the documents are loaded, so a rebuild claimed later loads documents at least as recent
+        Map<String, SearchReindexState> reindexStates = targetIndex == null
+            ? searchReindexStateRepository.findAllInProgress() : Collections.emptyMap();
+        List<Operation> chunk = new ArrayList<>();
+        List<byte[]> sources = new ArrayList<>();
+        long chunkBytes = 0;
+        for (Operation operation : bulkOperations) {
+            byte[] source;
+            try {
+                source = operation.document == null ? null
+                    : entityMapper.mapToString(operation.document).getBytes(StandardCharsets.UTF_8);
+            } catch (IOException | RuntimeException e) {
+                failed.put(operation, "Could not serialize the document: " + e.getMessage());
+                continue;
+            }
+            long size = source == null ? 0 : source.length;
+            if (!chunk.isEmpty() && (chunk.size() >= maxActions || chunkBytes + size > maxBytes)) {
+                send(chunk, sources, targetIndex, reindexStates, failed);
+                chunk.clear();
+                sources.clear();
+                chunkBytes = 0;
+            }
+            chunk.add(operation);
+            sources.add(source);
+            chunkBytes += size;
+        }
+        if (!chunk.isEmpty()) {
+            send(chunk, sources, targetIndex, reindexStates, failed);
+        }
+        if (!failed.isEmpty()) {
+            failures.mark(failed.size());
+        }
+        return failed;
+    }
+
+    /**
+     * @param documentClass the class of the documents
+     * @return the name of their index, or of the alias of their index
+     */
+    public String getIndexName(Class<?> documentClass) {
+        return elasticsearchTemplate.getPersistentEntityFor(documentClass).getIndexName();
+    }
+
+    /**
+     * @param documentClass the class of the documents
+     * @return their mapping type
+     */
+    public String getIndexType(Class<?> documentClass) {
+        return elasticsearchTemplate.getPersistentEntityFor(documentClass).getIndexType();
+    }
+
+    private void send(List<Operation> chunk, List<byte[]> sources, String targetIndex,
+            Map<String, SearchReindexState> reindexStates, Map<Operation, String> failed) {
+        Client client = elasticsearchTemplate.getClient();
+        BulkRequestBuilder bulk = client.prepareBulk();
+        List<Operation> items = new ArrayList<>();
+        long bytes = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            Operation operation = chunk.get(i);
+            ElasticsearchPersistentEntity<?> entity = elasticsearchTemplate.getPersistentEntityFor(operation.documentClass);
+            SearchReindexState reindexState = reindexStates.get(entity.getIndexName());
+            if (reindexState != null && reindexState.isPaused()) {
+                failed.put(operation, "The " + entity.getIndexName() + " index is being replaced");
+                continue;
+            }
+            String shadowIndex = reindexState == null ? null : reindexState.getShadowIndex();
+            for (String index : new String[] { targetIndex == null ? entity.getIndexName() : targetIndex, shadowIndex }) {
+                if (index == null) {
+                    continue;
+                }
+                // The documents are only created in a target index, which does not support versions
+                boolean versioned = targetIndex == null && operation.version != null;
+                if (sources.get(i) == null) {
+                    DeleteRequestBuilder delete = client.prepareDelete(index, entity.getIndexType(), operation.id);
+                    if (versioned) {
+                        delete.setVersion(operation.version).setVersionType(VersionType.EXTERNAL_GTE);
+                    }
+                    bulk.add(delete);
+                } else {
+                    IndexRequestBuilder request = client.prepareIndex(index, entity.getIndexType(), operation.id)
+                        .setSource(sources.get(i))
+                        .setOpType(targetIndex == null ? IndexRequest.OpType.INDEX : IndexRequest.OpType.CREATE);
+                    if (versioned) {
+                        request.setVersion(operation.version).setVersionType(VersionType.EXTERNAL_GTE);
+                    }
+                    bulk.add(request);
+                    bytes += sources.get(i).length;
+                }
+                items.add(operation);
+            }
+        }
+        if (items.isEmpty()) {
+            return;
+        }
+        requestSizes.update(bytes);
+        operations.mark(items.size());
+        BulkResponse response;
+        try (Timer.Context ignored = requests.time()) {
+            response = bulk.execute().actionGet();
+        } catch (RuntimeException e) {
+            log.warn("Bulk request of {} operations failed: {}", items.size(), e.getMessage());
+            chunk.forEach(operation -> failed.put(operation, e.getMessage()));
+            return;
+        }
+        if (response.hasFailures()) {
+            for (BulkItemResponse item : response.getItems()) {
+                // A document already created in the target index, or with a greater version, was written by a more
+                // recent operation
+                Operation operation = items.get(item.getItemId());
+                if (item.isFailed() && !(item.getFailure().getStatus() == RestStatus.CONFLICT
+                        && (targetIndex != null || operation.version != null))) {
+                    failed.put(operation, item.getFailureMessage());
+                }
+            }
+        }
+        log.debug("Bulk request of {} operations executed in {} ms", items.size(), response.getTookInMillis());
+    }
+
+    /**
+     * An operation of a bulk request: indexing a document, or deleting it.
+     */
+    public static final class Operation {
+
+        private final Class<?> documentClass;
+
+        private final String id;
+
+        private final Object document;
+
+        private final Long version;
+
+        private Operation(Class<?> documentClass, String id, Object document, Long version) {
+            this.documentClass = documentClass;
+            this.id = id;
+            this.document = document;
+            this.version = version;
+        }
+
+        /**
+         * @param document the document to index, an instance of a class annotated with "@Document"
+         * @param id the id of the document
+         * @return the operation (re)indexing the document
+         */
+        public static Operation index(Object document, Object id) {
+            return new Operation(document.getClass(), String.valueOf(id), document, null);
+        }
+
+        /**
+         * @param documentClass the class of the document, annotated with "@Document"
+         * @param id the id of the document
+         * @return the operation removing the document from its index, if it is there
+         */
+        public static Operation delete(Class<?> documentClass, Object id) {
+            return new Operation(documentClass, String.valueOf(id), null, null);
+        }
+
+        /**
+         * @param version the external version of the document, which must grow with each change of the document
+         * @return the same operation, ignored when the document already has a greater version
+         */
+        public Operation withVersion(long version) {
+            return new Operation(documentClass, id, document, version);
+        }
+
+        public Class<?> getDocumentClass() {
+            return documentClass;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        @Override
+        public String toString() {
+            return (document == null ? "delete " : "index ") + documentClass.getSimpleName() + " " + id;
+        }
+    }
+}
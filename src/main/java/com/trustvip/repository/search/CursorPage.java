@@ -0,0 +1,47 @@
+package com.trustvip.repository.search;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of search results read with a {@link SearchCursor}.
+ *
+ * @param <T> the type of the results
+ */
+public final class CursorPage<T> {
+
+    private final List<T> content;
+
+    private final SearchCursor next;
+
+    private final Long totalCount;
+
+    public CursorPage(List<T> content, SearchCursor next, Long totalCount) {
+        this.content = content;
+        this.next = next;
+        this.totalCount = totalCount;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * @return the cursor of the next page, or null if this page is the last one
+     */
+    public SearchCursor getNext() {
+        return next;
+    }
+
+    /**
+     * @return the exact number of matching results, or null if it was not requested
+     */
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    public <U> CursorPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CursorPage<>(content.stream().map(converter).collect(Collectors.toList()), next, totalCount);
+    }
+}
@@ -1,10 +1,10 @@
 package com.trustvip.repository.search;
 
-import com.trustvip.domain.RelatedDocument;
+import com.trustvip.domain.search.RelatedDocumentSearchDocument;
 import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
 
 /**
- * Spring Data Elasticsearch repository for the RelatedDocument entity.
+ * Spring Data Elasticsearch repository for the indexed copies of the RelatedDocument entity.
  */
-public interface RelatedDocumentSearchRepository extends ElasticsearchRepository<RelatedDocument, Long> {
+public interface RelatedDocumentSearchRepository extends ElasticsearchRepository<RelatedDocumentSearchDocument, Long> {
 }
@@ -0,0 +1,114 @@
+package com.trustvip.repository.search;
+
+import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
+import static org.elasticsearch.index.query.QueryBuilders.rangeQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of a client paging through search results with an opaque cursor.
+ * <p>
+ * Pages are read in the order of the document ids, each page filtering on the id of the last document of
+ * the previous one instead of skipping the previous documents, so reading a deep page costs the same as
+ * reading the first one. Results are therefore ordered by id, ascending or descending, and not by relevance.
+ * Elasticsearch 2.x has no "search_after", hence the range filter on the id.
+ */
+public final class SearchCursor {
+
+    private final Sort.Direction direction;
+
+    private final Long lastId;
+
+    private SearchCursor(Sort.Direction direction, Long lastId) {
+        this.direction = direction;
+        this.lastId = lastId;
+    }
+
+    /**
+     * Get the cursor requested by a client.
+     *
+     * @param token the cursor returned with the previous page, or an empty string for the first page
+     * @param sort the requested sort, whose direction on "id" is used for the first page (descending by default)
+     * @return the cursor
+     * @throws IllegalArgumentException if the token is not a valid cursor
+     */
+    public static SearchCursor of(String token, Sort sort) {
+        if (token == null || token.isEmpty()) {
+            Sort.Order order = sort == null ? null : sort.getOrderFor("id");
+            return new SearchCursor(order == null ? Sort.Direction.DESC : order.getDirection(), null);
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(':');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        return new SearchCursor(Sort.Direction.fromString(decoded.substring(0, separator)),
+            Long.valueOf(decoded.substring(separator + 1)));
+    }
+
+    /**
+     * @return the opaque token of this cursor, to be sent back by the client
+     */
+    public String encode() {
+        String value = direction.name().toLowerCase() + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Restrict a query to the documents after this cursor.
+     *
+     * @param query the query of the search
+     * @return the restricted query
+     */
+    public QueryBuilder apply(QueryBuilder query) {
+        if (lastId == null) {
+            return query;
+        }
+        RangeQueryBuilder after = direction.isAscending() ? rangeQuery("id").gt(lastId) : rangeQuery("id").lt(lastId);
+        return boolQuery().must(query).filter(after);
+    }
+
+    /**
+     * @param size the size of the page
+     * @return the request of the page, reading one more document to know whether there is a next page
+     */
+    public Pageable pageRequest(int size) {
+        return new PageRequest(0, size + 1, new Sort(direction, "id"));
+    }
+
+    /**
+     * Build a page from the documents read with {@link #pageRequest(int)}.
+     *
+     * @param fetched the documents read
+     * @param size the size of the page
+     * @param idGetter gets the id of a document
+     * @param totalCount the exact number of matching documents, or null if it was not requested
+     * @param <T> the type of the documents
+     * @return the page
+     */
+    public <T> CursorPage<T> toPage(List<T> fetched, int size, Function<T, Long> idGetter, Long totalCount) {
+        if (fetched.size() <= size) {
+            return new CursorPage<>(fetched, null, totalCount);
+        }
+        List<T> content = fetched.subList(0, size);
+        SearchCursor next = new SearchCursor(direction, idGetter.apply(content.get(size - 1)));
+        return new CursorPage<>(content, next, totalCount);
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,131 @@
+package com.trustvip.repository.search;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.trustvip.config.ApplicationProperties;
+
+/**
+ * The search indices being rebuilt, shared by every node through the "search_reindex" table.
+ * <p>
+ * A row is inserted when a node starts rebuilding the index behind an alias, so no other node rebuilds it at the
+ * same time, and names the new index every node must also write to. A rebuild which did not report any progress
+ * for "application.search.reindex-timeout" milliseconds is considered abandoned: its row is ignored, and can be
+ * claimed by another node.
+ */
+@Repository
+public class SearchReindexStateRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationProperties.Search properties;
+
+    public SearchReindexStateRepository(JdbcTemplate jdbcTemplate, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = applicationProperties.getSearch();
+    }
+
+    /**
+     * Claim the rebuild of the index behind an alias.
+     *
+     * @param alias the alias
+     * @return true if the rebuild was claimed, false if another rebuild of this alias is running
+     */
+    public boolean claim(String alias) {
+        Timestamp now = Timestamp.from(Instant.now());
+        try {
+            jdbcTemplate.update("insert into search_reindex (alias, paused, started_on, updated_on) values (?, ?, ?, ?)",
+                alias, false, now, now);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Take over an abandoned rebuild, only one of the nodes trying to do so deleting its row
+            return jdbcTemplate.update("delete from search_reindex where alias = ? and updated_on < ?", alias,
+                    expiredBefore()) > 0
+                && jdbcTemplate.update("insert into search_reindex (alias, paused, started_on, updated_on) "
+                    + "values (?, ?, ?, ?)", alias, false, now, now) > 0;
+        }
+    }
+
+    /**
+     * Record the progress of a rebuild, which keeps it from being considered abandoned.
+     *
+     * @param alias the alias
+     */
+    public void touch(String alias) {
+        jdbcTemplate.update("update search_reindex set updated_on = ? where alias = ?", Timestamp.from(Instant.now()),
+            alias);
+    }
+
+    /**
+     * @param alias the alias
+     * @param shadowIndex the new index, to which every node also writes, or null to stop writing to it
+     */
+    public void setShadowIndex(String alias, String shadowIndex) {
+        jdbcTemplate.update("update search_reindex set shadow_index = ?, updated_on = ? where alias = ?", shadowIndex,
+            Timestamp.from(Instant.now()), alias);
+    }
+
+    /**
+     * @param alias the alias
+     * @param paused true while the alias is moved, the nodes then failing the writes to it so they are retried
+     */
+    public void setPaused(String alias, boolean paused) {
+        jdbcTemplate.update("update search_reindex set paused = ?, updated_on = ? where alias = ?", paused,
+            Timestamp.from(Instant.now()), alias);
+    }
+
+    /**
+     * End the rebuild of the index behind an alias.
+     *
+     * @param alias the alias
+     */
+    public void release(String alias) {
+        jdbcTemplate.update("delete from search_reindex where alias = ?", alias);
+    }
+
+    /**
+     * @return the rebuilds in progress, by alias
+     */
+    public Map<String, SearchReindexState> findAllInProgress() {
+        Map<String, SearchReindexState> states = new HashMap<>();
+        jdbcTemplate.query("select alias, shadow_index, paused from search_reindex where updated_on >= ?",
+            (RowCallbackHandler) rs -> states.put(rs.getString(1),
+                new SearchReindexState(rs.getString(2), rs.getBoolean(3))),
+            expiredBefore());
+        return states;
+    }
+
+    private Timestamp expiredBefore() {
+        return Timestamp.from(Instant.now().minusMillis(properties.getReindexTimeout()));
+    }
+
+    /**
+     * The state of the rebuild of the index behind an alias.
+     */
+    public static final class SearchReindexState {
+
+        private final String shadowIndex;
+
+        private final boolean paused;
+
+        SearchReindexState(String shadowIndex, boolean paused) {
+            this.shadowIndex = shadowIndex;
+            this.paused = paused;
+        }
+
+        public String getShadowIndex() {
+            return shadowIndex;
+        }
+
+        public boolean isPaused() {
+            return paused;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.trustvip.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.google.common.collect.MapMaker;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.domain.enumeration.ArticleType;
+import com.trustvip.repository.ArticleRepository;
+import com.trustvip.service.cluster.AbstractClusterEventBus;
+import com.trustvip.service.dto.ArticleFacetsDTO;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.ArticleFacet;
+
+/**
+ * In-memory number of articles by type, status and publish month, for the dashboard.
+ * <p>
+ * The counts are loaded with a single grouped query, then updated from the facets carried by each committed
+ * {@link ArticleChangedEvent}, so the dashboard does not count the articles again on each load. A change whose
+ * facets are unknown discards the counts, and they are loaded again at least every
+ * "application.dashboard.facet-refresh-interval" milliseconds to correct any drift.
+ * <p>
+ * A load may already count a change whose event is handled after it, so such an event discards the counts instead
+ * of counting the change twice: a local change races with the loads completed since its transaction started to
+ * commit, and a change received from another node with the loads started within the time it takes to receive it.
+ */
+@Component
+public class ArticleFacetCounter {
+
+    private final Logger log = LoggerFactory.getLogger(ArticleFacetCounter.class);
+
+    private final ArticleRepository articleRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    private Map<ArticleFacet, Long> counts;
+
+    private long loadedOn;
+
+    /**
+     * The number of loads completed, recorded for each change just before its transaction commits.
+     */
+    private final AtomicLong loads = new AtomicLong();
+
+    private final ConcurrentMap<ArticleChangedEvent, Long> committingChanges = new MapMaker().weakKeys().makeMap();
+
+    public ArticleFacetCounter(ArticleRepository articleRepository, ApplicationProperties applicationProperties) {
+        this.articleRepository = articleRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Get the number of articles by type, status and publish month, loading them if needed.
+     * <p>
+     * Must be called within a transaction.
+     *
+     * @return the counts
+     */
+    public synchronized ArticleFacetsDTO getFacets() {
+        long now = System.currentTimeMillis();
+        if (counts == null || now - loadedOn > applicationProperties.getDashboard().getFacetRefreshInterval()) {
+            counts = load();
+            loadedOn = now;
+            loads.incrementAndGet();
+        }
+        ArticleFacetsDTO facets = new ArticleFacetsDTO();
+        counts.forEach((facet, count) -> {
+            facets.setTotal(facets.getTotal() + count);
+            if (facet.getType() != null) {
+                facets.getTypes().merge(facet.getType(), count, Long::sum);
+            }
+            if (facet.getStatus() != null) {
+                facets.getStatuses().merge(facet.getStatus(), count, Long::sum);
+            }
+            if (facet.getPublishMonth() != null) {
+                facets.getPublishMonths().merge(facet.getPublishMonth().toString(), count, Long::sum);
+            }
+        });
+        return facets;
+    }
+
+    /**
+     * Discard the counts, which are loaded again on the next read.
+     */
+    public synchronized void invalidate() {
+        counts = null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onArticleCommitting(ArticleChangedEvent event) {
+        committingChanges.put(event, loads.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onArticleChanged(ArticleChangedEvent event) {
+        Long loadsBeforeCommit = committingChanges.remove(event);
+        if (counts == null) {
+            return;
+        }
+        if (event.isUnknownChange()) {
+            log.debug("Discarding the article counts after {}", event);
+            counts = null;
+            return;
+        }
+        if (loadsBeforeCommit != null ? loadsBeforeCommit != loads.get() : isReceivedSinceLoad()) {
+            log.debug("Discarding the article counts loaded while {} was committed", event);
+            counts = null;
+            return;
+        }
+        if (event.getPrevious() != null) {
+            counts.computeIfPresent(event.getPrevious(), (facet, count) -> count > 1 ? count - 1 : null);
+        }
+        if (event.getCurrent() != null) {
+            counts.merge(event.getCurrent(), 1L, Long::sum);
+        }
+    }
+
+    private boolean isReceivedSinceLoad() {
+        ApplicationProperties.Cluster cluster = applicationProperties.getCluster();
+        return AbstractClusterEventBus.isReceiving()
+            && System.currentTimeMillis() - loadedOn <= cluster.getPollInterval() + cluster.getCommitWindow();
+    }
+
+    private Map<ArticleFacet, Long> load() {
+        log.debug("Loading the article counts");
+        Map<ArticleFacet, Long> loaded = new HashMap<>();
+        for (Object[] row : articleRepository.countGroupedByTypeAndStatusAndPublishDate()) {
+            loaded.merge(new ArticleFacet((ArticleType) row[0], (ArticleStatus) row[1], (LocalDate) row[2]),
+                (Long) row[3], Long::sum);
+        }
+        return loaded;
+    }
+}
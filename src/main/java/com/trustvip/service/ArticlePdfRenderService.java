@@ -0,0 +1,306 @@
+package com.trustvip.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.cache.CacheBuilder;
+import com.itextpdf.text.DocumentException;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.Article;
+import com.trustvip.repository.ArticleRepository;
+import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.service.dto.RelatedDocumentDTO;
+import com.trustvip.service.dto.RelatedDocumentSummaryDTO;
+import com.trustvip.service.mapper.RelatedDocumentMapper;
+import com.trustvip.service.util.ChecksumUtil;
+
+/**
+ * Service for rendering the "AutoGenerated PDF" of articles outside of the request thread.
+ * <p>
+ * Renders are queued once the transaction saving the article has committed, and are processed by the
+ * bounded "pdfRenderExecutor". A failed render is retried up to the configured number of attempts, and the
+ * last known status of the recently rendered articles is kept in memory. When the queue is full, the render is
+ * dropped rather than run on the saving thread, and the PDF is rendered on its first GET instead.
+ * <p>
+ * Each rendered document stores a hash of the article content and of the cover page template version, so
+ * saves which do not change the content (status, rating...) reuse the existing PDF instead of rendering it again.
+ * The same document serves as the cache of the PDFs rendered on demand by {@link #getRenderedPdf(Long)}.
+ */
+@Service
+public class ArticlePdfRenderService {
+
+    public static final String AUTOGENERATED_PDF_PREFIX = "AutoGenerated PDF: ";
+
+    public enum RenderStatus {
+        QUEUED, RENDERING, COMPLETED, FAILED
+    }
+
+    private final Logger log = LoggerFactory.getLogger(ArticlePdfRenderService.class);
+
+    private final ConcurrentMap<Long, RenderStatus> statuses;
+
+    private final ArticleRepository articleRepository;
+
+    private final RelatedDocumentService relatedDocumentService;
+
+    private final RelatedDocumentRepository relatedDocumentRepository;
+
+    private final RelatedDocumentMapper relatedDocumentMapper;
+
+    private final PDFService pdfService;
+
+    private final ThreadPoolTaskExecutor pdfRenderExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    /**
+     * The locks of the articles being rendered, removed once no thread holds or waits for them.
+     */
+    private final ConcurrentMap<Long, RenderLock> renderLocks = new ConcurrentHashMap<>();
+
+    public ArticlePdfRenderService(ArticleRepository articleRepository, RelatedDocumentService relatedDocumentService,
+            RelatedDocumentRepository relatedDocumentRepository, RelatedDocumentMapper relatedDocumentMapper,
+            PDFService pdfService, @Qualifier("pdfRenderExecutor") ThreadPoolTaskExecutor pdfRenderExecutor,
+            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.articleRepository = articleRepository;
+        this.relatedDocumentService = relatedDocumentService;
+        this.relatedDocumentRepository = relatedDocumentRepository;
+        this.relatedDocumentMapper = relatedDocumentMapper;
+        this.pdfService = pdfService;
+        this.pdfRenderExecutor = pdfRenderExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.applicationProperties = applicationProperties;
+        ApplicationProperties.Pdf properties = applicationProperties.getPdf();
+        this.statuses = CacheBuilder.newBuilder()
+            .maximumSize(properties.getStatusCacheSize())
+            .expireAfterWrite(properties.getStatusTtl(), TimeUnit.MILLISECONDS)
+            .<Long, RenderStatus>build()
+            .asMap();
+    }
+
+    /**
+     * Request the rendering of the PDF of an article.
+     * <p>
+     * When called within a transaction, the render is only queued after the commit, so the
+     * worker always reads the saved content and no database connection is held while rendering.
+     *
+     * @param articleId the id of the article to render
+     */
+    public void requestRender(Long articleId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    enqueue(articleId);
+                }
+            });
+        } else {
+            enqueue(articleId);
+        }
+    }
+
+    /**
+     * Get the status of the last render requested for an article.
+     *
+     * @param articleId the id of the article
+     * @return the render status, or empty if no render was requested recently
+     */
+    public Optional<RenderStatus> getStatus(Long articleId) {
+        return Optional.ofNullable(statuses.get(articleId));
+    }
+
+    private void enqueue(Long articleId) {
+        // A render still waiting in the queue reads the latest content anyway, so only one is needed
+        if (statuses.put(articleId, RenderStatus.QUEUED) != RenderStatus.QUEUED) {
+            log.debug("Queuing the PDF render of Article : {}", articleId);
+            try {
+                pdfRenderExecutor.execute(() -> render(articleId));
+            } catch (TaskRejectedException e) {
+                // The PDF is rendered on its first GET instead
+                log.warn("The PDF render queue is full, Article {} is rendered on demand", articleId);
+                statuses.remove(articleId, RenderStatus.QUEUED);
+            }
+        }
+    }
+
+    private void render(Long articleId) {
+        // The status may have expired while the render was queued
+        statuses.put(articleId, RenderStatus.RENDERING);
+        ApplicationProperties.Pdf properties = applicationProperties.getPdf();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                renderArticle(articleId, false);
+                statuses.replace(articleId, RenderStatus.RENDERING, RenderStatus.COMPLETED);
+                return;
+            } catch (Exception e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    log.error("Could not render the PDF of Article {} after {} attempts", articleId, attempt, e);
+                    statuses.replace(articleId, RenderStatus.RENDERING, RenderStatus.FAILED);
+                    return;
+                }
+                log.warn("Rendering the PDF of Article {} failed (attempt {}): {}", articleId, attempt, e.getMessage());
+            }
+            try {
+                Thread.sleep(properties.getRetryDelay() * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                statuses.replace(articleId, RenderStatus.RENDERING, RenderStatus.FAILED);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Get the up to date PDF of an article, rendering it now if needed.
+     * <p>
+     * Concurrent requests for the same article wait for a single render, and reuse the PDF rendered in the
+     * background if it is already up to date.
+     *
+     * @param articleId the id of the article
+     * @return the rendered PDF, or empty if the article does not exist
+     * @throws DocumentException if the content could not be laid out
+     * @throws IOException if the PDF could not be written
+     */
+    public Optional<RelatedDocumentDTO> getRenderedPdf(Long articleId) throws DocumentException, IOException {
+        return Optional.ofNullable(renderArticle(articleId, true));
+    }
+
+    /**
+     * Compute the entity tag the PDF of an article content has, without rendering it.
+     *
+     * @param content the content of the article
+     * @return the quoted entity tag
+     */
+    public String getETag(String content) {
+        return "\"" + contentHash(content) + "\"";
+    }
+
+    /**
+     * Get the entity tag of a rendered PDF, derived from the content it was rendered from.
+     *
+     * @param pdf the rendered PDF
+     * @return the quoted entity tag
+     */
+    public String getETag(RelatedDocumentDTO pdf) {
+        return "\"" + pdf.getContentHash() + "\"";
+    }
+
+    private RelatedDocumentDTO renderArticle(Long articleId, boolean load) throws DocumentException, IOException {
+        RenderLock renderLock = renderLocks.compute(articleId, (id, lock) -> {
+            RenderLock result = lock == null ? new RenderLock() : lock;
+            result.holders++;
+            return result;
+        });
+        try {
+            synchronized (renderLock) {
+                return renderArticleLocked(articleId, load);
+            }
+        } finally {
+            renderLocks.computeIfPresent(articleId, (id, lock) -> --lock.holders == 0 ? null : lock);
+        }
+    }
+
+    private RelatedDocumentDTO renderArticleLocked(Long articleId, boolean load) throws DocumentException, IOException {
+        Article article = articleRepository.findOne(articleId);
+        if (article == null) {
+            log.debug("Article {} does not exist anymore, no PDF to render", articleId);
+            return null;
+        }
+        String docName = AUTOGENERATED_PDF_PREFIX + article.getArticleName();
+        String contentHash = contentHash(article.getContent());
+        if (!load) {
+            if (relatedDocumentRepository.existsByArticleIdAndDocNameAndContentHash(articleId, docName,
+                    contentHash)) {
+                log.debug("The PDF of Article {} is up to date", articleId);
+                return null;
+            }
+        } else {
+            RelatedDocumentDTO current = readOnlyTransactionTemplate.execute(status -> relatedDocumentMapper.toDto(
+                relatedDocumentRepository.findFirstByArticleIdAndDocNameAndContentHash(articleId, docName,
+                    contentHash)));
+            if (current != null) {
+                return current;
+            }
+        }
+        return render(article, docName, contentHash);
+    }
+
+    private RelatedDocumentDTO render(Article article, String docName, String contentHash)
+            throws DocumentException, IOException {
+        Long articleId = article.getId();
+        Path pdf = Files.createTempFile("article-" + articleId + "-", ".pdf");
+        try {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(pdf))) {
+                pdfService.createPDFfromHTML(article.getContent(), outputStream);
+            }
+            RelatedDocumentDTO result = transactionTemplate.execute(status -> {
+                deletePreviousAutogeneratedPDF(articleId);
+                RelatedDocumentDTO rDTO = new RelatedDocumentDTO();
+                rDTO.setArticleId(articleId);
+                rDTO.setDocName(docName);
+                rDTO.setDocFileContentType("application/pdf");
+                rDTO.setContentHash(contentHash);
+                try (InputStream content = Files.newInputStream(pdf)) {
+                    return relatedDocumentService.save(rDTO, content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.debug("Rendered the PDF of Article : {}", articleId);
+            return result;
+        } finally {
+            Files.deleteIfExists(pdf);
+        }
+    }
+
+    private String contentHash(String content) {
+        return ChecksumUtil.checksum(pdfService.getTemplateVersion(), content);
+    }
+
+    private void deletePreviousAutogeneratedPDF(Long articleId) {
+        List<RelatedDocumentSummaryDTO> docList = relatedDocumentService.findSummariesByArticleId(articleId);
+        for (RelatedDocumentSummaryDTO doc : docList) {
+            if (doc.getDocName() != null && doc.getDocName().startsWith(AUTOGENERATED_PDF_PREFIX)) {
+                log.debug("Deleting doc: {}", doc.getDocName());
+                relatedDocumentService.delete(doc.getId());
+            }
+        }
+    }
+
+    private static final class RenderLock {
+
+        /**
+         * The number of threads holding or waiting for the lock, only read and written while computing its mapping.
+         */
+        private int holders;
+    }
+}
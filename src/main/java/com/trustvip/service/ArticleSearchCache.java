@@ -0,0 +1,168 @@
+package com.trustvip.service;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.service.dto.ArticleSearchCriteria;
+import com.trustvip.service.dto.ArticleSearchResultDTO;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.SearchIndexUpdatedEvent;
+
+/**
+ * Short-lived cache of the article search results.
+ * <p>
+ * Results are cached by normalised query, filters, page and roles of the current user, for at most
+ * "application.search.result-cache-ttl" milliseconds. The whole cache is cleared once an article change
+ * has committed, and again once the search indexer has applied article changes to Elasticsearch, so a
+ * search run in between cannot keep stale results. The hit and miss counts are exported as gauges.
+ */
+@Component
+public class ArticleSearchCache {
+
+    private final Logger log = LoggerFactory.getLogger(ArticleSearchCache.class);
+
+    private final Cache<Key, Page<ArticleSearchResultDTO>> cache;
+
+    public ArticleSearchCache(ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        ApplicationProperties.Search properties = applicationProperties.getSearch();
+        this.cache = CacheBuilder.newBuilder()
+            .maximumSize(properties.getResultCacheSize())
+            .expireAfterWrite(properties.getResultCacheTtl(), TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+        metricRegistry.register(MetricRegistry.name(ArticleSearchCache.class, "hits"),
+            (Gauge<Long>) () -> cache.stats().hitCount());
+        metricRegistry.register(MetricRegistry.name(ArticleSearchCache.class, "misses"),
+            (Gauge<Long>) () -> cache.stats().missCount());
+        metricRegistry.register(MetricRegistry.name(ArticleSearchCache.class, "hit-rate"),
+            (Gauge<Double>) () -> cache.stats().hitRate());
+        metricRegistry.register(MetricRegistry.name(ArticleSearchCache.class, "size"),
+            (Gauge<Long>) cache::size);
+    }
+
+    /**
+     * Get the cached results of a search, or run it.
+     *
+     * @param criteria the criteria of the search
+     * @param pageable the pagination information
+     * @param search runs the search when the results are not cached
+     * @return the results of the search
+     */
+    public Page<ArticleSearchResultDTO> get(ArticleSearchCriteria criteria, Pageable pageable,
+            Supplier<Page<ArticleSearchResultDTO>> search) {
+        try {
+            return cache.get(new Key(criteria, pageable, currentRoles()), search::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Clear the cache.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        log.debug("Clearing the article search cache after {}", event);
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSearchIndexUpdated(SearchIndexUpdatedEvent event) {
+        if (event.getEntityTypes().contains(SearchEntityType.ARTICLE)) {
+            invalidateAll();
+        }
+    }
+
+    private static String currentRoles() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return "";
+        }
+        return authentication.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+
+    /**
+     * The key of a search: searches differing only by the case or spacing of their query share their results.
+     */
+    private static final class Key {
+
+        private final String query;
+
+        private final ArticleSearchCriteria filters;
+
+        private final int page;
+
+        private final int size;
+
+        private final String sort;
+
+        private final String roles;
+
+        private Key(ArticleSearchCriteria criteria, Pageable pageable, String roles) {
+            this.query = criteria.getQuery() == null ? ""
+                : criteria.getQuery().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+            this.filters = new ArticleSearchCriteria();
+            this.filters.setType(criteria.getType());
+            this.filters.setStatus(criteria.getStatus());
+            this.filters.setPublishedFrom(criteria.getPublishedFrom());
+            this.filters.setPublishedTo(criteria.getPublishedTo());
+            this.page = pageable.getPageNumber();
+            this.size = pageable.getPageSize();
+            this.sort = String.valueOf(pageable.getSort());
+            this.roles = roles;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return page == key.page &&
+                size == key.size &&
+                query.equals(key.query) &&
+                filters.equals(key.filters) &&
+                sort.equals(key.sort) &&
+                roles.equals(key.roles);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, filters, page, size, sort, roles);
+        }
+    }
+}
@@ -1,8 +1,19 @@
 package com.trustvip.service;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import com.itextpdf.text.DocumentException;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.domain.enumeration.ArticleStatus;
-import com.trustvip.domain.enumeration.ArticleType;
+import com.trustvip.service.ArticlePdfRenderService.RenderStatus;
 import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.dto.ArticleFacetsDTO;
+import com.trustvip.service.dto.ArticleSearchCriteria;
+import com.trustvip.service.dto.ArticleSearchResultDTO;
+import com.trustvip.service.dto.RelatedDocumentDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -35,6 +46,14 @@ public interface ArticleService {
      */
     ArticleDTO findOne(Long id);
 
+    /**
+     * Get the "id" article with the summaries of its related documents.
+     *
+     * @param id the id of the entity
+     * @return the entity, or null if it does not exist
+     */
+    ArticleDTO findOneWithDocuments(Long id);
+
     /**
      * Delete the "id" article.
      *
@@ -43,14 +62,33 @@ public interface ArticleService {
     void delete(Long id);
 
     /**
-     * Search for the article corresponding to the query.
+     * Search for the articles matching some criteria.
      *
-     * @param query the query of the search
-     * 
+     * @param criteria the criteria of the search
      * @param pageable the pagination information
-     * @return the list of entities
+     * @return the list of entities, with their highlighted fragments
+     */
+    Page<ArticleSearchResultDTO> search(ArticleSearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Search for a page of the articles matching some criteria, after a cursor.
+     *
+     * @param criteria the criteria of the search
+     * @param cursor the position of the page
+     * @param size the size of the page
+     * @param count whether the exact number of matching articles must be computed
+     * @return the page of entities, with their highlighted fragments
      */
-    Page<ArticleDTO> search(String query, Pageable pageable);
+    CursorPage<ArticleSearchResultDTO> search(ArticleSearchCriteria criteria, SearchCursor cursor, int size, boolean count);
+
+    /**
+     * Suggest the names of the articles starting with a prefix.
+     *
+     * @param prefix the beginning of the name
+     * @param size the maximum number of names
+     * @return the matching names
+     */
+    List<String> suggest(String prefix, int size);
     
     /**
      * Get all the articles by status
@@ -63,7 +101,44 @@ public interface ArticleService {
 
     void sendEmail(String email, Long id);
 
-    long getCountByType(ArticleType type);
+    /**
+     * Get the number of articles by type, status and publish month.
+     *
+     * @return the counts
+     */
+    ArticleFacetsDTO getFacets();
 
-    long getCountByStatus(ArticleStatus status);
+    /**
+     * Get the status of the "AutoGenerated PDF" render of the "id" article.
+     *
+     * @param id the id of the entity
+     * @return the render status, or empty if no render was requested
+     */
+    Optional<RenderStatus> getPdfRenderStatus(Long id);
+
+    /**
+     * Get the entity tag the PDF of an article has, which changes with its content.
+     *
+     * @param articleDTO the article
+     * @return the quoted entity tag
+     */
+    String getPdfETag(ArticleDTO articleDTO);
+
+    /**
+     * Get the entity tag of a PDF returned by {@link #getPdf(Long)}, derived from the content it was rendered from.
+     *
+     * @param pdf the rendered PDF
+     * @return the quoted entity tag
+     */
+    String getPdfETag(RelatedDocumentDTO pdf);
+
+    /**
+     * Get the up to date PDF of the "id" article, rendering it first if needed.
+     *
+     * @param id the id of the entity
+     * @return the PDF, or empty if the article does not exist
+     * @throws DocumentException if the content could not be laid out
+     * @throws IOException if the PDF could not be written
+     */
+    Optional<RelatedDocumentDTO> getPdf(Long id) throws DocumentException, IOException;
 }
@@ -0,0 +1,142 @@
+package com.trustvip.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.service.util.ChecksumUtil;
+
+/**
+ * Cover page added in front of every rendered article PDF.
+ * <p>
+ * The template is read once at startup and kept in memory as an immutable snapshot. Each render opens its
+ * own {@link PdfReader} in partial mode over the shared bytes, so concurrent renders neither read the
+ * classpath nor parse the whole template again. {@link #reload()} swaps in a new snapshot without
+ * affecting the renders already in progress.
+ */
+@Component
+public class CoverPageTemplate {
+
+    private final Logger log = LoggerFactory.getLogger(CoverPageTemplate.class);
+
+    private final ResourceLoader resourceLoader;
+
+    private final ApplicationProperties applicationProperties;
+
+    private volatile Snapshot snapshot;
+
+    public CoverPageTemplate(ResourceLoader resourceLoader, ApplicationProperties applicationProperties) {
+        this.resourceLoader = resourceLoader;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        reload();
+    }
+
+    /**
+     * Load the template again from the configured location.
+     * <p>
+     * The new template is validated before being used, so a broken file leaves the current one in place.
+     *
+     * @return the loaded template
+     * @throws IOException if the template could not be read or is not a valid PDF
+     */
+    public synchronized Snapshot reload() throws IOException {
+        String location = applicationProperties.getPdf().getCoverTemplate();
+        byte[] content;
+        try (InputStream inputStream = resourceLoader.getResource(location).getInputStream()) {
+            content = StreamUtils.copyToByteArray(inputStream);
+        }
+        PdfReader reader = new PdfReader(content);
+        int numberOfPages = reader.getNumberOfPages();
+        reader.close();
+        Snapshot loaded = new Snapshot(location, content, ChecksumUtil.checksum(content), numberOfPages);
+        snapshot = loaded;
+        log.info("Loaded PDF cover page template {} (version {}, {} page(s))", location, loaded.getVersion(),
+            numberOfPages);
+        return loaded;
+    }
+
+    /**
+     * Get the template currently used for the renders.
+     *
+     * @return the current template
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Immutable content of a loaded cover page template.
+     */
+    public static final class Snapshot {
+
+        private final String location;
+
+        private final byte[] content;
+
+        private final String version;
+
+        private final int numberOfPages;
+
+        private final Instant loadedOn = Instant.now();
+
+        private Snapshot(String location, byte[] content, String version, int numberOfPages) {
+            this.location = location;
+            this.content = content;
+            this.version = version;
+            this.numberOfPages = numberOfPages;
+        }
+
+        /**
+         * Open a reader on the template, to be closed by the caller.
+         * <p>
+         * The reader works in partial mode over the shared bytes: only the cross-reference table is parsed
+         * here, the pages being read when they are copied.
+         *
+         * @return a new reader on the template
+         * @throws IOException if the template could not be parsed
+         */
+        public PdfReader openReader() throws IOException {
+            return new PdfReader(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content)),
+                null);
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        /**
+         * @return the SHA-256 checksum of the template, which changes whenever the template content changes
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        public int getNumberOfPages() {
+            return numberOfPages;
+        }
+
+        public int getSize() {
+            return content.length;
+        }
+
+        public Instant getLoadedOn() {
+            return loadedOn;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.trustvip.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.ExtractedText;
+import com.trustvip.domain.RelatedDocument;
+import com.trustvip.domain.enumeration.ExtractionStatus;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.repository.ExtractedTextRepository;
+import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.repository.StoredPayloadRepository;
+import com.trustvip.service.extraction.DocumentTextExtractor;
+import com.trustvip.service.storage.BlobStore;
+
+/**
+ * Service for extracting the text of the related document payloads, so they can be found by searches.
+ * <p>
+ * Extractions are queued once the transaction saving a document has committed, and are processed by the
+ * bounded "textExtractionExecutor", outside of the upload requests. The text is stored under the key of the
+ * payload, so a content is parsed once whatever the number of documents or uploads sharing it, then the
+ * documents using it are queued in the search outbox to be indexed again with their text.
+ * <p>
+ * Payloads whose extraction was rejected by a full queue, or uploaded before this service existed, are picked
+ * up by a periodic sweep.
+ */
+@Service
+public class DocumentTextExtractionService {
+
+    private final Logger log = LoggerFactory.getLogger(DocumentTextExtractionService.class);
+
+    private final Set<String> pendingKeys = ConcurrentHashMap.newKeySet();
+
+    private final ExtractedTextRepository extractedTextRepository;
+
+    private final RelatedDocumentRepository relatedDocumentRepository;
+
+    private final StoredPayloadRepository storedPayloadRepository;
+
+    private final BlobStore blobStore;
+
+    private final DocumentTextExtractor documentTextExtractor;
+
+    private final SearchOutboxService searchOutboxService;
+
+    private final TaskExecutor textExtractionExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.Extraction properties;
+
+    public DocumentTextExtractionService(ExtractedTextRepository extractedTextRepository,
+            RelatedDocumentRepository relatedDocumentRepository, StoredPayloadRepository storedPayloadRepository,
+            BlobStore blobStore, DocumentTextExtractor documentTextExtractor, SearchOutboxService searchOutboxService,
+            @Qualifier("textExtractionExecutor") TaskExecutor textExtractionExecutor,
+            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.extractedTextRepository = extractedTextRepository;
+        this.relatedDocumentRepository = relatedDocumentRepository;
+        this.storedPayloadRepository = storedPayloadRepository;
+        this.blobStore = blobStore;
+        this.documentTextExtractor = documentTextExtractor;
+        this.searchOutboxService = searchOutboxService;
+        this.textExtractionExecutor = textExtractionExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getExtraction();
+    }
+
+    /**
+     * Request the text extraction of the payload of a document.
+     * <p>
+     * When called within a transaction, the extraction is only queued after the commit. Nothing is queued if
+     * the text of the payload was already extracted.
+     *
+     * @param relatedDocument the document whose payload changed
+     */
+    public void requestExtraction(RelatedDocument relatedDocument) {
+        if (relatedDocument.getDocKey() == null) {
+            return;
+        }
+        Request request = new Request(relatedDocument);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    enqueue(request);
+                }
+            });
+        } else {
+            enqueue(request);
+        }
+    }
+
+    /**
+     * Queue the extraction of the payloads which have no extracted text yet.
+     * <p>
+     * This is scheduled to get fired "application.extraction.sweep-interval" milliseconds after the previous run.
+     */
+    @Scheduled(initialDelayString = "${application.extraction.sweep-interval:60000}",
+        fixedDelayString = "${application.extraction.sweep-interval:60000}")
+    public void sweep() {
+        List<RelatedDocument> documents = readOnlyTransactionTemplate.execute(status ->
+            relatedDocumentRepository.findWithoutExtractedText(new PageRequest(0, properties.getSweepBatchSize())));
+        if (documents != null && !documents.isEmpty()) {
+            log.debug("Queuing the text extraction of {} related document(s)", documents.size());
+            documents.forEach(document -> enqueue(new Request(document)));
+        }
+    }
+
+    /**
+     * Extract the text of the payload of a document now, unless it was already extracted.
+     * <p>
+     * Joins the current transaction if there is one.
+     *
+     * @param relatedDocument the document
+     * @return the extracted text, or empty if the document has no payload or the payload was deleted meanwhile
+     */
+    public Optional<ExtractedText> extract(RelatedDocument relatedDocument) {
+        if (relatedDocument.getDocKey() == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(extract(new Request(relatedDocument)));
+    }
+
+    private void enqueue(Request request) {
+        if (!pendingKeys.add(request.key)) {
+            return;
+        }
+        try {
+            textExtractionExecutor.execute(() -> {
+                try {
+                    extract(request);
+                } catch (RuntimeException e) {
+                    log.warn("Could not store the text extracted from the payload {}: {}", request.key, e.getMessage());
+                } finally {
+                    pendingKeys.remove(request.key);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pendingKeys.remove(request.key);
+            log.debug("The text extraction queue is full, the payload {} is left to the next sweep", request.key);
+        }
+    }
+
+    private ExtractedText extract(Request request) {
+        ExtractedText cached = extractedTextRepository.findOne(request.key);
+        if (cached != null) {
+            log.debug("The text of the payload {} was already extracted", request.key);
+            return cached;
+        }
+        ExtractedText extracted = parse(request);
+        return transactionTemplate.execute(status -> {
+            if (!storedPayloadRepository.exists(request.key)) {
+                log.debug("The payload {} was deleted during its text extraction", request.key);
+                return null;
+            }
+            ExtractedText result = extractedTextRepository.save(extracted);
+            for (Long id : relatedDocumentRepository.findIdsByDocKey(request.key)) {
+                searchOutboxService.enqueue(SearchEntityType.RELATED_DOCUMENT, id);
+            }
+            return result;
+        });
+    }
+
+    private ExtractedText parse(Request request) {
+        ExtractedText extractedText = new ExtractedText()
+            .key(request.key)
+            .truncated(false);
+        Optional<DocumentTextExtractor.Format> format = documentTextExtractor.detect(request.contentType, request.name);
+        if (!format.isPresent()) {
+            extractedText.status(ExtractionStatus.UNSUPPORTED);
+        } else if (request.size != null && request.size > properties.getMaxSize()) {
+            extractedText.status(ExtractionStatus.TOO_LARGE);
+        } else {
+            try {
+                DocumentTextExtractor.Result result = documentTextExtractor.extract(format.get(),
+                    blobStore.getResource(request.key), properties.getMaxChars(), properties.getTimeout());
+                extractedText.status(ExtractionStatus.EXTRACTED)
+                    .content(result.getText())
+                    .truncated(result.isTruncated());
+                log.debug("Extracted {} characters from the payload {}", result.getText().length(), request.key);
+            } catch (IOException | RuntimeException e) {
+                // Parsers throw unchecked exceptions on malformed documents, which are not worth retrying either
+                String error = String.valueOf(e.getMessage());
+                log.warn("Could not extract the text of the payload {}: {}", request.key, error);
+                extractedText.status(ExtractionStatus.FAILED)
+                    .error(error.length() > 255 ? error.substring(0, 255) : error);
+            }
+        }
+        return extractedText.extractedOn(Instant.now());
+    }
+
+    /**
+     * The payload of a document, copied so it can be extracted outside of the transaction which loaded it.
+     */
+    private static final class Request {
+
+        private final String key;
+
+        private final Long size;
+
+        private final String contentType;
+
+        private final String name;
+
+        private Request(RelatedDocument relatedDocument) {
+            this.key = relatedDocument.getDocKey();
+            this.size = relatedDocument.getDocSize();
+            this.contentType = relatedDocument.getDocFileContentType();
+            this.name = relatedDocument.getDocName();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.trustvip.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.itextpdf.text.DocumentException;
+
+/**
+ * Service Interface for rendering articles as PDF.
+ */
+public interface PDFService {
+
+    /**
+     * Render HTML content as a PDF, preceded by the cover page template.
+     * <p>
+     * The merged PDF is written directly to the given stream, which is neither buffered in memory nor
+     * closed by this method.
+     *
+     * @param html the HTML content to render
+     * @param outputStream the stream to write the rendered PDF to
+     * @throws DocumentException if the content could not be laid out
+     * @throws IOException if the rendered content could not be merged with the cover page or written
+     */
+    void createPDFfromHTML(String html, OutputStream outputStream) throws DocumentException, IOException;
+
+    /**
+     * Get the version of the cover page template, which changes whenever the template content changes.
+     *
+     * @return the template version
+     */
+    String getTemplateVersion();
+}
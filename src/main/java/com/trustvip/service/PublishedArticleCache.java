@@ -0,0 +1,143 @@
+package com.trustvip.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.ArticleFacet;
+import com.trustvip.service.event.RelatedDocumentChangedEvent;
+
+/**
+ * Cache of the published articles read by the portal, with their related documents, and of the first pages
+ * of the published article listing.
+ * <p>
+ * Entries are evicted once a change has committed: a published article when it or one of its documents
+ * changes, and the listing pages when an article is published, unpublished, or changed while published.
+ * Changes to drafts leave the cache untouched. A value read while a change was committing is not cached,
+ * so a reader cannot put back a value evicted in between. Entries also expire after
+ * "application.cache.published.time-to-live-seconds".
+ */
+@Component
+public class PublishedArticleCache {
+
+    private final Logger log = LoggerFactory.getLogger(PublishedArticleCache.class);
+
+    private final Cache<Long, ArticleDTO> articles;
+
+    private final Cache<Pageable, Page<ArticleDTO>> listingPages;
+
+    private final int maxListingPages;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    public PublishedArticleCache(ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        ApplicationProperties.Cache properties = applicationProperties.getCache();
+        this.articles = build(properties.getPublished());
+        this.listingPages = build(properties.getPublished());
+        this.maxListingPages = properties.getPublishedListingPages();
+        metricRegistry.register(MetricRegistry.name(PublishedArticleCache.class, "articles", "hits"),
+            (Gauge<Long>) () -> articles.stats().hitCount());
+        metricRegistry.register(MetricRegistry.name(PublishedArticleCache.class, "articles", "misses"),
+            (Gauge<Long>) () -> articles.stats().missCount());
+        metricRegistry.register(MetricRegistry.name(PublishedArticleCache.class, "listing", "hits"),
+            (Gauge<Long>) () -> listingPages.stats().hitCount());
+        metricRegistry.register(MetricRegistry.name(PublishedArticleCache.class, "listing", "misses"),
+            (Gauge<Long>) () -> listingPages.stats().missCount());
+    }
+
+    private static <K, V> Cache<K, V> build(ApplicationProperties.Cache.Region region) {
+        return CacheBuilder.newBuilder()
+            .maximumSize(region.getMaxEntries())
+            .expireAfterWrite(region.getTimeToLiveSeconds(), TimeUnit.SECONDS)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get a cached published article, or load it.
+     *
+     * @param id the id of the article
+     * @param loader loads the article with its documents, only cached if it is published
+     * @return the article, or null if it does not exist
+     */
+    public ArticleDTO getArticle(Long id, Supplier<ArticleDTO> loader) {
+        ArticleDTO article = articles.getIfPresent(id);
+        if (article == null) {
+            long loadedGeneration = generation.get();
+            article = loader.get();
+            if (article != null && article.getStatus() == ArticleStatus.PUBLISHED && generation.get() == loadedGeneration) {
+                articles.put(id, article);
+            }
+        }
+        return article;
+    }
+
+    /**
+     * Get a cached page of the published article listing, or load it.
+     *
+     * @param pageable the pagination information, only the first pages being cached
+     * @param loader loads the page
+     * @return the page
+     */
+    public Page<ArticleDTO> getListingPage(Pageable pageable, Supplier<Page<ArticleDTO>> loader) {
+        if (pageable.getPageNumber() >= maxListingPages) {
+            return loader.get();
+        }
+        Page<ArticleDTO> page = listingPages.getIfPresent(pageable);
+        if (page == null) {
+            long loadedGeneration = generation.get();
+            page = loader.get();
+            if (generation.get() == loadedGeneration) {
+                listingPages.put(pageable, page);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Clear the cache.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        articles.invalidateAll();
+        listingPages.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (event.isUnknownChange()) {
+            log.debug("Clearing the published article cache after {}", event);
+            invalidateAll();
+        } else if (isPublished(event.getPrevious()) || isPublished(event.getCurrent())) {
+            log.debug("Evicting the published Article {}", event.getArticleId());
+            generation.incrementAndGet();
+            articles.invalidate(event.getArticleId());
+            listingPages.invalidateAll();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRelatedDocumentChanged(RelatedDocumentChangedEvent event) {
+        generation.incrementAndGet();
+        articles.invalidateAll(event.getArticleIds());
+    }
+
+    private static boolean isPublished(ArticleFacet facet) {
+        return facet != null && facet.getStatus() == ArticleStatus.PUBLISHED;
+    }
+}
@@ -0,0 +1,84 @@
+package com.trustvip.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trustvip.service.storage.StoredBlob;
+
+/**
+ * Moves the payloads still stored in the legacy "related_document.doc_file" column to the BlobStore, identical
+ * payloads being stored once.
+ * <p>
+ * Runs once the application is started, each document being moved in its own transaction, so an interrupted
+ * migration resumes where it stopped on the next start.
+ */
+@Component
+public class RelatedDocumentPayloadMigrator {
+
+    private final Logger log = LoggerFactory.getLogger(RelatedDocumentPayloadMigrator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final StoredPayloadService storedPayloadService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public RelatedDocumentPayloadMigrator(JdbcTemplate jdbcTemplate, StoredPayloadService storedPayloadService,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.storedPayloadService = storedPayloadService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyPayloads() {
+        List<Long> ids = jdbcTemplate.queryForList(
+            "select id from related_document where doc_file is not null and doc_key is null", Long.class);
+        if (ids.isEmpty()) {
+            return;
+        }
+        log.info("Moving the payloads of {} related document(s) to the blob store", ids.size());
+        int migrated = 0;
+        for (Long id : ids) {
+            try {
+                transactionTemplate.execute(status -> migrate(id));
+                migrated++;
+            } catch (RuntimeException e) {
+                log.error("Could not move the payload of RelatedDocument {}", id, e);
+            }
+        }
+        log.info("Moved the payloads of {} related document(s) to the blob store", migrated);
+    }
+
+    private StoredBlob migrate(Long id) {
+        StoredBlob blob = jdbcTemplate.query("select doc_file from related_document where id = ?",
+            (ResultSetExtractor<StoredBlob>) rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream content = rs.getBinaryStream(1)) {
+                    return content == null ? null : storedPayloadService.store(content);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, id);
+        if (blob != null) {
+            jdbcTemplate.update(
+                "update related_document set doc_key = ?, doc_size = ?, doc_checksum = ?, doc_file = null where id = ?",
+                blob.getKey(), blob.getSize(), blob.getChecksum(), id);
+        }
+        return blob;
+    }
+}
@@ -1,12 +1,21 @@
 package com.trustvip.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.trustvip.domain.RelatedDocument;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.service.dto.RelatedDocumentDTO;
+import com.trustvip.service.dto.RelatedDocumentSummaryDTO;
 
 /**
  * Service Interface for managing RelatedDocument.
@@ -21,6 +30,16 @@ public interface RelatedDocumentService {
      */
     RelatedDocumentDTO save(RelatedDocumentDTO relatedDocumentDTO);
 
+    /**
+     * Save a relatedDocument, streaming its payload to the BlobStore.
+     *
+     * @param relatedDocumentDTO the entity to save
+     * @param content the new payload, or null to keep the current one
+     * @return the persisted entity
+     * @throws IOException if the payload could not be stored
+     */
+    RelatedDocumentDTO save(RelatedDocumentDTO relatedDocumentDTO, InputStream content) throws IOException;
+
     /**
      * Get all the relatedDocuments.
      *
@@ -37,6 +56,15 @@ public interface RelatedDocumentService {
      */
     RelatedDocumentDTO findOne(Long id);
 
+    /**
+     * Get the payload of the "id" relatedDocument.
+     *
+     * @param id the id of the entity
+     * @return the payload, or empty if the entity does not exist or has no payload
+     * @throws IOException if the payload could not be read
+     */
+    Optional<Resource> getContent(Long id) throws IOException;
+
     /**
      * Delete the "id" relatedDocument.
      *
@@ -55,12 +83,37 @@ public interface RelatedDocumentService {
     Page<RelatedDocumentDTO> search(String query, Pageable pageable);
 
     /**
-     * Search for the relatedDocument by article id
+     * Search for a page of the relatedDocuments corresponding to the query, after a cursor.
      *
-     * @param articleId - Id of the article
-     * 
-     * @param pageable the pagination information
+     * @param query the query of the search
+     * @param cursor the position of the page
+     * @param size the size of the page
+     * @param count whether the exact number of matching relatedDocuments must be computed
+     * @return the page of entities
+     */
+    CursorPage<RelatedDocumentDTO> search(String query, SearchCursor cursor, int size, boolean count);
+
+    /**
+     * Get the relatedDocuments of an article.
+     *
+     * @param articleId the id of the article
      * @return the list of entities
      */
-    List<RelatedDocument> findAllByArticleId(Long id);
+    List<RelatedDocument> findAllByArticleId(Long articleId);
+
+    /**
+     * Get the metadata of the relatedDocuments of an article, without their payload.
+     *
+     * @param articleId the id of the article
+     * @return the list of document summaries
+     */
+    List<RelatedDocumentSummaryDTO> findSummariesByArticleId(Long articleId);
+
+    /**
+     * Get the metadata of the relatedDocuments of several articles, without their payload.
+     *
+     * @param articleIds the ids of the articles
+     * @return the list of document summaries of each article, empty for the articles without documents
+     */
+    Map<Long, List<RelatedDocumentSummaryDTO>> findSummariesByArticleIds(Collection<Long> articleIds);
 }
@@ -0,0 +1,176 @@
+package com.trustvip.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.jsoup.Jsoup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import com.trustvip.domain.Article;
+import com.trustvip.domain.ExtractedText;
+import com.trustvip.domain.RelatedDocument;
+import com.trustvip.domain.Task;
+import com.trustvip.domain.TaskOwner;
+import com.trustvip.domain.User;
+import com.trustvip.domain.enumeration.ExtractionStatus;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.domain.search.RelatedDocumentSearchDocument;
+import com.trustvip.repository.ArticleRepository;
+import com.trustvip.repository.ExtractedTextRepository;
+import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.repository.TaskOwnerRepository;
+import com.trustvip.repository.TaskRepository;
+import com.trustvip.repository.UserRepository;
+import com.trustvip.repository.search.BulkIndexer;
+import com.trustvip.service.mapper.ArticleMapper;
+import com.trustvip.service.mapper.RelatedDocumentMapper;
+
+/**
+ * Builds the Elasticsearch documents of the indexed entities, read from the database.
+ * <p>
+ * Shared by the {@link SearchIndexer}, which indexes the entities changed one by one, and the
+ * {@link SearchReindexService}, which streams whole tables. Must be called within a transaction.
+ */
+@Component
+public class SearchDocumentFactory {
+
+    private final Map<SearchEntityType, Source<?>> sources = new EnumMap<>(SearchEntityType.class);
+
+    private final ArticleMapper articleMapper;
+
+    private final RelatedDocumentMapper relatedDocumentMapper;
+
+    private final ExtractedTextRepository extractedTextRepository;
+
+    public SearchDocumentFactory(ArticleRepository articleRepository, ArticleMapper articleMapper,
+            TaskRepository taskRepository, TaskOwnerRepository taskOwnerRepository,
+            RelatedDocumentRepository relatedDocumentRepository, RelatedDocumentMapper relatedDocumentMapper,
+            ExtractedTextRepository extractedTextRepository, UserRepository userRepository) {
+        this.articleMapper = articleMapper;
+        this.relatedDocumentMapper = relatedDocumentMapper;
+        this.extractedTextRepository = extractedTextRepository;
+        sources.put(SearchEntityType.ARTICLE, new Source<>(Article.class, articleRepository,
+            articleRepository::findByIdGreaterThanOrderByIdAsc, Article::getId, this::toSearchArticle));
+        sources.put(SearchEntityType.TASK, new Source<>(Task.class, taskRepository,
+            taskRepository::findByIdGreaterThanOrderByIdAsc, Task::getId, Function.identity()));
+        sources.put(SearchEntityType.TASK_OWNER, new Source<>(TaskOwner.class, taskOwnerRepository,
+            taskOwnerRepository::findByIdGreaterThanOrderByIdAsc, TaskOwner::getId, Function.identity()));
+        sources.put(SearchEntityType.RELATED_DOCUMENT, new Source<>(RelatedDocumentSearchDocument.class,
+            relatedDocumentRepository, relatedDocumentRepository::findByIdGreaterThanOrderByIdAsc, RelatedDocument::getId,
+            this::toSearchRelatedDocument));
+        sources.put(SearchEntityType.USER, new Source<>(User.class, userRepository,
+            userRepository::findByIdGreaterThanOrderByIdAsc, User::getId, Function.identity()));
+    }
+
+    /**
+     * @param entityType the type of the entity
+     * @return the class of its documents, which carries the "@Document" annotation
+     */
+    public Class<?> getDocumentClass(SearchEntityType entityType) {
+        return sources.get(entityType).documentClass;
+    }
+
+    /**
+     * Get the operation bringing the document of an entity up to date.
+     *
+     * @param entityType the type of the entity
+     * @param id the id of the entity
+     * @return the operation indexing the entity, or removing it from the index if it does not exist anymore
+     */
+    public BulkIndexer.Operation toOperation(SearchEntityType entityType, Long id) {
+        return sources.get(entityType).toOperation(id);
+    }
+
+    /**
+     * Read a page of entities, in the order of their ids.
+     * <p>
+     * The pages are read with a keyset condition on the id instead of an offset, so reading a page
+     * costs the same whatever its position in the table.
+     *
+     * @param entityType the type of the entities
+     * @param afterId the id of the last entity of the previous page, 0 for the first page
+     * @param size the maximal number of entities to read
+     * @return the operations indexing the entities, whose ids are increasing
+     */
+    public List<BulkIndexer.Operation> loadPage(SearchEntityType entityType, long afterId, int size) {
+        return sources.get(entityType).loadPage(afterId, size);
+    }
+
+    /**
+     * @param entityType the type of the entities
+     * @return the number of entities in the database
+     */
+    public long count(SearchEntityType entityType) {
+        return sources.get(entityType).repository.count();
+    }
+
+    /**
+     * The indexed copy of an article only keeps the text of its content.
+     */
+    private Article toSearchArticle(Article article) {
+        Article searchArticle = articleMapper.toEntity(articleMapper.toDto(article));
+        if (searchArticle.getContent() != null) {
+            searchArticle.setContent(Jsoup.parse(searchArticle.getContent()).text());
+        }
+        return searchArticle;
+    }
+
+    /**
+     * The indexed copy of a related document carries the text extracted from its payload, once available.
+     */
+    private RelatedDocumentSearchDocument toSearchRelatedDocument(RelatedDocument relatedDocument) {
+        RelatedDocumentSearchDocument document = relatedDocumentMapper.toSearchDocument(relatedDocument);
+        if (relatedDocument.getDocKey() != null) {
+            ExtractedText extractedText = extractedTextRepository.findOne(relatedDocument.getDocKey());
+            if (extractedText != null && extractedText.getStatus() == ExtractionStatus.EXTRACTED) {
+                document.setContent(extractedText.getContent());
+            }
+        }
+        return document;
+    }
+
+    private static final class Source<E> {
+
+        private final Class<?> documentClass;
+
+        private final JpaRepository<E, Long> repository;
+
+        private final BiFunction<Long, Pageable, List<E>> pageLoader;
+
+        private final Function<E, Long> idGetter;
+
+        private final Function<E, ?> documentFactory;
+
+        private Source(Class<?> documentClass, JpaRepository<E, Long> repository,
+                BiFunction<Long, Pageable, List<E>> pageLoader, Function<E, Long> idGetter,
+                Function<E, ?> documentFactory) {
+            this.documentClass = documentClass;
+            this.repository = repository;
+            this.pageLoader = pageLoader;
+            this.idGetter = idGetter;
+            this.documentFactory = documentFactory;
+        }
+
+        private BulkIndexer.Operation toOperation(Long id) {
+            E entity = repository.findOne(id);
+            return entity == null ? BulkIndexer.Operation.delete(documentClass, id) : toOperation(entity);
+        }
+
+        private BulkIndexer.Operation toOperation(E entity) {
+            return BulkIndexer.Operation.index(documentFactory.apply(entity), idGetter.apply(entity));
+        }
+
+        private List<BulkIndexer.Operation> loadPage(long afterId, int size) {
+            return pageLoader.apply(afterId, new PageRequest(0, size)).stream()
+                .map(this::toOperation)
+                .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.trustvip.service;
+
+import java.util.Collections;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.repository.search.ArticleSearchQueryRepository;
+
+/**
+ * Rebuilds the article index once the application is started if some of its documents were indexed before the
+ * sub-fields of "article-mapping.json" were added: Elasticsearch merges new sub-fields into an existing mapping,
+ * but only fills them for the documents indexed afterwards.
+ */
+@Component
+public class SearchIndexUpgrader {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexUpgrader.class);
+
+    private final ArticleSearchQueryRepository articleSearchQueryRepository;
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchIndexUpgrader(ArticleSearchQueryRepository articleSearchQueryRepository,
+            SearchReindexService searchReindexService) {
+        this.articleSearchQueryRepository = articleSearchQueryRepository;
+        this.searchReindexService = searchReindexService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void upgradeArticleIndex() {
+        try {
+            long outdated = articleSearchQueryRepository.countDocumentsWithoutRawFields();
+            if (outdated == 0) {
+                return;
+            }
+            log.info("Rebuilding the article search index, {} article(s) were indexed with a previous mapping",
+                outdated);
+            // Empty when another node is already rebuilding it
+            searchReindexService.start(Collections.singletonList(SearchEntityType.ARTICLE));
+        } catch (RuntimeException e) {
+            log.warn("Could not upgrade the article search index: {}", e.getMessage());
+        }
+    }
+}
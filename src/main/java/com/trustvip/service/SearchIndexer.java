@@ -0,0 +1,182 @@
+package com.trustvip.service;
+
+import java.time.Instant;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.SearchOutboxEntry;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.repository.SearchOutboxRepository;
+import com.trustvip.repository.search.BulkIndexer;
+import com.trustvip.service.event.SearchIndexUpdatedEvent;
+
+/**
+ * Background indexer draining the search outbox into Elasticsearch.
+ * <p>
+ * Each batch of entries is claimed in a short transaction, which locks the due entries, skipping the entries
+ * claimed by the other nodes, and leases them for "application.search.outbox-lease" milliseconds. Every entity is
+ * then read from the database and indexed, or removed from the index when it does not exist anymore, so entries
+ * are idempotent and several entries for the same entity are applied once. The "_bulk" requests are sent outside
+ * of any transaction, and a last transaction removes the entries which succeeded. The greatest outbox entry id of
+ * each entity is sent as the external version of its document, so when several nodes index the same entity, a
+ * document read before a later change cannot overwrite the document indexed for that change. Entries which fail are retried
+ * later with an exponential back-off, so the index converges with the database once Elasticsearch is available
+ * again, and are kept as dead letters after "application.search.max-attempts" attempts.
+ * <p>
+ * The operations of a batch are sent with a few "_bulk" requests by the {@link BulkIndexer}, the poll interval
+ * being the time window in which the changes are grouped.
+ */
+@Service
+public class SearchIndexer {
+
+    private final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    private final SearchOutboxRepository searchOutboxRepository;
+
+    private final BulkIndexer bulkIndexer;
+
+    private final SearchDocumentFactory searchDocumentFactory;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.Search properties;
+
+    public SearchIndexer(SearchOutboxRepository searchOutboxRepository, BulkIndexer bulkIndexer,
+            SearchDocumentFactory searchDocumentFactory, ApplicationEventPublisher applicationEventPublisher,
+            PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties) {
+        this.searchOutboxRepository = searchOutboxRepository;
+        this.bulkIndexer = bulkIndexer;
+        this.searchDocumentFactory = searchDocumentFactory;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getSearch();
+    }
+
+    /**
+     * Drain the outbox until no entry is due anymore.
+     * <p>
+     * This is scheduled to get fired "application.search.outbox-poll-interval" milliseconds after the previous run.
+     */
+    @Scheduled(fixedDelayString = "${application.search.outbox-poll-interval:1000}")
+    public void drainOutbox() {
+        int processed;
+        do {
+            processed = drain();
+        } while (processed >= properties.getOutboxBatchSize());
+    }
+
+    /**
+     * Process one batch of the entries which are due.
+     * <p>
+     * Joins the current transaction if there is one, so the entries written by it are processed too.
+     *
+     * @return the number of entries processed
+     */
+    public int drain() {
+        Instant now = Instant.now();
+        List<SearchOutboxEntry> entries = transactionTemplate.execute(status -> claim(now));
+        if (entries == null || entries.isEmpty()) {
+            return 0;
+        }
+        Map<SimpleImmutableEntry<SearchEntityType, Long>, List<SearchOutboxEntry>> entriesByEntity = entries.stream()
+            .collect(Collectors.groupingBy(entry -> new SimpleImmutableEntry<>(entry.getEntityType(), entry.getEntityId()),
+                LinkedHashMap::new, Collectors.toList()));
+        Map<BulkIndexer.Operation, List<SearchOutboxEntry>> entriesByOperation = new LinkedHashMap<>();
+        Map<Long, String> failures = new HashMap<>();
+        readOnlyTransactionTemplate.execute(status -> {
+            entriesByEntity.forEach((entity, entityEntries) -> {
+                try {
+                    long version = entityEntries.stream().mapToLong(SearchOutboxEntry::getId).max().getAsLong();
+                    entriesByOperation.put(searchDocumentFactory.toOperation(entity.getKey(), entity.getValue())
+                        .withVersion(version), entityEntries);
+                } catch (RuntimeException e) {
+                    entityEntries.forEach(entry -> failures.put(entry.getId(), e.getMessage()));
+                }
+            });
+            return null;
+        });
+        Map<BulkIndexer.Operation, String> operationFailures =
+            bulkIndexer.execute(new ArrayList<>(entriesByOperation.keySet()));
+        List<Long> processed = new ArrayList<>();
+        Set<SearchEntityType> updatedTypes = EnumSet.noneOf(SearchEntityType.class);
+        entriesByOperation.forEach((operation, operationEntries) -> {
+            String failure = operationFailures.get(operation);
+            if (failure == null) {
+                operationEntries.forEach(entry -> processed.add(entry.getId()));
+                updatedTypes.add(operationEntries.get(0).getEntityType());
+            } else {
+                operationEntries.forEach(entry -> failures.put(entry.getId(), failure));
+            }
+        });
+        transactionTemplate.execute(status -> {
+            complete(processed, failures, now);
+            return null;
+        });
+        if (!processed.isEmpty()) {
+            applicationEventPublisher.publishEvent(new SearchIndexUpdatedEvent(updatedTypes));
+        }
+        log.debug("Updated the search index of {} entities ({} outbox entries, {} failures)", entriesByEntity.size(),
+            entries.size(), failures.size());
+        return entries.size();
+    }
+
+    private List<SearchOutboxEntry> claim(Instant now) {
+        List<SearchOutboxEntry> entries = searchOutboxRepository.findByDeadLetterFalseAndNextAttemptOnLessThanEqualOrderByIdAsc(
+            now, new PageRequest(0, properties.getOutboxBatchSize()));
+        // Claimed entries are only due again if this node did not complete them before the end of the lease
+        Instant leaseEnd = now.plusMillis(properties.getOutboxLease());
+        entries.forEach(entry -> entry.nextAttemptOn(leaseEnd));
+        return entries;
+    }
+
+    private void complete(List<Long> processed, Map<Long, String> failures, Instant now) {
+        if (!processed.isEmpty()) {
+            searchOutboxRepository.deleteByIdIn(processed);
+        }
+        if (!failures.isEmpty()) {
+            // Entries completed by another node once the lease expired are not found anymore
+            searchOutboxRepository.findAll(failures.keySet())
+                .forEach(entry -> retryLater(entry, now, failures.get(entry.getId())));
+        }
+    }
+
+    private void retryLater(SearchOutboxEntry entry, Instant now, String message) {
+        int attempts = entry.getAttempts() + 1;
+        String error = String.valueOf(message);
+        entry.attempts(attempts)
+            .lastError(error.length() > 255 ? error.substring(0, 255) : error);
+        if (attempts >= properties.getMaxAttempts()) {
+            entry.deadLetter(true);
+            log.error("Could not update the search index of {} {} after {} attempts, giving up: {}",
+                entry.getEntityType(), entry.getEntityId(), attempts, message);
+            return;
+        }
+        long delay = Math.min(properties.getRetryDelay() << Math.min(attempts - 1, 20), properties.getMaxRetryDelay());
+        entry.nextAttemptOn(now.plusMillis(delay));
+        log.warn("Could not update the search index of {} {} (attempt {}), retrying in {} ms: {}",
+            entry.getEntityType(), entry.getEntityId(), attempts, delay, message);
+    }
+}
@@ -0,0 +1,50 @@
+package com.trustvip.service;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trustvip.domain.SearchOutboxEntry;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.repository.SearchOutboxRepository;
+
+/**
+ * Service recording the entities whose search index must be updated.
+ * <p>
+ * The entries are written in the transaction changing the entities, so they are committed or rolled back
+ * with them, and the {@link SearchIndexer} updates Elasticsearch in the background. The indexer always
+ * reads the current state of the entity, so the same entry is used for saves and deletes.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class SearchOutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchOutboxService.class);
+
+    private final SearchOutboxRepository searchOutboxRepository;
+
+    public SearchOutboxService(SearchOutboxRepository searchOutboxRepository) {
+        this.searchOutboxRepository = searchOutboxRepository;
+    }
+
+    /**
+     * Request the update of the search index of an entity, once the current transaction has committed.
+     *
+     * @param entityType the type of the entity
+     * @param entityId the id of the entity
+     */
+    public void enqueue(SearchEntityType entityType, Long entityId) {
+        log.debug("Request to update the search index of {} : {}", entityType, entityId);
+        Instant now = Instant.now();
+        searchOutboxRepository.save(new SearchOutboxEntry()
+            .entityType(entityType)
+            .entityId(entityId)
+            .attempts(0)
+            .createdOn(now)
+            .nextAttemptOn(now));
+    }
+}
@@ -0,0 +1,365 @@
+package com.trustvip.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequestBuilder;
+import org.elasticsearch.client.IndicesAdminClient;
+import org.elasticsearch.cluster.metadata.AliasMetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.elasticsearch.annotations.Mapping;
+import org.springframework.data.elasticsearch.annotations.Setting;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.repository.search.BulkIndexer;
+import com.trustvip.repository.search.SearchReindexStateRepository;
+import com.trustvip.service.dto.SearchReindexDTO;
+import com.trustvip.service.dto.SearchReindexDTO.State;
+
+/**
+ * Service rebuilding the search indices from the database without interrupting the search.
+ * <p>
+ * Each index is rebuilt into a new versioned index ("article_20180316101500000"), the entities being streamed from
+ * the database page by page with a keyset condition on their id and loaded with "_bulk" requests. The rebuild is
+ * recorded in the {@link SearchReindexStateRepository}, so no other node rebuilds the same index, and the changes
+ * made on any node while the index is rebuilt are also written to the new index; the loaded documents never
+ * replace these more recent ones. Once it is complete, the alias named after the index ("article") is atomically
+ * moved to the new index, and the previous one is deleted.
+ * <p>
+ * The first rebuild replaces the index created by Spring Data with an alias: the writes to the index are paused
+ * while the index is replaced, and the search of that type is unavailable between the deletion of the index and
+ * the creation of the alias.
+ */
+@Service
+public class SearchReindexService {
+
+    private static final int MAX_ALIAS_ATTEMPTS = 3;
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS")
+        .withZone(ZoneOffset.UTC);
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private final SearchDocumentFactory searchDocumentFactory;
+
+    private final BulkIndexer bulkIndexer;
+
+    private final SearchReindexStateRepository searchReindexStateRepository;
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final Executor taskExecutor;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.Search properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Job lastJob;
+
+    public SearchReindexService(SearchDocumentFactory searchDocumentFactory, BulkIndexer bulkIndexer,
+            SearchReindexStateRepository searchReindexStateRepository, ElasticsearchTemplate elasticsearchTemplate,
+            @Qualifier("taskExecutor") Executor taskExecutor, PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties) {
+        this.searchDocumentFactory = searchDocumentFactory;
+        this.bulkIndexer = bulkIndexer;
+        this.searchReindexStateRepository = searchReindexStateRepository;
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.taskExecutor = taskExecutor;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = applicationProperties.getSearch();
+    }
+
+    /**
+     * Start rebuilding indices in the background.
+     *
+     * @param entityTypes the types of the entities to reindex
+     * @return the progress of the reindex, or empty if a reindex is already running on this node, or one of the
+     * indices is being rebuilt by another node
+     */
+    public Optional<SearchReindexDTO> start(Collection<SearchEntityType> entityTypes) {
+        Optional<Job> claimed = claim(entityTypes);
+        if (!claimed.isPresent()) {
+            return Optional.empty();
+        }
+        Job job = claimed.get();
+        try {
+            taskExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            release(job);
+            throw e;
+        }
+        return Optional.of(job.toDto());
+    }
+
+    /**
+     * Rebuild indices in the calling thread.
+     *
+     * @param entityTypes the types of the entities to reindex
+     * @return the result of the reindex, or empty if a reindex is already running on this node, or one of the
+     * indices is being rebuilt by another node
+     */
+    public Optional<SearchReindexDTO> reindex(Collection<SearchEntityType> entityTypes) {
+        Optional<Job> claimed = claim(entityTypes);
+        claimed.ifPresent(this::run);
+        return claimed.map(Job::toDto);
+    }
+
+    /**
+     * @return the progress of the running or last reindex
+     */
+    public SearchReindexDTO getStatus() {
+        Job job = lastJob;
+        return job == null ? new SearchReindexDTO(State.IDLE, null, null, new ArrayList<>()) : job.toDto();
+    }
+
+    private Optional<Job> claim(Collection<SearchEntityType> entityTypes) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        Job job = new Job(entityTypes);
+        List<String> claimed = new ArrayList<>();
+        for (Progress progress : job.progresses) {
+            progress.alias = bulkIndexer.getIndexName(searchDocumentFactory.getDocumentClass(progress.entityType));
+            if (!searchReindexStateRepository.claim(progress.alias)) {
+                log.info("The {} search index is already being rebuilt", progress.alias);
+                claimed.forEach(searchReindexStateRepository::release);
+                running.set(false);
+                return Optional.empty();
+            }
+            claimed.add(progress.alias);
+        }
+        lastJob = job;
+        return Optional.of(job);
+    }
+
+    private void release(Job job) {
+        job.progresses.forEach(progress -> searchReindexStateRepository.release(progress.alias));
+        running.set(false);
+    }
+
+    private void run(Job job) {
+        try {
+            for (Progress progress : job.progresses) {
+                reindex(progress);
+            }
+        } finally {
+            job.finishedOn = Instant.now();
+            release(job);
+        }
+    }
+
+    private void reindex(Progress progress) {
+        SearchEntityType entityType = progress.entityType;
+        Class<?> documentClass = searchDocumentFactory.getDocumentClass(entityType);
+        progress.index = progress.alias + "_" + VERSION_FORMAT.format(Instant.now());
+        progress.startedOn = Instant.now();
+        progress.state = State.RUNNING;
+        log.info("Rebuilding the {} search index into {}", progress.alias, progress.index);
+        try {
+            progress.total = readOnlyTransactionTemplate.execute(status -> searchDocumentFactory.count(entityType));
+            createIndex(documentClass, progress.index);
+            searchReindexStateRepository.setShadowIndex(progress.alias, progress.index);
+            int pageSize = properties.getBulkActions();
+            long afterId = 0;
+            int loaded;
+            do {
+                long from = afterId;
+                List<BulkIndexer.Operation> page = readOnlyTransactionTemplate.execute(status -> {
+                    List<BulkIndexer.Operation> operations = searchDocumentFactory.loadPage(entityType, from, pageSize);
+                    Map<BulkIndexer.Operation, String> failures = bulkIndexer.execute(operations, progress.index);
+                    failures.forEach((operation, failure) -> log.warn("Could not reindex {}: {}", operation, failure));
+                    progress.indexed += operations.size() - failures.size();
+                    progress.failed += failures.size();
+                    return operations;
+                });
+                loaded = page.size();
+                searchReindexStateRepository.touch(progress.alias);
+                if (loaded > 0) {
+                    afterId = Long.parseLong(page.get(loaded - 1).getId());
+                }
+            } while (loaded == pageSize);
+            if (progress.failed > 0) {
+                throw new IllegalStateException(progress.failed + " document(s) could not be indexed");
+            }
+            elasticsearchTemplate.refresh(progress.index);
+            moveAlias(progress.alias, progress.index);
+            searchReindexStateRepository.setShadowIndex(progress.alias, null);
+            progress.state = State.COMPLETED;
+            log.info("Rebuilt the {} search index: {} documents in {} ({} documents/s)", progress.alias,
+                progress.indexed, Duration.between(progress.startedOn, Instant.now()), progress.getThroughput());
+        } catch (RuntimeException e) {
+            log.error("Could not rebuild the {} search index", progress.alias, e);
+            progress.state = State.FAILED;
+            progress.error = e.getMessage();
+            searchReindexStateRepository.setShadowIndex(progress.alias, null);
+            if (!elasticsearchTemplate.indexExists(progress.index)) {
+                return;
+            }
+            if (getAliasedIndices(progress.alias).contains(progress.index)) {
+                log.warn("The {} alias was moved to {}, but its previous index could not be deleted", progress.alias,
+                    progress.index);
+            } else if (!elasticsearchTemplate.indexExists(progress.alias)) {
+                // The previous index is gone: the new one is the only copy left
+                log.error("Kept the {} search index, the {} alias must be moved to it", progress.index, progress.alias);
+            } else {
+                elasticsearchTemplate.deleteIndex(progress.index);
+            }
+        } finally {
+            progress.finishedOn = Instant.now();
+        }
+    }
+
+    /**
+     * Create an index with the settings and mapping declared on the document class, if any.
+     */
+    private void createIndex(Class<?> documentClass, String index) {
+        Setting setting = documentClass.getAnnotation(Setting.class);
+        if (setting != null && StringUtils.hasText(setting.settingPath())) {
+            elasticsearchTemplate.createIndex(index, ElasticsearchTemplate.readFileFromClasspath(setting.settingPath()));
+        } else {
+            elasticsearchTemplate.createIndex(index);
+        }
+        Mapping mapping = documentClass.getAnnotation(Mapping.class);
+        if (mapping != null && StringUtils.hasText(mapping.mappingPath())) {
+            elasticsearchTemplate.putMapping(index, bulkIndexer.getIndexType(documentClass),
+                ElasticsearchTemplate.readFileFromClasspath(mapping.mappingPath()));
+        }
+    }
+
+    private void moveAlias(String alias, String index) {
+        IndicesAdminClient indices = elasticsearchTemplate.getClient().admin().indices();
+        List<String> previousIndices = getAliasedIndices(alias);
+        if (previousIndices.isEmpty() && elasticsearchTemplate.indexExists(alias)) {
+            log.warn("Replacing the {} search index with an alias to {}", alias, index);
+            // Elasticsearch cannot replace an index with an alias atomically: the writes to the index are paused,
+            // so they do not create it again once deleted
+            searchReindexStateRepository.setPaused(alias, true);
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    elasticsearchTemplate.deleteIndex(alias);
+                    try {
+                        indices.prepareAliases().addAlias(index, alias).get();
+                        return;
+                    } catch (RuntimeException e) {
+                        // A write sent before the pause created the index again, its document is in the new index
+                        if (attempt >= MAX_ALIAS_ATTEMPTS || !elasticsearchTemplate.indexExists(alias)) {
+                            throw e;
+                        }
+                        log.warn("The {} search index was created again, deleting it", alias);
+                    }
+                }
+            } finally {
+                searchReindexStateRepository.setPaused(alias, false);
+            }
+        }
+        IndicesAliasesRequestBuilder request = indices.prepareAliases();
+        previousIndices.forEach(previousIndex -> request.removeAlias(previousIndex, alias));
+        request.addAlias(index, alias).get();
+        previousIndices.forEach(elasticsearchTemplate::deleteIndex);
+    }
+
+    private List<String> getAliasedIndices(String alias) {
+        ImmutableOpenMap<String, List<AliasMetaData>> aliases = elasticsearchTemplate.getClient().admin().indices()
+            .prepareGetAliases(alias).get().getAliases();
+        List<String> aliasedIndices = new ArrayList<>();
+        for (Iterator<String> it = aliases.keysIt(); it.hasNext(); ) {
+            String aliasedIndex = it.next();
+            if (!aliases.get(aliasedIndex).isEmpty()) {
+                aliasedIndices.add(aliasedIndex);
+            }
+        }
+        return aliasedIndices;
+    }
+
+    private static final class Job {
+
+        private final Instant startedOn = Instant.now();
+
+        private volatile Instant finishedOn;
+
+        private final List<Progress> progresses;
+
+        private Job(Collection<SearchEntityType> entityTypes) {
+            this.progresses = entityTypes.stream().distinct().map(Progress::new).collect(Collectors.toList());
+        }
+
+        private SearchReindexDTO toDto() {
+            List<SearchReindexDTO.IndexProgress> indices = progresses.stream()
+                .map(Progress::toDto)
+                .collect(Collectors.toList());
+            State state;
+            if (finishedOn == null) {
+                state = State.RUNNING;
+            } else if (progresses.stream().anyMatch(progress -> progress.state == State.FAILED)) {
+                state = State.FAILED;
+            } else {
+                state = State.COMPLETED;
+            }
+            return new SearchReindexDTO(state, startedOn, finishedOn, indices);
+        }
+    }
+
+    private static final class Progress {
+
+        private final SearchEntityType entityType;
+
+        private volatile State state = State.IDLE;
+
+        private volatile String alias;
+
+        private volatile String index;
+
+        private volatile long total;
+
+        private volatile long indexed;
+
+        private volatile long failed;
+
+        private volatile Instant startedOn;
+
+        private volatile Instant finishedOn;
+
+        private volatile String error;
+
+        private Progress(SearchEntityType entityType) {
+            this.entityType = entityType;
+        }
+
+        private double getThroughput() {
+            if (startedOn == null) {
+                return 0;
+            }
+            long millis = Duration.between(startedOn, finishedOn == null ? Instant.now() : finishedOn).toMillis();
+            return millis == 0 ? 0 : indexed * 1000.0 / millis;
+        }
+
+        private SearchReindexDTO.IndexProgress toDto() {
+            return new SearchReindexDTO.IndexProgress(entityType, alias, index, state, total, indexed, failed,
+                getThroughput(), error);
+        }
+    }
+}
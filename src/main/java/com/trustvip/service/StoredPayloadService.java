@@ -0,0 +1,216 @@
+package com.trustvip.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.collect.Iterators;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.repository.ExtractedTextRepository;
+import com.trustvip.repository.StoredPayloadRepository;
+import com.trustvip.service.storage.BlobStore;
+import com.trustvip.service.storage.StagedBlob;
+import com.trustvip.service.storage.StoredBlob;
+
+/**
+ * Service for sharing the payloads of the related documents.
+ * <p>
+ * The blob store keeps each distinct content once, under its SHA-256 checksum. This service counts the documents
+ * referencing each payload, so identical uploads share one stored payload, and a payload is deleted, along with
+ * its extracted text, once the transaction releasing its last reference has committed.
+ * <p>
+ * The "stored_payload" row of a payload serves as its lock: a reference is added before the payload is written,
+ * and a payload is deleted in the transaction deleting its row, so a payload is never deleted while a
+ * transaction references it. Payloads written by transactions which rolled back are swept every day.
+ */
+@Service
+@Transactional
+public class StoredPayloadService {
+
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(StoredPayloadService.class);
+
+    private final StoredPayloadRepository storedPayloadRepository;
+
+    private final ExtractedTextRepository extractedTextRepository;
+
+    private final BlobStore blobStore;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate cleanupTransactionTemplate;
+
+    private final TransactionTemplate insertTransactionTemplate;
+
+    public StoredPayloadService(StoredPayloadRepository storedPayloadRepository,
+            ExtractedTextRepository extractedTextRepository, BlobStore blobStore, JdbcTemplate jdbcTemplate,
+            ApplicationProperties applicationProperties, PlatformTransactionManager transactionManager) {
+        this.storedPayloadRepository = storedPayloadRepository;
+        this.extractedTextRepository = extractedTextRepository;
+        this.blobStore = blobStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.applicationProperties = applicationProperties;
+        this.cleanupTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.cleanupTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // A failed insert only rolls back to its savepoint, so the current transaction can go on
+        this.insertTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.insertTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    /**
+     * Store a payload and add a reference to it.
+     * <p>
+     * A content which is already stored is not written again, its reference count is incremented instead. The
+     * reference is added before the payload is written, so a payload deleted by a concurrent release is written
+     * again.
+     *
+     * @param content the payload
+     * @return the stored payload
+     * @throws IOException if the payload could not be stored
+     */
+    public StoredBlob store(InputStream content) throws IOException {
+        try (StagedBlob staged = blobStore.stage(content)) {
+            acquire(staged.getBlob());
+            blobStore.store(staged);
+            return staged.getBlob();
+        }
+    }
+
+    private void acquire(StoredBlob blob) {
+        for (int attempt = 1; storedPayloadRepository.incrementRefCount(blob.getKey()) == 0; attempt++) {
+            log.debug("Request to save StoredPayload : {}", blob.getKey());
+            try {
+                insertTransactionTemplate.execute(status -> insert(blob.getKey(), blob.getSize(), 1L));
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Saved concurrently: the increment waits for the other transaction, then counts this reference
+                if (attempt >= MAX_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("StoredPayload {} was saved concurrently", blob.getKey());
+            }
+        }
+    }
+
+    /**
+     * Remove a reference to a payload.
+     * <p>
+     * The payload is deleted from the blob store after the current transaction has committed, if no other
+     * reference was added in the meantime.
+     *
+     * @param key the key of the payload
+     */
+    public void release(String key) {
+        if (storedPayloadRepository.decrementRefCount(key) == 0) {
+            log.warn("Released the untracked payload {}", key);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnreferenced(key);
+                }
+            });
+        } else {
+            deleteIfUnreferenced(key);
+        }
+    }
+
+    /**
+     * Delete the payloads stored for more than "application.storage.orphan-retention" milliseconds which no
+     * document references, such as the payloads written by transactions which rolled back.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void sweepOrphanPayloads() {
+        Instant storedBefore = Instant.now().minusMillis(applicationProperties.getStorage().getOrphanRetention());
+        int deleted = 0;
+        try (Stream<String> keys = blobStore.findKeysStoredBefore(storedBefore)) {
+            Iterator<List<String>> batches = Iterators.partition(keys.iterator(), SWEEP_BATCH_SIZE);
+            while (batches.hasNext()) {
+                List<String> batch = batches.next();
+                Set<String> orphans = new HashSet<>(batch);
+                orphans.removeAll(storedPayloadRepository.findKeysByKeyIn(batch));
+                for (String key : orphans) {
+                    if (deleteOrphan(key)) {
+                        deleted++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not list the stored payloads: {}", e.getMessage());
+        }
+        log.debug("Deleted {} orphan payload(s)", deleted);
+    }
+
+    private boolean deleteOrphan(String key) {
+        try {
+            return cleanupTransactionTemplate.execute(status -> {
+                // Claims the key, so an upload of the same content waits for the payload to be deleted
+                insert(key, 0L, 0L);
+                extractedTextRepository.deleteByKey(key);
+                deletePayload(key);
+                storedPayloadRepository.deleteUnreferenced(key);
+                return true;
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Payload {} was referenced concurrently", key);
+            return false;
+        }
+    }
+
+    private void deleteIfUnreferenced(String key) {
+        // Only the transaction removing the unreferenced row deletes the payload, before releasing the row lock
+        cleanupTransactionTemplate.execute(status -> {
+            if (storedPayloadRepository.deleteUnreferenced(key) > 0) {
+                extractedTextRepository.deleteByKey(key);
+                deletePayload(key);
+            }
+            return null;
+        });
+    }
+
+    private void deletePayload(String key) {
+        try {
+            blobStore.delete(key);
+            log.debug("Deleted the unused payload {}", key);
+        } catch (IOException e) {
+            // Swept later, once its row is deleted
+            log.warn("Could not delete the unused payload {}: {}", key, e.getMessage());
+        }
+    }
+
+    private int insert(String key, long size, long refCount) {
+        return jdbcTemplate.update(
+            "insert into stored_payload (payload_key, payload_size, ref_count, created_on) values (?, ?, ?, ?)",
+            key, size, refCount, Timestamp.from(Instant.now()));
+    }
+}
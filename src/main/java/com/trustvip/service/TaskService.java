@@ -2,6 +2,8 @@ package com.trustvip.service;
 
 import com.trustvip.domain.enumeration.ArticleStatus;
 import com.trustvip.domain.enumeration.TaskStatus;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.service.dto.ArticleDTO;
 import com.trustvip.service.dto.TaskDTO;
 import org.springframework.data.domain.Page;
@@ -52,6 +54,17 @@ public interface TaskService {
      * @return the list of entities
      */
     Page<TaskDTO> search(String query, Pageable pageable);
+
+    /**
+     * Search for a page of the tasks corresponding to the query, after a cursor.
+     *
+     * @param query the query of the search
+     * @param cursor the position of the page
+     * @param size the size of the page
+     * @param count whether the exact number of matching tasks must be computed
+     * @return the page of entities
+     */
+    CursorPage<TaskDTO> search(String query, SearchCursor cursor, int size, boolean count);
     
     /**
      * Get all the articles by status
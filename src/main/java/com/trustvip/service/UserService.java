@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,13 +23,14 @@ import org.springframework.transaction.annotation.Transactional;
 import com.trustvip.config.Constants;
 import com.trustvip.domain.Authority;
 import com.trustvip.domain.User;
+import com.trustvip.domain.enumeration.SearchEntityType;
 import com.trustvip.repository.AuthorityRepository;
 import com.trustvip.repository.PersistentTokenRepository;
 import com.trustvip.repository.UserRepository;
-import com.trustvip.repository.search.UserSearchRepository;
 import com.trustvip.security.AuthoritiesConstants;
 import com.trustvip.security.SecurityUtils;
 import com.trustvip.service.dto.UserDTO;
+import com.trustvip.service.event.UserChangedEvent;
 import com.trustvip.service.util.RandomUtil;
 
 /**
@@ -44,18 +46,22 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final UserSearchRepository userSearchRepository;
+    private final SearchOutboxService searchOutboxService;
 
     private final PersistentTokenRepository persistentTokenRepository;
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, UserSearchRepository userSearchRepository, PersistentTokenRepository persistentTokenRepository, AuthorityRepository authorityRepository) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, SearchOutboxService searchOutboxService, PersistentTokenRepository persistentTokenRepository, AuthorityRepository authorityRepository,
+            ApplicationEventPublisher applicationEventPublisher) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userSearchRepository = userSearchRepository;
+        this.searchOutboxService = searchOutboxService;
         this.persistentTokenRepository = persistentTokenRepository;
         this.authorityRepository = authorityRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -65,7 +71,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                userSearchRepository.save(user);
+                searchOutboxService.enqueue(SearchEntityType.USER, user.getId());
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -115,7 +121,7 @@ public class UserService {
         authorities.add(authority);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        searchOutboxService.enqueue(SearchEntityType.USER, newUser.getId());
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -144,7 +150,7 @@ public class UserService {
         user.setResetDate(Instant.now());
         user.setActivated(true);
         userRepository.save(user);
-        userSearchRepository.save(user);
+        searchOutboxService.enqueue(SearchEntityType.USER, user.getId());
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -167,7 +173,7 @@ public class UserService {
                 user.setEmail(email);
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
-                userSearchRepository.save(user);
+                searchOutboxService.enqueue(SearchEntityType.USER, user.getId());
                 log.debug("Changed Information for User: {}", user);
             });
     }
@@ -194,7 +200,8 @@ public class UserService {
                 userDTO.getAuthorities().stream()
                     .map(authorityRepository::findOne)
                     .forEach(managedAuthorities::add);
-                userSearchRepository.save(user);
+                searchOutboxService.enqueue(SearchEntityType.USER, user.getId());
+                applicationEventPublisher.publishEvent(new UserChangedEvent(user.getId()));
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -204,7 +211,8 @@ public class UserService {
     public void deleteUser(String login) {
         userRepository.findOneByLogin(login).ifPresent(user -> {
             userRepository.delete(user);
-            userSearchRepository.delete(user);
+            searchOutboxService.enqueue(SearchEntityType.USER, user.getId());
+            applicationEventPublisher.publishEvent(new UserChangedEvent(user.getId()));
             log.debug("Deleted User: {}", user);
         });
     }
@@ -267,7 +275,7 @@ public class UserService {
         for (User user : users) {
             log.debug("Deleting not activated user {}", user.getLogin());
             userRepository.delete(user);
-            userSearchRepository.delete(user);
+            searchOutboxService.enqueue(SearchEntityType.USER, user.getId());
         }
     }
 
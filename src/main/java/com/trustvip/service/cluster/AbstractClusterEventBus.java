@@ -0,0 +1,131 @@
+package com.trustvip.service.cluster;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.RelatedDocumentChangedEvent;
+import com.trustvip.service.event.SearchIndexUpdatedEvent;
+import com.trustvip.service.event.UserChangedEvent;
+
+/**
+ * Base class of the {@link ClusterEventBus} implementations.
+ * <p>
+ * Broadcasts the events the in-memory caches are evicted on, just before the transaction publishing them commits,
+ * as a type and a JSON payload. Received events are published again locally, while {@link #isReceiving()} returns
+ * true, and are not broadcast back.
+ */
+public abstract class AbstractClusterEventBus implements ClusterEventBus {
+
+    private static final ThreadLocal<Boolean> RECEIVING = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private static final Map<String, Class<?>> EVENT_TYPES = Arrays.<Class<?>>asList(ArticleChangedEvent.class,
+        RelatedDocumentChangedEvent.class, SearchIndexUpdatedEvent.class, UserChangedEvent.class).stream()
+        .collect(Collectors.toMap(Class::getSimpleName, Function.identity()));
+
+    private final Logger log = LoggerFactory.getLogger(AbstractClusterEventBus.class);
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    protected AbstractClusterEventBus(ObjectMapper objectMapper, ApplicationEventPublisher applicationEventPublisher) {
+        this.objectMapper = objectMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * @return true if the current thread is publishing an event received from another node
+     */
+    public static boolean isReceiving() {
+        return RECEIVING.get();
+    }
+
+    @Override
+    public void broadcast(Object event) {
+        String eventType = event.getClass().getSimpleName();
+        if (EVENT_TYPES.get(eventType) != event.getClass()) {
+            throw new IllegalArgumentException("Unsupported cluster event: " + event.getClass().getName());
+        }
+        try {
+            send(eventType, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Send an event to the other nodes.
+     *
+     * @param eventType the simple name of the class of the event
+     * @param payload the event, as JSON
+     */
+    protected abstract void send(String eventType, String payload);
+
+    /**
+     * Publish an event received from another node. Events of an unknown type, sent by a newer version of the
+     * application, are ignored.
+     *
+     * @param eventType the simple name of the class of the event
+     * @param payload the event, as JSON
+     */
+    protected void receive(String eventType, String payload) {
+        Class<?> eventClass = EVENT_TYPES.get(eventType);
+        if (eventClass == null) {
+            log.warn("Ignoring an unknown cluster event: {}", eventType);
+            return;
+        }
+        Object event;
+        try {
+            event = objectMapper.readValue(payload, eventClass);
+        } catch (IOException e) {
+            log.warn("Ignoring an unreadable cluster event: {} {}", eventType, payload, e);
+            return;
+        }
+        log.debug("Received {}", event);
+        RECEIVING.set(Boolean.TRUE);
+        try {
+            applicationEventPublisher.publishEvent(event);
+        } finally {
+            RECEIVING.remove();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        relay(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRelatedDocumentChanged(RelatedDocumentChangedEvent event) {
+        relay(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onSearchIndexUpdated(SearchIndexUpdatedEvent event) {
+        relay(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        relay(event);
+    }
+
+    private void relay(Object event) {
+        if (!isReceiving()) {
+            broadcast(event);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.trustvip.service.cluster;
+
+/**
+ * Broadcast of application events to the other nodes of the cluster, so each node evicts the entries of its
+ * in-memory caches which were changed on another node.
+ * <p>
+ * The events received from another node are published again on the local node, outside of any transaction.
+ */
+public interface ClusterEventBus {
+
+    /**
+     * Broadcast an event to the other nodes.
+     * <p>
+     * Must be called before the current transaction commits, if there is one: implementations may write the event
+     * in that transaction, so it is only broadcast if the transaction commits.
+     *
+     * @param event the event, which must be one of the events supported by {@link AbstractClusterEventBus}
+     */
+    void broadcast(Object event);
+}
@@ -0,0 +1,136 @@
+package com.trustvip.service.cluster;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trustvip.config.ApplicationProperties;
+
+/**
+ * {@link ClusterEventBus} writing the events to the "cluster_event" table, which every node polls.
+ * <p>
+ * Events are inserted in the transaction publishing them, so they are only broadcast once committed, and every
+ * node receives them within "application.cluster.poll-interval" milliseconds. As identifiers are allocated before
+ * the transactions commit, the rows are read again for "application.cluster.commit-window" milliseconds so a row
+ * committed after a row with a greater identifier is not missed. Rows are deleted after
+ * "application.cluster.retention" milliseconds.
+ */
+public class DatabaseClusterEventBus extends AbstractClusterEventBus {
+
+    private final Logger log = LoggerFactory.getLogger(DatabaseClusterEventBus.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationProperties.Cluster properties;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * The identifier up to which every row has been read, null until the first poll.
+     */
+    private Long watermark;
+
+    private final NavigableSet<Long> readIds = new TreeSet<>();
+
+    /**
+     * The time of the previous polls, with the greatest identifier read at that time.
+     */
+    private final Deque<long[]> polls = new ArrayDeque<>();
+
+    public DatabaseClusterEventBus(ObjectMapper objectMapper, ApplicationEventPublisher applicationEventPublisher,
+            JdbcTemplate jdbcTemplate, ApplicationProperties applicationProperties) {
+        super(objectMapper, applicationEventPublisher);
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = applicationProperties.getCluster();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    protected void send(String eventType, String payload) {
+        jdbcTemplate.update("insert into cluster_event (node_id, event_type, payload, created_on) values (?, ?, ?, ?)",
+            nodeId, eventType, payload, Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Receive the events committed by the other nodes since the previous poll.
+     * <p>
+     * This is scheduled to get fired "application.cluster.poll-interval" milliseconds after the previous run.
+     */
+    @Scheduled(fixedDelayString = "${application.cluster.poll-interval:1000}")
+    public synchronized void poll() {
+        long now = System.currentTimeMillis();
+        List<ClusterEventRow> rows;
+        try {
+            if (watermark == null) {
+                watermark = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from cluster_event", Long.class);
+            }
+            rows = jdbcTemplate.query(
+                "select id, node_id, event_type, payload from cluster_event where id > ? order by id",
+                (rs, rowNum) -> new ClusterEventRow(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                watermark);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the cluster events: {}", e.getMessage());
+            return;
+        }
+        for (ClusterEventRow row : rows) {
+            if (readIds.add(row.id) && !nodeId.equals(row.nodeId)) {
+                try {
+                    receive(row.eventType, row.payload);
+                } catch (RuntimeException e) {
+                    log.error("Could not handle the cluster event {}", row.id, e);
+                }
+            }
+        }
+        polls.addLast(new long[] { now, readIds.isEmpty() ? watermark : Math.max(watermark, readIds.last()) });
+        while (!polls.isEmpty() && now - polls.peekFirst()[0] >= properties.getCommitWindow()) {
+            watermark = Math.max(watermark, polls.removeFirst()[1]);
+        }
+        readIds.headSet(watermark, true).clear();
+    }
+
+    /**
+     * Delete the events older than the retention.
+     * <p>
+     * This is scheduled to get fired every hour.
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    public void purge() {
+        int deleted = jdbcTemplate.update("delete from cluster_event where created_on < ?",
+            Timestamp.from(Instant.now().minusMillis(properties.getRetention())));
+        log.debug("Deleted {} cluster event(s)", deleted);
+    }
+
+    private static class ClusterEventRow {
+
+        private final long id;
+
+        private final String nodeId;
+
+        private final String eventType;
+
+        private final String payload;
+
+        ClusterEventRow(long id, String nodeId, String eventType, String payload) {
+            this.id = id;
+            this.nodeId = nodeId;
+            this.eventType = eventType;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.trustvip.service.cluster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * {@link ClusterEventBus} of a single node deployment, which has no other node to send the events to.
+ * <p>
+ * Also stands in for a message broker backed implementation during development.
+ */
+public class LocalClusterEventBus extends AbstractClusterEventBus {
+
+    private final Logger log = LoggerFactory.getLogger(LocalClusterEventBus.class);
+
+    public LocalClusterEventBus(ObjectMapper objectMapper, ApplicationEventPublisher applicationEventPublisher) {
+        super(objectMapper, applicationEventPublisher);
+    }
+
+    @Override
+    protected void send(String eventType, String payload) {
+        log.trace("Not broadcasting {} {}", eventType, payload);
+    }
+}
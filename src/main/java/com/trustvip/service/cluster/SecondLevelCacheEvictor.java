@@ -0,0 +1,43 @@
+package com.trustvip.service.cluster;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.trustvip.domain.Article;
+import com.trustvip.domain.User;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.UserChangedEvent;
+
+/**
+ * Evicts the entities changed on another node from the Hibernate second level cache of this node.
+ * <p>
+ * Changes made on this node are applied to the cache by Hibernate itself. Authority and TaskOwner, which are only
+ * changed by the database migrations or by an administrator, are left to the time to live of their region.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    @EventListener
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (AbstractClusterEventBus.isReceiving()) {
+            cache.evictEntityData(Article.class, event.getArticleId());
+        }
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (AbstractClusterEventBus.isReceiving()) {
+            cache.evictCollectionData(User.class.getName() + ".authorities", event.getUserId());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Broadcast of the cache invalidation events between the nodes of a cluster.
+ */
+package com.trustvip.service.cluster;
@@ -8,7 +8,6 @@ import java.util.List;
 import java.util.Objects;
 import javax.persistence.Lob;
 import com.trustvip.domain.enumeration.ArticleType;
-import com.trustvip.domain.RelatedDocument;
 import com.trustvip.domain.enumeration.ArticleStatus;
 
 /**
@@ -43,7 +42,7 @@ public class ArticleDTO implements Serializable {
     
     private Integer rating;
     
-    private List<RelatedDocument> docList;
+    private List<RelatedDocumentSummaryDTO> docList;
     
     public Integer getRating() {
         return rating;
@@ -53,11 +52,11 @@ public class ArticleDTO implements Serializable {
         this.rating = rating;
     }
 
-    public List<RelatedDocument> getDocList() {
+    public List<RelatedDocumentSummaryDTO> getDocList() {
         return docList;
     }
 
-    public void setDocList(List<RelatedDocument> docList) {
+    public void setDocList(List<RelatedDocumentSummaryDTO> docList) {
         this.docList = docList;
     }
 
@@ -0,0 +1,65 @@
+package com.trustvip.service.dto;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.domain.enumeration.ArticleType;
+
+/**
+ * The number of articles by type, by status and by publish month ("yyyy-MM"), for the dashboard.
+ */
+public class ArticleFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+
+    private final Map<ArticleType, Long> types = new EnumMap<>(ArticleType.class);
+
+    private final Map<ArticleStatus, Long> statuses = new EnumMap<>(ArticleStatus.class);
+
+    private final SortedMap<String, Long> publishMonths = new TreeMap<>();
+
+    public ArticleFacetsDTO() {
+        for (ArticleType type : ArticleType.values()) {
+            types.put(type, 0L);
+        }
+        for (ArticleStatus status : ArticleStatus.values()) {
+            statuses.put(status, 0L);
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<ArticleType, Long> getTypes() {
+        return types;
+    }
+
+    public Map<ArticleStatus, Long> getStatuses() {
+        return statuses;
+    }
+
+    public SortedMap<String, Long> getPublishMonths() {
+        return publishMonths;
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleFacetsDTO{" +
+            "total=" + getTotal() +
+            ", types=" + getTypes() +
+            ", statuses=" + getStatuses() +
+            ", publishMonths=" + getPublishMonths() +
+            "}";
+    }
+}
@@ -0,0 +1,105 @@
+package com.trustvip.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.domain.enumeration.ArticleType;
+
+/**
+ * The criteria of an article search, bound from the request parameters.
+ * <p>
+ * The query is plain text matched against the name and the content of the articles, the other criteria
+ * are exact filters which do not change the relevance of the results.
+ */
+public class ArticleSearchCriteria implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String query;
+
+    private ArticleType type;
+
+    private ArticleStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate publishedTo;
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public ArticleType getType() {
+        return type;
+    }
+
+    public void setType(ArticleType type) {
+        this.type = type;
+    }
+
+    public ArticleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ArticleStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getPublishedFrom() {
+        return publishedFrom;
+    }
+
+    public void setPublishedFrom(LocalDate publishedFrom) {
+        this.publishedFrom = publishedFrom;
+    }
+
+    public LocalDate getPublishedTo() {
+        return publishedTo;
+    }
+
+    public void setPublishedTo(LocalDate publishedTo) {
+        this.publishedTo = publishedTo;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ArticleSearchCriteria criteria = (ArticleSearchCriteria) o;
+        return Objects.equals(query, criteria.query) &&
+            type == criteria.type &&
+            status == criteria.status &&
+            Objects.equals(publishedFrom, criteria.publishedFrom) &&
+            Objects.equals(publishedTo, criteria.publishedTo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(query, type, status, publishedFrom, publishedTo);
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleSearchCriteria{" +
+            "query='" + getQuery() + "'" +
+            ", type='" + getType() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", publishedFrom='" + getPublishedFrom() + "'" +
+            ", publishedTo='" + getPublishedTo() + "'" +
+            "}";
+    }
+}
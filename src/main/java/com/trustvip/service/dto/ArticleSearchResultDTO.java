@@ -0,0 +1,23 @@
+package com.trustvip.service.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An article found by a search, with the highlighted fragments of the fields matching the query.
+ */
+public class ArticleSearchResultDTO extends ArticleDTO {
+
+    private Map<String, List<String>> highlights;
+
+    /**
+     * @return the highlighted fragments, by field name
+     */
+    public Map<String, List<String>> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(Map<String, List<String>> highlights) {
+        this.highlights = highlights;
+    }
+}
@@ -17,10 +17,21 @@ public class RelatedDocumentDTO implements Serializable {
 
     private String docName;
 
+    /**
+     * Payload of a document created or updated through JSON. It is moved to the BlobStore on save and is never
+     * returned, the payload being downloaded from /api/related-documents/{id}/content.
+     */
     @Lob
     private byte[] docFile;
     private String docFileContentType;
 
+    private Long docSize;
+
+    private String docChecksum;
+
+    @Size(max = 64)
+    private String contentHash;
+
     private Long articleId;
 
     private String articleArticleName;
@@ -57,6 +68,30 @@ public class RelatedDocumentDTO implements Serializable {
         this.docFileContentType = docFileContentType;
     }
 
+    public Long getDocSize() {
+        return docSize;
+    }
+
+    public void setDocSize(Long docSize) {
+        this.docSize = docSize;
+    }
+
+    public String getDocChecksum() {
+        return docChecksum;
+    }
+
+    public void setDocChecksum(String docChecksum) {
+        this.docChecksum = docChecksum;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Long getArticleId() {
         return articleId;
     }
@@ -99,7 +134,8 @@ public class RelatedDocumentDTO implements Serializable {
         return "RelatedDocumentDTO{" +
             "id=" + getId() +
             ", docName='" + getDocName() + "'" +
-            ", docFile='" + getDocFile() + "'" +
+            ", docFileContentType='" + getDocFileContentType() + "'" +
+            ", docSize=" + getDocSize() +
             "}";
     }
 }
@@ -0,0 +1,118 @@
+package com.trustvip.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A metadata-only view of the RelatedDocument entity, used to list the documents of an article.
+ * <p>
+ * It is read with a constructor expression, so neither the payload nor the article are loaded.
+ */
+public class RelatedDocumentSummaryDTO implements Serializable {
+
+    private Long id;
+
+    private Long articleId;
+
+    private String docName;
+
+    private String docFileContentType;
+
+    private Long docSize;
+
+    private String docChecksum;
+
+    public RelatedDocumentSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public RelatedDocumentSummaryDTO(Long id, Long articleId, String docName, String docFileContentType, Long docSize,
+            String docChecksum) {
+        this.id = id;
+        this.articleId = articleId;
+        this.docName = docName;
+        this.docFileContentType = docFileContentType;
+        this.docSize = docSize;
+        this.docChecksum = docChecksum;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public void setArticleId(Long articleId) {
+        this.articleId = articleId;
+    }
+
+    public String getDocName() {
+        return docName;
+    }
+
+    public void setDocName(String docName) {
+        this.docName = docName;
+    }
+
+    public String getDocFileContentType() {
+        return docFileContentType;
+    }
+
+    public void setDocFileContentType(String docFileContentType) {
+        this.docFileContentType = docFileContentType;
+    }
+
+    public Long getDocSize() {
+        return docSize;
+    }
+
+    public void setDocSize(Long docSize) {
+        this.docSize = docSize;
+    }
+
+    public String getDocChecksum() {
+        return docChecksum;
+    }
+
+    public void setDocChecksum(String docChecksum) {
+        this.docChecksum = docChecksum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        RelatedDocumentSummaryDTO relatedDocumentSummaryDTO = (RelatedDocumentSummaryDTO) o;
+        if(relatedDocumentSummaryDTO.getId() == null || getId() == null) {
+            return false;
+        }
+        return Objects.equals(getId(), relatedDocumentSummaryDTO.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+
+    @Override
+    public String toString() {
+        return "RelatedDocumentSummaryDTO{" +
+            "id=" + getId() +
+            ", articleId=" + getArticleId() +
+            ", docName='" + getDocName() + "'" +
+            ", docFileContentType='" + getDocFileContentType() + "'" +
+            ", docSize=" + getDocSize() +
+            "}";
+    }
+}
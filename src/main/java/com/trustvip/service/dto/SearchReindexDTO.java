@@ -0,0 +1,180 @@
+package com.trustvip.service.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.trustvip.domain.enumeration.SearchEntityType;
+
+/**
+ * A DTO for the progress of a full reindex of the search indices.
+ */
+public class SearchReindexDTO {
+
+    public enum State {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private State state;
+
+    private Instant startedOn;
+
+    private Instant finishedOn;
+
+    private List<IndexProgress> indices;
+
+    public SearchReindexDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SearchReindexDTO(State state, Instant startedOn, Instant finishedOn, List<IndexProgress> indices) {
+        this.state = state;
+        this.startedOn = startedOn;
+        this.finishedOn = finishedOn;
+        this.indices = indices;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public Instant getStartedOn() {
+        return startedOn;
+    }
+
+    public void setStartedOn(Instant startedOn) {
+        this.startedOn = startedOn;
+    }
+
+    public Instant getFinishedOn() {
+        return finishedOn;
+    }
+
+    public void setFinishedOn(Instant finishedOn) {
+        this.finishedOn = finishedOn;
+    }
+
+    public List<IndexProgress> getIndices() {
+        return indices;
+    }
+
+    public void setIndices(List<IndexProgress> indices) {
+        this.indices = indices;
+    }
+
+    /**
+     * The progress of the rebuild of one index.
+     */
+    public static class IndexProgress {
+
+        private SearchEntityType entityType;
+
+        private String alias;
+
+        private String index;
+
+        private State state;
+
+        private long total;
+
+        private long indexed;
+
+        private long failed;
+
+        private double documentsPerSecond;
+
+        private String error;
+
+        public IndexProgress() {
+            // Empty constructor needed for Jackson.
+        }
+
+        public IndexProgress(SearchEntityType entityType, String alias, String index, State state, long total,
+                long indexed, long failed, double documentsPerSecond, String error) {
+            this.entityType = entityType;
+            this.alias = alias;
+            this.index = index;
+            this.state = state;
+            this.total = total;
+            this.indexed = indexed;
+            this.failed = failed;
+            this.documentsPerSecond = documentsPerSecond;
+            this.error = error;
+        }
+
+        public SearchEntityType getEntityType() {
+            return entityType;
+        }
+
+        public void setEntityType(SearchEntityType entityType) {
+            this.entityType = entityType;
+        }
+
+        public String getAlias() {
+            return alias;
+        }
+
+        public void setAlias(String alias) {
+            this.alias = alias;
+        }
+
+        public String getIndex() {
+            return index;
+        }
+
+        public void setIndex(String index) {
+            this.index = index;
+        }
+
+        public State getState() {
+            return state;
+        }
+
+        public void setState(State state) {
+            this.state = state;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public long getIndexed() {
+            return indexed;
+        }
+
+        public void setIndexed(long indexed) {
+            this.indexed = indexed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public void setFailed(long failed) {
+            this.failed = failed;
+        }
+
+        public double getDocumentsPerSecond() {
+            return documentsPerSecond;
+        }
+
+        public void setDocumentsPerSecond(double documentsPerSecond) {
+            this.documentsPerSecond = documentsPerSecond;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.trustvip.service.event;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Published when an article is saved or deleted.
+ * <p>
+ * Listeners are usually bound to the commit of the transaction which published it. When known, the event
+ * carries the facets of the article before and after the change, a null previous facet meaning the article
+ * was created and a null current facet that it was deleted.
+ */
+public class ArticleChangedEvent {
+
+    private final Long articleId;
+
+    private final ArticleFacet previous;
+
+    private final ArticleFacet current;
+
+    public ArticleChangedEvent(Long articleId) {
+        this(articleId, null, null);
+    }
+
+    @JsonCreator
+    public ArticleChangedEvent(@JsonProperty("articleId") Long articleId,
+            @JsonProperty("previous") ArticleFacet previous, @JsonProperty("current") ArticleFacet current) {
+        this.articleId = articleId;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    public Long getArticleId() {
+        return articleId;
+    }
+
+    public ArticleFacet getPrevious() {
+        return previous;
+    }
+
+    public ArticleFacet getCurrent() {
+        return current;
+    }
+
+    /**
+     * @return true if the facets of the article before and after the change are not known
+     */
+    @JsonIgnore
+    public boolean isUnknownChange() {
+        return previous == null && current == null;
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleChangedEvent{" +
+            "articleId=" + getArticleId() +
+            ", previous=" + getPrevious() +
+            ", current=" + getCurrent() +
+            "}";
+    }
+}
@@ -0,0 +1,79 @@
+package com.trustvip.service.event;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import com.trustvip.domain.Article;
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.domain.enumeration.ArticleType;
+
+/**
+ * The values an article is counted by on the dashboard: its type, its status and the month it is published.
+ */
+public final class ArticleFacet {
+
+    private final ArticleType type;
+
+    private final ArticleStatus status;
+
+    private final YearMonth publishMonth;
+
+    public ArticleFacet(ArticleType type, ArticleStatus status, LocalDate publishDate) {
+        this.type = type;
+        this.status = status;
+        this.publishMonth = publishDate == null ? null : YearMonth.from(publishDate);
+    }
+
+    public static ArticleFacet of(Article article) {
+        return new ArticleFacet(article.getType(), article.getStatus(), article.getPublishDate());
+    }
+
+    @JsonCreator
+    public static ArticleFacet of(@JsonProperty("type") ArticleType type, @JsonProperty("status") ArticleStatus status,
+            @JsonProperty("publishMonth") YearMonth publishMonth) {
+        return new ArticleFacet(type, status, publishMonth == null ? null : publishMonth.atDay(1));
+    }
+
+    public ArticleType getType() {
+        return type;
+    }
+
+    public ArticleStatus getStatus() {
+        return status;
+    }
+
+    public YearMonth getPublishMonth() {
+        return publishMonth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ArticleFacet articleFacet = (ArticleFacet) o;
+        return type == articleFacet.type && status == articleFacet.status
+            && Objects.equals(publishMonth, articleFacet.publishMonth);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, status, publishMonth);
+    }
+
+    @Override
+    public String toString() {
+        return "ArticleFacet{" +
+            "type=" + getType() +
+            ", status=" + getStatus() +
+            ", publishMonth=" + getPublishMonth() +
+            "}";
+    }
+}
@@ -0,0 +1,46 @@
+package com.trustvip.service.event;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Published when a related document is saved or deleted.
+ * <p>
+ * Listeners are usually bound to the commit of the transaction which published it.
+ */
+public class RelatedDocumentChangedEvent {
+
+    private final Long relatedDocumentId;
+
+    private final Set<Long> articleIds;
+
+    @JsonCreator
+    public RelatedDocumentChangedEvent(@JsonProperty("relatedDocumentId") Long relatedDocumentId,
+            @JsonProperty("articleIds") Set<Long> articleIds) {
+        this.relatedDocumentId = relatedDocumentId;
+        this.articleIds = Collections.unmodifiableSet(new LinkedHashSet<>(articleIds));
+    }
+
+    public Long getRelatedDocumentId() {
+        return relatedDocumentId;
+    }
+
+    /**
+     * @return the ids of the articles the document was attached to, before and after the change
+     */
+    public Set<Long> getArticleIds() {
+        return articleIds;
+    }
+
+    @Override
+    public String toString() {
+        return "RelatedDocumentChangedEvent{" +
+            "relatedDocumentId=" + getRelatedDocumentId() +
+            ", articleIds=" + getArticleIds() +
+            "}";
+    }
+}
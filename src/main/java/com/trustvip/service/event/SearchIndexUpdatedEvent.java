@@ -0,0 +1,36 @@
+package com.trustvip.service.event;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.trustvip.domain.enumeration.SearchEntityType;
+
+/**
+ * Published by the search indexer when it has applied changes to Elasticsearch.
+ */
+public class SearchIndexUpdatedEvent {
+
+    private final Set<SearchEntityType> entityTypes;
+
+    @JsonCreator
+    public SearchIndexUpdatedEvent(@JsonProperty("entityTypes") Set<SearchEntityType> entityTypes) {
+        this.entityTypes = Collections.unmodifiableSet(EnumSet.copyOf(entityTypes));
+    }
+
+    /**
+     * @return the types of the entities whose documents were indexed or deleted
+     */
+    public Set<SearchEntityType> getEntityTypes() {
+        return entityTypes;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchIndexUpdatedEvent{" +
+            "entityTypes=" + getEntityTypes() +
+            "}";
+    }
+}
@@ -0,0 +1,30 @@
+package com.trustvip.service.event;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Published when the authorities of a user may have changed: when the user is updated or deleted.
+ * <p>
+ * Listeners are usually bound to the commit of the transaction which published it.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    @JsonCreator
+    public UserChangedEvent(@JsonProperty("userId") Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "UserChangedEvent{" +
+            "userId=" + getUserId() +
+            "}";
+    }
+}
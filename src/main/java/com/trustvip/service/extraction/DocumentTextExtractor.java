@@ -0,0 +1,264 @@
+package com.trustvip.service.extraction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.poi.hwpf.extractor.WordExtractor;
+import org.apache.poi.xwpf.extractor.XWPFWordExtractor;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.trustvip.config.ApplicationProperties;
+
+import com.itextpdf.text.io.RandomAccessSourceFactory;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+/**
+ * Extracts the plain text of PDF, Word (DOC and DOCX) and text payloads.
+ * <p>
+ * The text is collected up to a maximal number of characters. Each parse (a Word document, or a page of a PDF)
+ * runs in a "text-parser" thread and is cancelled when the time limit is reached, so a document which takes too
+ * long to parse fails instead of holding the extraction thread. The parsers ignore the interruption, so a
+ * cancelled parse may still run to its end: the parser threads are bounded, further parses failing once they
+ * are all busy.
+ */
+@Component
+public class DocumentTextExtractor {
+
+    private final ExecutorService parserExecutor;
+
+    public DocumentTextExtractor(ApplicationProperties applicationProperties) {
+        // Leaves room for as many cancelled parses still running as extractions
+        int maxParsers = applicationProperties.getExtraction().getMaxPoolSize() * 2;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("text-parser-");
+        threadFactory.setDaemon(true);
+        this.parserExecutor = new ThreadPoolExecutor(0, maxParsers, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            threadFactory);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        parserExecutor.shutdownNow();
+    }
+
+    public enum Format {
+        PDF, DOC, DOCX, TEXT
+    }
+
+    /**
+     * Detect the format of a payload, from its content type or else from the extension of its name.
+     *
+     * @param contentType the content type of the payload
+     * @param name the name of the document
+     * @return the format, or empty if its text cannot be extracted
+     */
+    public Optional<Format> detect(String contentType, String name) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("application/pdf")) {
+            return Optional.of(Format.PDF);
+        }
+        if (type.startsWith("application/msword")) {
+            return Optional.of(Format.DOC);
+        }
+        if (type.startsWith("application/vnd.openxmlformats-officedocument.wordprocessingml.document")) {
+            return Optional.of(Format.DOCX);
+        }
+        if (type.startsWith("text/")) {
+            return Optional.of(Format.TEXT);
+        }
+        String fileName = name == null ? "" : name.toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".pdf")) {
+            return Optional.of(Format.PDF);
+        }
+        if (fileName.endsWith(".doc")) {
+            return Optional.of(Format.DOC);
+        }
+        if (fileName.endsWith(".docx")) {
+            return Optional.of(Format.DOCX);
+        }
+        if (fileName.endsWith(".txt")) {
+            return Optional.of(Format.TEXT);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Extract the text of a payload.
+     *
+     * @param format the format of the payload
+     * @param content the payload
+     * @param maxChars the maximal number of characters to extract
+     * @param timeout the time limit of the extraction, in milliseconds
+     * @return the extracted text
+     * @throws IOException if the payload could not be read or parsed, or the time limit was exceeded
+     */
+    public Result extract(Format format, Resource content, int maxChars, long timeout) throws IOException {
+        Result result = new Result(maxChars, System.currentTimeMillis() + timeout);
+        switch (format) {
+            case PDF:
+                extractPdf(content, result);
+                break;
+            case DOC:
+                result.append(parse(result, () -> {
+                    try (InputStream inputStream = content.getInputStream();
+                            WordExtractor extractor = new WordExtractor(inputStream)) {
+                        return extractor.getText();
+                    }
+                }));
+                break;
+            case DOCX:
+                result.append(parse(result, () -> {
+                    try (InputStream inputStream = content.getInputStream();
+                            XWPFWordExtractor extractor = new XWPFWordExtractor(new XWPFDocument(inputStream))) {
+                        return extractor.getText();
+                    }
+                }));
+                break;
+            case TEXT:
+                extractText(content, result);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        return result;
+    }
+
+    private void extractPdf(Resource content, Result result) throws IOException {
+        PdfReader reader = parse(result, () -> {
+            RandomAccessSourceFactory sourceFactory = new RandomAccessSourceFactory();
+            if (content.isFile()) {
+                return new PdfReader(new RandomAccessFileOrArray(
+                    sourceFactory.createBestSource(content.getFile().getPath())), null);
+            }
+            try (InputStream inputStream = content.getInputStream()) {
+                return new PdfReader(new RandomAccessFileOrArray(sourceFactory.createSource(inputStream)), null);
+            }
+        });
+        try {
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                int number = page;
+                if (!result.append(parse(result, () -> PdfTextExtractor.getTextFromPage(reader, number)))
+                        || !result.append("\n")) {
+                    return;
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Run a parse in a parser thread, cancelling it once the time limit of the extraction is reached.
+     */
+    private <T> T parse(Result result, Callable<T> parser) throws IOException {
+        long remaining = result.deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+            throw new IOException("The text extraction exceeded its time limit");
+        }
+        Future<T> future;
+        try {
+            future = parserExecutor.submit(parser);
+        } catch (RejectedExecutionException e) {
+            throw new IOException("Too many documents are being parsed", e);
+        }
+        try {
+            return future.get(remaining, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("The text extraction exceeded its time limit");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The text extraction was interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private void extractText(Resource content, Result result) throws IOException {
+        char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(content.getInputStream(), StandardCharsets.UTF_8)) {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                if (!result.append(new String(buffer, 0, read))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * The text of a payload, cut at the maximal number of characters.
+     */
+    public static final class Result {
+
+        private final StringBuilder text = new StringBuilder();
+
+        private final int maxChars;
+
+        private final long deadline;
+
+        private boolean truncated;
+
+        private Result(int maxChars, long deadline) {
+            this.maxChars = maxChars;
+            this.deadline = deadline;
+        }
+
+        private boolean append(String chunk) throws IOException {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("The text extraction exceeded its time limit");
+            }
+            if (chunk == null) {
+                return true;
+            }
+            int remaining = maxChars - text.length();
+            if (chunk.length() > remaining) {
+                text.append(chunk, 0, remaining);
+                truncated = true;
+                return false;
+            }
+            text.append(chunk);
+            return true;
+        }
+
+        public String getText() {
+            return text.toString();
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Text extraction of the related document payloads.
+ */
+package com.trustvip.service.extraction;
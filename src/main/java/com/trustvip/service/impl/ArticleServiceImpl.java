@@ -1,35 +1,47 @@
 package com.trustvip.service.impl;
 
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
-
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
-import org.jsoup.Jsoup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Example;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.itextpdf.text.DocumentException;
+import com.trustvip.config.ApplicationProperties;
 import com.trustvip.domain.Article;
-import com.trustvip.domain.RelatedDocument;
 import com.trustvip.domain.enumeration.ArticleStatus;
-import com.trustvip.domain.enumeration.ArticleType;
+import com.trustvip.domain.enumeration.SearchEntityType;
 import com.trustvip.repository.ArticleRepository;
-import com.trustvip.repository.search.ArticleSearchRepository;
+import com.trustvip.repository.search.ArticleSearchQueryRepository;
+import com.trustvip.repository.search.ArticleSearchQueryRepository.Hit;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.security.SecurityUtils;
+import com.trustvip.service.ArticleFacetCounter;
+import com.trustvip.service.ArticlePdfRenderService;
+import com.trustvip.service.ArticlePdfRenderService.RenderStatus;
+import com.trustvip.service.ArticleSearchCache;
 import com.trustvip.service.ArticleService;
 import com.trustvip.service.MailService;
+import com.trustvip.service.PublishedArticleCache;
 import com.trustvip.service.RelatedDocumentService;
+import com.trustvip.service.SearchOutboxService;
 import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.dto.ArticleFacetsDTO;
+import com.trustvip.service.dto.ArticleSearchCriteria;
+import com.trustvip.service.dto.ArticleSearchResultDTO;
 import com.trustvip.service.dto.RelatedDocumentDTO;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.ArticleFacet;
 import com.trustvip.service.mapper.ArticleMapper;
-import com.trustvip.service.mapper.RelatedDocumentMapper;
 
 /**
  * Service Implementation for managing Article.
@@ -43,19 +55,35 @@ public class ArticleServiceImpl implements ArticleService {
     private final ArticleRepository articleRepository;
 
     private final ArticleMapper articleMapper;
-    private final RelatedDocumentMapper documentMapper;
-    private final ArticleSearchRepository articleSearchRepository;
+    private final ArticleSearchQueryRepository articleSearchQueryRepository;
     private final MailService mailService;
+    private final ArticlePdfRenderService articlePdfRenderService;
+    private final ApplicationProperties applicationProperties;
+    private final SearchOutboxService searchOutboxService;
+    private final ArticleSearchCache articleSearchCache;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ArticleFacetCounter articleFacetCounter;
+    private final PublishedArticleCache publishedArticleCache;
     private final RelatedDocumentService relatedDocumentService;
 
     public ArticleServiceImpl(ArticleRepository articleRepository, ArticleMapper articleMapper,
-            ArticleSearchRepository articleSearchRepository, RelatedDocumentService relatedDocumentService, RelatedDocumentMapper documentMapper, MailService mailService) {
+            ArticleSearchQueryRepository articleSearchQueryRepository, ArticlePdfRenderService articlePdfRenderService, MailService mailService,
+            ApplicationProperties applicationProperties, SearchOutboxService searchOutboxService,
+            ArticleSearchCache articleSearchCache, ApplicationEventPublisher applicationEventPublisher,
+            ArticleFacetCounter articleFacetCounter, PublishedArticleCache publishedArticleCache,
+            RelatedDocumentService relatedDocumentService) {
         this.articleRepository = articleRepository;
         this.articleMapper = articleMapper;
-        this.articleSearchRepository = articleSearchRepository;
-        this.relatedDocumentService = relatedDocumentService;
-        this.documentMapper = documentMapper;
+        this.articleSearchQueryRepository = articleSearchQueryRepository;
+        this.articlePdfRenderService = articlePdfRenderService;
         this.mailService = mailService;
+        this.applicationProperties = applicationProperties;
+        this.searchOutboxService = searchOutboxService;
+        this.articleSearchCache = articleSearchCache;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.articleFacetCounter = articleFacetCounter;
+        this.publishedArticleCache = publishedArticleCache;
+        this.relatedDocumentService = relatedDocumentService;
     }
 
     /**
@@ -69,53 +97,20 @@ public class ArticleServiceImpl implements ArticleService {
     public ArticleDTO save(ArticleDTO articleDTO) {
         log.debug("Request to save Article : {}", articleDTO);
         articleDTO = populateTimeStamp(articleDTO);
+        ArticleFacet previous = articleDTO.getId() == null ? null : facetOf(articleRepository.findOne(articleDTO.getId()));
         Article article = articleMapper.toEntity(articleDTO);
-        article = articleRepository.save(article);        
-        saveArticleTextToSearch(articleDTO);      
-        deletePreviousAutogeneratedPDF(articleDTO);
-        createContentPDF(article);
+        article = articleRepository.save(article);
+        // the text of the content is indexed in the background once this transaction has committed
+        searchOutboxService.enqueue(SearchEntityType.ARTICLE, article.getId());
+        applicationEventPublisher.publishEvent(new ArticleChangedEvent(article.getId(), previous, ArticleFacet.of(article)));
+        // the PDF is rendered in the background once this transaction has committed
+        if (applicationProperties.getPdf().isRenderOnSave()) {
+            articlePdfRenderService.requestRender(article.getId());
+        }
         ArticleDTO result = articleMapper.toDto(article);
         return result;
     }
     
-    private void deletePreviousAutogeneratedPDF(ArticleDTO articleDTO)
-    {
-        log.debug("Looking for docs related to article with id: " + articleDTO.getId());
-        List<RelatedDocument> docList = relatedDocumentService.findAllByArticleId(articleDTO.getId());
-        log.debug("Found " + docList.size() + " docs ");
-        for(RelatedDocument doc : docList )
-        {
-            if(doc.getDocName().contains("AutoGenerated PDF: " + articleDTO.getArticleName()))
-            {
-                log.debug("Deleting doc: " + doc.getDocName() );
-                relatedDocumentService.delete(doc.getId());
-            }
-        }
-    }
-
-    private void createContentPDF(Article article)
-    {
-        RelatedDocumentDTO rDTO = new RelatedDocumentDTO();
-        rDTO.setArticleId(article.getId());
-        rDTO.setDocName("AutoGenerated PDF: " + article.getArticleName());
-        PDFServiceImpl pdfService = new PDFServiceImpl();
-        try {
-            rDTO.setDocFile(pdfService.createPDFfromHTML(article.getContent()).toByteArray());
-        } catch (DocumentException | IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
-        }
-        rDTO.setDocFileContentType("application/pdf");
-        relatedDocumentService.save(rDTO);
-    }
-    
-    private void saveArticleTextToSearch(ArticleDTO articleDTO)
-    {
-        Article searchArticle = articleMapper.toEntity(articleDTO);
-        searchArticle.setContent(Jsoup.parse(searchArticle.getContent()).text());
-        articleSearchRepository.save(searchArticle);
-    }
-    
     /**
      * Populate timestamp information for audit and history
      * 
@@ -166,6 +161,28 @@ public class ArticleServiceImpl implements ArticleService {
         return articleMapper.toDto(article);
     }
 
+    /**
+     * Get one article by id, with the summaries of its related documents.
+     * <p>
+     * Published articles are served from the {@link PublishedArticleCache}.
+     *
+     * @param id
+     *            the id of the entity
+     * @return the entity, or null if it does not exist
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ArticleDTO findOneWithDocuments(Long id) {
+        log.debug("Request to get Article with its documents : {}", id);
+        return publishedArticleCache.getArticle(id, () -> {
+            ArticleDTO articleDTO = articleMapper.toDto(articleRepository.findOne(id));
+            if (articleDTO != null) {
+                articleDTO.setDocList(relatedDocumentService.findSummariesByArticleId(id));
+            }
+            return articleDTO;
+        });
+    }
+
     /**
      * Delete the article by id.
      *
@@ -175,29 +192,83 @@ public class ArticleServiceImpl implements ArticleService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete Article : {}", id);
+        ArticleFacet previous = facetOf(articleRepository.findOne(id));
         articleRepository.delete(id);
-        articleSearchRepository.delete(id);
+        searchOutboxService.enqueue(SearchEntityType.ARTICLE, id);
+        applicationEventPublisher.publishEvent(new ArticleChangedEvent(id, previous, null));
     }
 
     /**
-     * Search for the article corresponding to the query.
+     * Search for the articles matching some criteria.
      *
-     * @param query
-     *            the query of the search
+     * @param criteria
+     *            the criteria of the search
      * @param pageable
      *            the pagination information
-     * @return the list of entities
+     * @return the list of entities, with their highlighted fragments
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ArticleSearchResultDTO> search(ArticleSearchCriteria criteria, Pageable pageable) {
+        log.debug("Request to search for a page of Articles for criteria {}", criteria);
+        return articleSearchCache.get(criteria, pageable, () ->
+            articleSearchQueryRepository.search(criteria, pageable).map(this::toSearchResultDto));
+    }
+
+    /**
+     * Search for a page of the articles matching some criteria, after a cursor.
+     * <p>
+     * These pages are not cached: each cursor is only read once by a client paging through the results.
+     *
+     * @param criteria
+     *            the criteria of the search
+     * @param cursor
+     *            the position of the page
+     * @param size
+     *            the size of the page
+     * @param count
+     *            whether the exact number of matching articles must be computed
+     * @return the page of entities, with their highlighted fragments
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ArticleSearchResultDTO> search(ArticleSearchCriteria criteria, SearchCursor cursor, int size,
+            boolean count) {
+        log.debug("Request to search for a page of Articles for criteria {} after {}", criteria, cursor.getLastId());
+        return articleSearchQueryRepository.search(criteria, cursor, size, count).map(this::toSearchResultDto);
+    }
+
+    /**
+     * Suggest the names of the articles starting with a prefix.
+     *
+     * @param prefix
+     *            the beginning of the name
+     * @param size
+     *            the maximum number of names
+     * @return the matching names
      */
     @Override
     @Transactional(readOnly = true)
-    public Page<ArticleDTO> search(String query, Pageable pageable) {
-        log.debug("Request to search for a page of Articles for query {}", query);
-        Page<Article> result = articleSearchRepository.search(queryStringQuery(query), pageable);
-        return result.map(articleMapper::toDto);
+    public List<String> suggest(String prefix, int size) {
+        log.debug("Request to suggest Article names for prefix {}", prefix);
+        return articleSearchQueryRepository.suggest(prefix, size);
+    }
+
+    private static ArticleFacet facetOf(Article article) {
+        // read before the article is overwritten by the save, which loads it anyway to merge the changes
+        return article == null ? null : ArticleFacet.of(article);
+    }
+
+    private ArticleSearchResultDTO toSearchResultDto(Hit hit) {
+        ArticleSearchResultDTO result = articleMapper.toSearchResultDto(hit.getArticle());
+        result.setHighlights(hit.getHighlights());
+        return result;
     }
 
     /**
      * Get all the articles by status
+     * <p>
+     * The first pages of the published articles are served from the {@link PublishedArticleCache}.
      *
      * @param pageable
      *            the pagination information
@@ -207,10 +278,11 @@ public class ArticleServiceImpl implements ArticleService {
     @Transactional(readOnly = true)
     public Page<ArticleDTO> findAllByStatus(ArticleStatus status, Pageable pageable) {
         log.debug("Request to get all Articles");
-        Article article = new Article();
-        article.setStatus(status);
-        Example<Article> example = Example.of(article);
-        return articleRepository.findAll(example, pageable).map(articleMapper::toDto);
+        if (status == ArticleStatus.PUBLISHED) {
+            return publishedArticleCache.getListingPage(pageable,
+                () -> articleRepository.findAllByStatus(status, pageable).map(articleMapper::toDto));
+        }
+        return articleRepository.findAllByStatus(status, pageable).map(articleMapper::toDto);
     }
     
     @Override
@@ -220,26 +292,46 @@ public class ArticleServiceImpl implements ArticleService {
         mailService.sendShareArticleEmail(email, article);
     }
     
+    /**
+     * Get the number of articles by type, status and publish month.
+     *
+     * @return the counts
+     */
     @Override
     @Transactional(readOnly = true)
-    public long getCountByType(ArticleType type)
+    public ArticleFacetsDTO getFacets() {
+        log.debug("Request to get the Article counts");
+        return articleFacetCounter.getFacets();
+    }
+
+    @Override
+    public Optional<RenderStatus> getPdfRenderStatus(Long id)
     {
-        log.debug("Request to get articles by type: " + type.toString());
-        Article article = new Article();
-        article.setType(type);
-        Example<Article> example = Example.of(article);
-        return articleRepository.count(example);
+        return articlePdfRenderService.getStatus(id);
     }
-    
+
+    @Override
+    public String getPdfETag(ArticleDTO articleDTO)
+    {
+        return articlePdfRenderService.getETag(articleDTO.getContent());
+    }
+
     @Override
-    @Transactional(readOnly=true)
-    public long getCountByStatus(ArticleStatus status)
+    public String getPdfETag(RelatedDocumentDTO pdf)
     {
-        log.debug("Request to get articles by status: " + status.toString());
-        Article article = new Article();
-        article.setStatus(status);
-        Example<Article> example = Example.of(article);
-        return articleRepository.count(example);
+        return articlePdfRenderService.getETag(pdf);
     }
 
+    /**
+     * Get the PDF of the "id" article, rendering it if needed.
+     * <p>
+     * No transaction is held while rendering, the render service uses its own ones.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<RelatedDocumentDTO> getPdf(Long id) throws DocumentException, IOException
+    {
+        log.debug("Request to get the PDF of Article : {}", id);
+        return articlePdfRenderService.getRenderedPdf(id);
+    }
 }
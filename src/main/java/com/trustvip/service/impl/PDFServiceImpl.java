@@ -1,57 +1,94 @@
 package com.trustvip.service.impl;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.jsoup.Jsoup;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
 
 import com.itextpdf.text.Document;
 import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.PageSize;
+import com.itextpdf.text.io.RandomAccessSourceFactory;
 import com.itextpdf.text.pdf.PdfCopy;
 import com.itextpdf.text.pdf.PdfReader;
 import com.itextpdf.text.pdf.PdfWriter;
+import com.itextpdf.text.pdf.RandomAccessFileOrArray;
 import com.itextpdf.tool.xml.XMLWorkerHelper;
+import com.trustvip.service.CoverPageTemplate;
+import com.trustvip.service.PDFService;
 
-public class PDFServiceImpl {
-    private ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-    @Async
-    public ByteArrayOutputStream createPDFfromHTML(String HTML)
+/**
+ * Service Implementation for rendering articles as PDF.
+ * <p>
+ * This service holds no per-render state, so a single instance can render several articles concurrently.
+ * The laid out content is spooled to a temporary file and read back page by page while being merged
+ * with the cover page, so the memory used by a render does not grow with the size of the PDF.
+ */
+@Service
+public class PDFServiceImpl implements PDFService {
+
+    private final CoverPageTemplate coverPageTemplate;
+
+    public PDFServiceImpl(CoverPageTemplate coverPageTemplate) {
+        this.coverPageTemplate = coverPageTemplate;
+    }
+
+    @Override
+    public void createPDFfromHTML(String HTML, OutputStream outputStream)
             throws DocumentException, IOException
     {
+        Path content = Files.createTempFile("article-content-", ".pdf");
+        try {
+            writeContent(HTML, content);
+            merge(content, outputStream);
+        } finally {
+            Files.deleteIfExists(content);
+        }
+    }
+
+    @Override
+    public String getTemplateVersion() {
+        return coverPageTemplate.getSnapshot().getVersion();
+    }
+
+    private void writeContent(String HTML, Path content) throws DocumentException, IOException {
         float left = 54;
         float right = 54;
         float top = 54;
         float bottom = 54;
         CharSequence target = "<br>";
         CharSequence replaceWith = " ";
-        Resource resource = new ClassPathResource("CDT.pdf");
-        InputStream resourceInputStream = resource.getInputStream();
-        String HTML2 = HTML.replace(target, replaceWith );
-        Document pdf = new Document(PageSize.A4, left, right, top, bottom);
-        PdfWriter writer = PdfWriter.getInstance(pdf, byteArrayOutputStream);
-        pdf.open();
-        XMLWorkerHelper.getInstance().parseXHtml(writer, pdf,
-                new ByteArrayInputStream(Jsoup.parse(HTML2).toString().getBytes(StandardCharsets.UTF_8)));
-        pdf.close();
-        
-        PdfReader coverPage = new PdfReader(resourceInputStream);
-        PdfReader document = new PdfReader(byteArrayOutputStream.toByteArray());
-        ByteArrayOutputStream newByteArrayOutputStream = new ByteArrayOutputStream();
-        Document doc = new Document();
-        PdfCopy copy = new PdfCopy(doc, newByteArrayOutputStream);
-        doc.open();
-        copy.addDocument(coverPage);
-        copy.addDocument(document);
-        doc.close();
-        coverPage.close();
-        document.close();
-        return newByteArrayOutputStream;
+        String xhtml = Jsoup.parse(HTML.replace(target, replaceWith)).toString();
+        try (OutputStream contentOutputStream = new BufferedOutputStream(Files.newOutputStream(content))) {
+            Document pdf = new Document(PageSize.A4, left, right, top, bottom);
+            PdfWriter writer = PdfWriter.getInstance(pdf, contentOutputStream);
+            pdf.open();
+            XMLWorkerHelper.getInstance().parseXHtml(writer, pdf, new StringReader(xhtml));
+            pdf.close();
+        }
+    }
+
+    private void merge(Path content, OutputStream outputStream) throws DocumentException, IOException {
+        PdfReader coverPage = coverPageTemplate.getSnapshot().openReader();
+        PdfReader document = new PdfReader(
+            new RandomAccessFileOrArray(new RandomAccessSourceFactory().createBestSource(content.toString())), null);
+        try {
+            Document doc = new Document();
+            PdfCopy copy = new PdfCopy(doc, outputStream);
+            // The stream belongs to the caller, which may still have to write to it or flush it
+            copy.setCloseStream(false);
+            doc.open();
+            copy.addDocument(coverPage);
+            copy.addDocument(document);
+            doc.close();
+        } finally {
+            coverPage.close();
+            document.close();
+        }
     }
 }
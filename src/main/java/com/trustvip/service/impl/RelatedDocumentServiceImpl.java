@@ -1,24 +1,49 @@
 package com.trustvip.service.impl;
 
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static com.trustvip.service.util.SearchQueryUtil.boundedQueryString;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import org.elasticsearch.index.query.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Example;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.trustvip.domain.Article;
+import com.google.common.collect.Lists;
 import com.trustvip.domain.RelatedDocument;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.domain.search.RelatedDocumentSearchDocument;
 import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.repository.search.CursorPage;
 import com.trustvip.repository.search.RelatedDocumentSearchRepository;
+import com.trustvip.repository.search.SearchCursor;
+import com.trustvip.service.DocumentTextExtractionService;
 import com.trustvip.service.RelatedDocumentService;
+import com.trustvip.service.SearchOutboxService;
+import com.trustvip.service.StoredPayloadService;
 import com.trustvip.service.dto.RelatedDocumentDTO;
+import com.trustvip.service.dto.RelatedDocumentSummaryDTO;
+import com.trustvip.service.event.RelatedDocumentChangedEvent;
 import com.trustvip.service.mapper.RelatedDocumentMapper;
+import com.trustvip.service.storage.BlobStore;
+import com.trustvip.service.storage.StoredBlob;
 
 /**
  * Service Implementation for managing RelatedDocument.
@@ -27,6 +52,8 @@ import com.trustvip.service.mapper.RelatedDocumentMapper;
 @Transactional
 public class RelatedDocumentServiceImpl implements RelatedDocumentService {
 
+    private static final int ARTICLE_IDS_PER_QUERY = 500;
+
     private final Logger log = LoggerFactory.getLogger(RelatedDocumentServiceImpl.class);
 
     private final RelatedDocumentRepository relatedDocumentRepository;
@@ -35,10 +62,27 @@ public class RelatedDocumentServiceImpl implements RelatedDocumentService {
 
     private final RelatedDocumentSearchRepository relatedDocumentSearchRepository;
 
-    public RelatedDocumentServiceImpl(RelatedDocumentRepository relatedDocumentRepository, RelatedDocumentMapper relatedDocumentMapper, RelatedDocumentSearchRepository relatedDocumentSearchRepository) {
+    private final BlobStore blobStore;
+
+    private final StoredPayloadService storedPayloadService;
+
+    private final SearchOutboxService searchOutboxService;
+
+    private final DocumentTextExtractionService documentTextExtractionService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public RelatedDocumentServiceImpl(RelatedDocumentRepository relatedDocumentRepository, RelatedDocumentMapper relatedDocumentMapper, RelatedDocumentSearchRepository relatedDocumentSearchRepository,
+            BlobStore blobStore, StoredPayloadService storedPayloadService, SearchOutboxService searchOutboxService,
+            DocumentTextExtractionService documentTextExtractionService, ApplicationEventPublisher applicationEventPublisher) {
         this.relatedDocumentRepository = relatedDocumentRepository;
         this.relatedDocumentMapper = relatedDocumentMapper;
         this.relatedDocumentSearchRepository = relatedDocumentSearchRepository;
+        this.blobStore = blobStore;
+        this.storedPayloadService = storedPayloadService;
+        this.searchOutboxService = searchOutboxService;
+        this.documentTextExtractionService = documentTextExtractionService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -49,14 +93,69 @@ public class RelatedDocumentServiceImpl implements RelatedDocumentService {
      */
     @Override
     public RelatedDocumentDTO save(RelatedDocumentDTO relatedDocumentDTO) {
+        byte[] docFile = relatedDocumentDTO.getDocFile();
+        try {
+            return save(relatedDocumentDTO, docFile == null ? null : new ByteArrayInputStream(docFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the payload of RelatedDocument " + relatedDocumentDTO.getDocName(), e);
+        }
+    }
+
+    /**
+     * Save a relatedDocument, streaming its payload to the BlobStore.
+     * <p>
+     * Payloads are shared by all the documents with the same content. The payload replaced by an update is
+     * deleted once the transaction has committed, unless another document still references it. The text of a
+     * new payload is extracted in the background, then indexed with the document.
+     *
+     * @param relatedDocumentDTO the entity to save
+     * @param content the new payload, or null to keep the current one
+     * @return the persisted entity
+     * @throws IOException if the payload could not be stored
+     */
+    @Override
+    public RelatedDocumentDTO save(RelatedDocumentDTO relatedDocumentDTO, InputStream content) throws IOException {
         log.debug("Request to save RelatedDocument : {}", relatedDocumentDTO);
         RelatedDocument relatedDocument = relatedDocumentMapper.toEntity(relatedDocumentDTO);
+        String previousKey = null;
+        Set<Long> articleIds = new HashSet<>();
+        if (relatedDocumentDTO.getId() != null) {
+            RelatedDocument previous = relatedDocumentRepository.findOne(relatedDocumentDTO.getId());
+            if (previous != null) {
+                previousKey = previous.getDocKey();
+                addArticleId(articleIds, previous);
+                relatedDocument.docKey(previous.getDocKey())
+                    .docSize(previous.getDocSize())
+                    .docChecksum(previous.getDocChecksum());
+            }
+        }
+        if (content != null) {
+            StoredBlob blob = storedPayloadService.store(content);
+            relatedDocument.docKey(blob.getKey())
+                .docSize(blob.getSize())
+                .docChecksum(blob.getChecksum());
+        }
         relatedDocument = relatedDocumentRepository.save(relatedDocument);
+        if (content != null) {
+            if (previousKey != null) {
+                // Also release the previous reference when the content did not change, the new one replacing it
+                storedPayloadService.release(previousKey);
+            }
+            documentTextExtractionService.requestExtraction(relatedDocument);
+        }
         RelatedDocumentDTO result = relatedDocumentMapper.toDto(relatedDocument);
-        relatedDocumentSearchRepository.save(relatedDocument);
+        searchOutboxService.enqueue(SearchEntityType.RELATED_DOCUMENT, relatedDocument.getId());
+        addArticleId(articleIds, relatedDocument);
+        applicationEventPublisher.publishEvent(new RelatedDocumentChangedEvent(relatedDocument.getId(), articleIds));
         return result;
     }
 
+    private static void addArticleId(Set<Long> articleIds, RelatedDocument relatedDocument) {
+        if (relatedDocument.getArticle() != null) {
+            articleIds.add(relatedDocument.getArticle().getId());
+        }
+    }
+
     /**
      * Get all the relatedDocuments.
      *
@@ -85,6 +184,24 @@ public class RelatedDocumentServiceImpl implements RelatedDocumentService {
         return relatedDocumentMapper.toDto(relatedDocument);
     }
 
+    /**
+     * Get the payload of the "id" relatedDocument.
+     *
+     * @param id the id of the entity
+     * @return the payload, or empty if the entity does not exist or has no payload
+     * @throws IOException if the payload could not be read
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Resource> getContent(Long id) throws IOException {
+        log.debug("Request to get the content of RelatedDocument : {}", id);
+        RelatedDocument relatedDocument = relatedDocumentRepository.findOne(id);
+        if (relatedDocument == null || relatedDocument.getDocKey() == null) {
+            return Optional.empty();
+        }
+        return Optional.of(blobStore.getResource(relatedDocument.getDocKey()));
+    }
+
     /**
      * Delete the relatedDocument by id.
      *
@@ -93,8 +210,17 @@ public class RelatedDocumentServiceImpl implements RelatedDocumentService {
     @Override
     public void delete(Long id) {
         log.debug("Request to delete RelatedDocument : {}", id);
+        RelatedDocument relatedDocument = relatedDocumentRepository.findOne(id);
         relatedDocumentRepository.delete(id);
-        relatedDocumentSearchRepository.delete(id);
+        searchOutboxService.enqueue(SearchEntityType.RELATED_DOCUMENT, id);
+        if (relatedDocument != null && relatedDocument.getDocKey() != null) {
+            storedPayloadService.release(relatedDocument.getDocKey());
+        }
+        if (relatedDocument != null) {
+            Set<Long> articleIds = new HashSet<>();
+            addArticleId(articleIds, relatedDocument);
+            applicationEventPublisher.publishEvent(new RelatedDocumentChangedEvent(id, articleIds));
+        }
     }
 
     /**
@@ -108,26 +234,76 @@ public class RelatedDocumentServiceImpl implements RelatedDocumentService {
     @Transactional(readOnly = true)
     public Page<RelatedDocumentDTO> search(String query, Pageable pageable) {
         log.debug("Request to search for a page of RelatedDocuments for query {}", query);
-        Page<RelatedDocument> result = relatedDocumentSearchRepository.search(queryStringQuery(query), pageable);
-        return result.map(relatedDocumentMapper::toDto);
+        Page<RelatedDocumentSearchDocument> result = relatedDocumentSearchRepository.search(boundedQueryString(query), pageable);
+        return result.map(relatedDocumentMapper::searchDocumentToDto);
     }
 
     /**
-     * Search for the relatedDocument by article id
+     * Search for a page of the relatedDocuments corresponding to the query, after a cursor.
      *
-     * @param articleId - Id of the article
-     * 
-     * @param pageable the pagination information
+     * @param query the query of the search
+     * @param cursor the position of the page
+     * @param size the size of the page
+     * @param count whether the exact number of matching relatedDocuments must be computed
+     * @return the page of entities
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<RelatedDocumentDTO> search(String query, SearchCursor cursor, int size, boolean count) {
+        log.debug("Request to search for a page of RelatedDocuments for query {} after {}", query, cursor.getLastId());
+        QueryBuilder queryBuilder = boundedQueryString(query);
+        Page<RelatedDocumentSearchDocument> result = relatedDocumentSearchRepository.search(cursor.apply(queryBuilder),
+            cursor.pageRequest(size));
+        Long totalCount = count
+            ? relatedDocumentSearchRepository.search(queryBuilder, new PageRequest(0, 1)).getTotalElements() : null;
+        return cursor.toPage(result.getContent(), size, RelatedDocumentSearchDocument::getId, totalCount)
+            .map(relatedDocumentMapper::searchDocumentToDto);
+    }
+
+    /**
+     * Get the relatedDocuments of an article.
+     *
+     * @param articleId the id of the article
      * @return the list of entities
      */
     @Override
+    @Transactional(readOnly = true)
     public List<RelatedDocument> findAllByArticleId(Long articleId) {
-        RelatedDocument document = new RelatedDocument();
-        Article article = new Article();
-        article.setId(articleId);
-        document.setArticle(article);
-        Example<RelatedDocument> example = Example.of(document);
-        log.debug(example.toString());
-        return relatedDocumentRepository.findAll(example);
+        log.debug("Request to get the RelatedDocuments of Article : {}", articleId);
+        return relatedDocumentRepository.findAllByArticleIdOrderByIdAsc(articleId);
+    }
+
+    /**
+     * Get the metadata of the relatedDocuments of an article, without their payload.
+     *
+     * @param articleId the id of the article
+     * @return the list of document summaries
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<RelatedDocumentSummaryDTO> findSummariesByArticleId(Long articleId) {
+        log.debug("Request to get the RelatedDocument summaries of Article : {}", articleId);
+        return relatedDocumentRepository.findSummariesByArticleId(articleId);
+    }
+
+    /**
+     * Get the metadata of the relatedDocuments of several articles, without their payload.
+     * <p>
+     * The documents are read with one query per {@value #ARTICLE_IDS_PER_QUERY} articles.
+     *
+     * @param articleIds the ids of the articles
+     * @return the list of document summaries of each article, empty for the articles without documents
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<RelatedDocumentSummaryDTO>> findSummariesByArticleIds(Collection<Long> articleIds) {
+        log.debug("Request to get the RelatedDocument summaries of Articles : {}", articleIds);
+        Map<Long, List<RelatedDocumentSummaryDTO>> summaries = new LinkedHashMap<>();
+        articleIds.forEach(articleId -> summaries.put(articleId, new ArrayList<>()));
+        for (List<Long> ids : Lists.partition(new ArrayList<>(summaries.keySet()), ARTICLE_IDS_PER_QUERY)) {
+            relatedDocumentRepository.findSummariesByArticleIdIn(ids)
+                .forEach(summary -> summaries.get(summary.getArticleId()).add(summary));
+        }
+        return summaries;
     }
 }
@@ -1,7 +1,9 @@
 package com.trustvip.service.impl;
 
+import com.trustvip.service.SearchOutboxService;
 import com.trustvip.service.TaskOwnerService;
 import com.trustvip.domain.TaskOwner;
+import com.trustvip.domain.enumeration.SearchEntityType;
 import com.trustvip.repository.TaskOwnerRepository;
 import com.trustvip.repository.search.TaskOwnerSearchRepository;
 import com.trustvip.service.dto.TaskOwnerDTO;
@@ -14,7 +16,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import static com.trustvip.service.util.SearchQueryUtil.boundedQueryString;
 
 /**
  * Service Implementation for managing TaskOwner.
@@ -31,10 +33,14 @@ public class TaskOwnerServiceImpl implements TaskOwnerService {
 
     private final TaskOwnerSearchRepository taskOwnerSearchRepository;
 
-    public TaskOwnerServiceImpl(TaskOwnerRepository taskOwnerRepository, TaskOwnerMapper taskOwnerMapper, TaskOwnerSearchRepository taskOwnerSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    public TaskOwnerServiceImpl(TaskOwnerRepository taskOwnerRepository, TaskOwnerMapper taskOwnerMapper, TaskOwnerSearchRepository taskOwnerSearchRepository,
+            SearchOutboxService searchOutboxService) {
         this.taskOwnerRepository = taskOwnerRepository;
         this.taskOwnerMapper = taskOwnerMapper;
         this.taskOwnerSearchRepository = taskOwnerSearchRepository;
+        this.searchOutboxService = searchOutboxService;
     }
 
     /**
@@ -49,7 +55,7 @@ public class TaskOwnerServiceImpl implements TaskOwnerService {
         TaskOwner taskOwner = taskOwnerMapper.toEntity(taskOwnerDTO);
         taskOwner = taskOwnerRepository.save(taskOwner);
         TaskOwnerDTO result = taskOwnerMapper.toDto(taskOwner);
-        taskOwnerSearchRepository.save(taskOwner);
+        searchOutboxService.enqueue(SearchEntityType.TASK_OWNER, taskOwner.getId());
         return result;
     }
 
@@ -90,7 +96,7 @@ public class TaskOwnerServiceImpl implements TaskOwnerService {
     public void delete(Long id) {
         log.debug("Request to delete TaskOwner : {}", id);
         taskOwnerRepository.delete(id);
-        taskOwnerSearchRepository.delete(id);
+        searchOutboxService.enqueue(SearchEntityType.TASK_OWNER, id);
     }
 
     /**
@@ -104,7 +110,7 @@ public class TaskOwnerServiceImpl implements TaskOwnerService {
     @Transactional(readOnly = true)
     public Page<TaskOwnerDTO> search(String query, Pageable pageable) {
         log.debug("Request to search for a page of TaskOwners for query {}", query);
-        Page<TaskOwner> result = taskOwnerSearchRepository.search(queryStringQuery(query), pageable);
+        Page<TaskOwner> result = taskOwnerSearchRepository.search(boundedQueryString(query), pageable);
         return result.map(taskOwnerMapper::toDto);
     }
 }
@@ -1,19 +1,24 @@
 package com.trustvip.service.impl;
 
-import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static com.trustvip.service.util.SearchQueryUtil.boundedQueryString;
 
+import org.elasticsearch.index.query.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Example;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.trustvip.domain.Task;
+import com.trustvip.domain.enumeration.SearchEntityType;
 import com.trustvip.domain.enumeration.TaskStatus;
 import com.trustvip.repository.TaskRepository;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.repository.search.TaskSearchRepository;
+import com.trustvip.service.SearchOutboxService;
 import com.trustvip.service.TaskService;
 import com.trustvip.service.dto.TaskDTO;
 import com.trustvip.service.mapper.TaskMapper;
@@ -33,10 +38,14 @@ public class TaskServiceImpl implements TaskService {
 
     private final TaskSearchRepository taskSearchRepository;
 
-    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, TaskSearchRepository taskSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    public TaskServiceImpl(TaskRepository taskRepository, TaskMapper taskMapper, TaskSearchRepository taskSearchRepository,
+            SearchOutboxService searchOutboxService) {
         this.taskRepository = taskRepository;
         this.taskMapper = taskMapper;
         this.taskSearchRepository = taskSearchRepository;
+        this.searchOutboxService = searchOutboxService;
     }
 
     /**
@@ -51,7 +60,7 @@ public class TaskServiceImpl implements TaskService {
         Task task = taskMapper.toEntity(taskDTO);
         task = taskRepository.save(task);
         TaskDTO result = taskMapper.toDto(task);
-        taskSearchRepository.save(task);
+        searchOutboxService.enqueue(SearchEntityType.TASK, task.getId());
         return result;
     }
 
@@ -92,7 +101,7 @@ public class TaskServiceImpl implements TaskService {
     public void delete(Long id) {
         log.debug("Request to delete Task : {}", id);
         taskRepository.delete(id);
-        taskSearchRepository.delete(id);
+        searchOutboxService.enqueue(SearchEntityType.TASK, id);
     }
 
     /**
@@ -106,9 +115,28 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public Page<TaskDTO> search(String query, Pageable pageable) {
         log.debug("Request to search for a page of Tasks for query {}", query);
-        Page<Task> result = taskSearchRepository.search(queryStringQuery(query), pageable);
+        Page<Task> result = taskSearchRepository.search(boundedQueryString(query), pageable);
         return result.map(taskMapper::toDto);
     }
+
+    /**
+     * Search for a page of the tasks corresponding to the query, after a cursor.
+     *
+     * @param query the query of the search
+     * @param cursor the position of the page
+     * @param size the size of the page
+     * @param count whether the exact number of matching tasks must be computed
+     * @return the page of entities
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDTO> search(String query, SearchCursor cursor, int size, boolean count) {
+        log.debug("Request to search for a page of Tasks for query {} after {}", query, cursor.getLastId());
+        QueryBuilder queryBuilder = boundedQueryString(query);
+        Page<Task> result = taskSearchRepository.search(cursor.apply(queryBuilder), cursor.pageRequest(size));
+        Long totalCount = count ? taskSearchRepository.search(queryBuilder, new PageRequest(0, 1)).getTotalElements() : null;
+        return cursor.toPage(result.getContent(), size, Task::getId, totalCount).map(taskMapper::toDto);
+    }
     
     /**
      * Get all the articles by status
@@ -121,9 +149,6 @@ public class TaskServiceImpl implements TaskService {
     @Transactional(readOnly = true)
     public Page<TaskDTO> findAllByStatus(TaskStatus status, Pageable pageable) {
         log.debug("Request to get tasks by status:" + status);
-        Task task = new Task();
-        task.setStatus(status);
-        Example<Task> example = Example.of(task);
-        return taskRepository.findAll(example, pageable).map(taskMapper::toDto);
+        return taskRepository.findAllByStatus(status, pageable).map(taskMapper::toDto);
     }
 }
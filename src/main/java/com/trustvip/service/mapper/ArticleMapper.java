@@ -2,6 +2,7 @@ package com.trustvip.service.mapper;
 
 import com.trustvip.domain.*;
 import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.dto.ArticleSearchResultDTO;
 
 import org.mapstruct.*;
 
@@ -10,6 +11,13 @@ import org.mapstruct.*;
  */
 @Mapper(componentModel = "spring", uses = {})
 public interface ArticleMapper extends EntityMapper<ArticleDTO, Article> {
+
+    // Named, so it is never picked instead of toDto when mapping lists of articles
+    @Named("toSearchResultDto")
+    @Mapping(target = "docList", ignore = true)
+    @Mapping(target = "highlights", ignore = true)
+    ArticleSearchResultDTO toSearchResultDto(Article article);
+
     default Article fromId(Long id) {
         if (id == null) {
             return null;
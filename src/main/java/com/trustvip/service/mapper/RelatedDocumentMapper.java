@@ -1,6 +1,7 @@
 package com.trustvip.service.mapper;
 
 import com.trustvip.domain.*;
+import com.trustvip.domain.search.RelatedDocumentSearchDocument;
 import com.trustvip.service.dto.RelatedDocumentDTO;
 
 import org.mapstruct.*;
@@ -13,11 +14,25 @@ public interface RelatedDocumentMapper extends EntityMapper<RelatedDocumentDTO,
 
     @Mapping(source = "article.id", target = "articleId")
     @Mapping(source = "article.articleName", target = "articleArticleName")
+    @Mapping(target = "docFile", ignore = true)
     RelatedDocumentDTO toDto(RelatedDocument relatedDocument);
 
     @Mapping(source = "articleId", target = "article")
+    @Mapping(target = "docKey", ignore = true)
+    @Mapping(target = "docSize", ignore = true)
+    @Mapping(target = "docChecksum", ignore = true)
     RelatedDocument toEntity(RelatedDocumentDTO relatedDocumentDTO);
 
+    @Mapping(source = "article.id", target = "articleId")
+    @Mapping(source = "article.articleName", target = "articleName")
+    @Mapping(target = "content", ignore = true)
+    RelatedDocumentSearchDocument toSearchDocument(RelatedDocument relatedDocument);
+
+    @Mapping(source = "articleName", target = "articleArticleName")
+    @Mapping(target = "docFile", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
+    RelatedDocumentDTO searchDocumentToDto(RelatedDocumentSearchDocument relatedDocumentSearchDocument);
+
     default RelatedDocument fromId(Long id) {
         if (id == null) {
             return null;
@@ -0,0 +1,79 @@
+package com.trustvip.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Storage of the binary payloads of the related documents.
+ * <p>
+ * Payloads are content-addressed: storing the same bytes twice returns the same key, and the entities only
+ * keep that key along with the size and checksum of the payload.
+ */
+public interface BlobStore {
+
+    /**
+     * Copy a payload to a temporary file, computing its size and checksum, so its key is known before it is stored.
+     *
+     * @param content the payload, which is read to the end but not closed
+     * @return the staged payload, to be closed by the caller
+     * @throws IOException if the payload could not be read or written
+     */
+    StagedBlob stage(InputStream content) throws IOException;
+
+    /**
+     * Store a staged payload under its key, unless a payload is already stored under this key.
+     *
+     * @param staged the staged payload
+     * @throws IOException if the payload could not be written
+     */
+    void store(StagedBlob staged) throws IOException;
+
+    /**
+     * Store a payload, computing its size and checksum while it is copied.
+     *
+     * @param content the payload, which is read to the end but not closed
+     * @return the key, size and checksum of the stored payload
+     * @throws IOException if the payload could not be read or written
+     */
+    default StoredBlob store(InputStream content) throws IOException {
+        try (StagedBlob staged = stage(content)) {
+            store(staged);
+            return staged.getBlob();
+        }
+    }
+
+    /**
+     * Get a stored payload, to be streamed by the caller.
+     *
+     * @param key the key of the payload
+     * @return the payload
+     * @throws IOException if the payload does not exist or could not be read
+     */
+    Resource getResource(String key) throws IOException;
+
+    /**
+     * Delete a stored payload. Callers must make sure no document references it anymore.
+     *
+     * @param key the key of the payload
+     * @throws IOException if the payload could not be deleted
+     */
+    void delete(String key) throws IOException;
+
+    /**
+     * List the keys of the payloads stored before a given time, to find the payloads no document references.
+     * <p>
+     * Stores writing the payloads in the transaction referencing them never leave such payloads behind, and
+     * return no key.
+     *
+     * @param time the time before which the payloads were stored
+     * @return the keys, in a stream to be closed by the caller
+     * @throws IOException if the payloads could not be listed
+     */
+    default Stream<String> findKeysStoredBefore(Instant time) throws IOException {
+        return Stream.empty();
+    }
+}
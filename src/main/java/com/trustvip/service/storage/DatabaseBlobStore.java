@@ -0,0 +1,84 @@
+package com.trustvip.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.trustvip.service.util.ChecksumUtil;
+
+/**
+ * {@link BlobStore} keeping the payloads in the "blob_payload" table, for deployments without a persistent
+ * filesystem (such as Heroku dynos).
+ * <p>
+ * Payloads are spooled to a temporary file to compute their checksum, then streamed to the database. Reads load
+ * one payload in memory, as most JDBC drivers do not stream BLOB columns.
+ */
+public class DatabaseBlobStore implements BlobStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseBlobStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        Path temporaryFile = Files.createTempFile("blob-", ".tmp");
+        try {
+            MessageDigest digest = ChecksumUtil.newDigest();
+            long size = Files.copy(new DigestInputStream(content, digest), temporaryFile,
+                StandardCopyOption.REPLACE_EXISTING);
+            String checksum = ChecksumUtil.toHex(digest.digest());
+            return new StagedBlob(temporaryFile, new StoredBlob(checksum, size, checksum));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public void store(StagedBlob staged) throws IOException {
+        String key = staged.getBlob().getKey();
+        long size = staged.getBlob().getSize();
+        Integer existing = jdbcTemplate.queryForObject(
+            "select count(*) from blob_payload where blob_key = ?", Integer.class, key);
+        if (existing == 0) {
+            try (InputStream payload = Files.newInputStream(staged.getTemporaryFile())) {
+                jdbcTemplate.update("insert into blob_payload (blob_key, content_size, content) values (?, ?, ?)",
+                    ps -> {
+                        ps.setString(1, key);
+                        ps.setLong(2, size);
+                        ps.setBinaryStream(3, payload, size);
+                    });
+            } catch (DuplicateKeyException e) {
+                // stored concurrently, the content is the same
+            }
+        }
+    }
+
+    @Override
+    public Resource getResource(String key) throws IOException {
+        try {
+            return new ByteArrayResource(jdbcTemplate.queryForObject(
+                "select content from blob_payload where blob_key = ?", byte[].class, key));
+        } catch (EmptyResultDataAccessException e) {
+            throw new NoSuchFileException(key);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        jdbcTemplate.update("delete from blob_payload where blob_key = ?", key);
+    }
+}
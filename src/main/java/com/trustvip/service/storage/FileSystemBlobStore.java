@@ -0,0 +1,104 @@
+package com.trustvip.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.trustvip.service.util.ChecksumUtil;
+
+/**
+ * {@link BlobStore} keeping the payloads as files on the local filesystem.
+ * <p>
+ * Each payload is stored under its SHA-256 checksum, split in two directory levels ("ab/cd/abcd...") so that no
+ * directory grows too large. Payloads are first written to a temporary file and then moved atomically to their
+ * final path, so a payload file is always complete. Files written by transactions which rolled back are listed by
+ * {@link #findKeysStoredBefore(Instant)}, to be swept.
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final Logger log = LoggerFactory.getLogger(FileSystemBlobStore.class);
+
+    private final Path root;
+
+    private final Path temporaryDirectory;
+
+    public FileSystemBlobStore(Path root) throws IOException {
+        this.root = root.toAbsolutePath();
+        this.temporaryDirectory = Files.createDirectories(this.root.resolve("tmp"));
+        log.info("Storing the document payloads in {}", this.root);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content) throws IOException {
+        Path temporaryFile = Files.createTempFile(temporaryDirectory, "blob-", ".tmp");
+        try {
+            MessageDigest digest = ChecksumUtil.newDigest();
+            long size = Files.copy(new DigestInputStream(content, digest), temporaryFile,
+                StandardCopyOption.REPLACE_EXISTING);
+            String checksum = ChecksumUtil.toHex(digest.digest());
+            return new StagedBlob(temporaryFile, new StoredBlob(checksum, size, checksum));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public void store(StagedBlob staged) throws IOException {
+        String key = staged.getBlob().getKey();
+        Path path = resolve(key);
+        if (!Files.exists(path)) {
+            Files.createDirectories(path.getParent());
+            try {
+                Files.move(staged.getTemporaryFile(), path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                log.debug("Payload {} was stored concurrently", key);
+            }
+        }
+    }
+
+    @Override
+    public Resource getResource(String key) throws IOException {
+        Path path = resolve(key);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return new FileSystemResource(path.toFile());
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public Stream<String> findKeysStoredBefore(Instant time) throws IOException {
+        return Files.find(root, 3, (path, attributes) -> attributes.isRegularFile()
+                && attributes.lastModifiedTime().toInstant().isBefore(time)
+                && KEY_PATTERN.matcher(path.getFileName().toString()).matches())
+            .map(path -> path.getFileName().toString());
+    }
+
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid payload key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
@@ -0,0 +1,36 @@
+package com.trustvip.service.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Payload copied to a temporary file by {@link BlobStore#stage}, whose key is known but which is not stored yet.
+ * <p>
+ * Closing it deletes the temporary file.
+ */
+public final class StagedBlob implements Closeable {
+
+    private final Path temporaryFile;
+
+    private final StoredBlob blob;
+
+    public StagedBlob(Path temporaryFile, StoredBlob blob) {
+        this.temporaryFile = temporaryFile;
+        this.blob = blob;
+    }
+
+    public Path getTemporaryFile() {
+        return temporaryFile;
+    }
+
+    public StoredBlob getBlob() {
+        return blob;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(temporaryFile);
+    }
+}
@@ -0,0 +1,42 @@
+package com.trustvip.service.storage;
+
+/**
+ * Reference to a payload stored in a {@link BlobStore}.
+ */
+public final class StoredBlob {
+
+    private final String key;
+
+    private final long size;
+
+    private final String checksum;
+
+    public StoredBlob(String key, long size, String checksum) {
+        this.key = key;
+        this.size = size;
+        this.checksum = checksum;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the hexadecimal SHA-256 checksum of the payload
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    @Override
+    public String toString() {
+        return "StoredBlob{" +
+            "key='" + key + "'" +
+            ", size=" + size +
+            "}";
+    }
+}
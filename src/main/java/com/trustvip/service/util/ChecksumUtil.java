@@ -0,0 +1,72 @@
+package com.trustvip.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility class for computing SHA-256 checksums of contents.
+ */
+public final class ChecksumUtil {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ChecksumUtil() {
+    }
+
+    /**
+     * Create a new SHA-256 digest, for contents which are hashed incrementally.
+     *
+     * @return the digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available on this JVM", e);
+        }
+    }
+
+    /**
+     * Compute the checksum of binary content.
+     *
+     * @param content the content to hash
+     * @return the hexadecimal checksum
+     */
+    public static String checksum(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    /**
+     * Compute the checksum of several strings. Each part is terminated before hashing the next one,
+     * so that ("ab", "c") and ("a", "bc") have different checksums.
+     *
+     * @param parts the strings to hash, null being hashed as an empty string
+     * @return the hexadecimal checksum
+     */
+    public static String checksum(String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            if (part != null) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Format a digest as a lowercase hexadecimal string.
+     *
+     * @param bytes the digest
+     * @return the hexadecimal string
+     */
+    public static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,30 @@
+package com.trustvip.service.util;
+
+import org.elasticsearch.index.query.QueryStringQueryBuilder;
+
+import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+
+/**
+ * Utility class for building the Elasticsearch queries of the search endpoints.
+ */
+public final class SearchQueryUtil {
+
+    private SearchQueryUtil() {
+    }
+
+    /**
+     * Build a "query_string" query which cannot bog down the cluster.
+     * <p>
+     * Leading wildcards, which scan every term of the index, are rejected, wildcards are not analyzed, and
+     * values which do not fit the type of a field are ignored instead of failing the whole search.
+     *
+     * @param query the query typed by the user
+     * @return the query
+     */
+    public static QueryStringQueryBuilder boundedQueryString(String query) {
+        return queryStringQuery(query)
+            .allowLeadingWildcard(false)
+            .analyzeWildcard(false)
+            .lenient(true);
+    }
+}
@@ -1,5 +1,6 @@
 package com.trustvip.web.rest;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
@@ -8,14 +9,19 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 //import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -29,19 +35,30 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.codahale.metrics.annotation.Timed;
+import com.itextpdf.text.DocumentException;
 import com.trustvip.domain.enumeration.ArticleStatus;
 import com.trustvip.domain.enumeration.ArticleType;
 import com.trustvip.domain.enumeration.TaskStatus;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.security.AuthoritiesConstants;
+import com.trustvip.service.ArticlePdfRenderService.RenderStatus;
 import com.trustvip.service.ArticleService;
 import com.trustvip.service.RelatedDocumentService;
 import com.trustvip.service.TaskService;
 import com.trustvip.service.UserService;
 import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.dto.ArticleFacetsDTO;
+import com.trustvip.service.dto.ArticleSearchCriteria;
+import com.trustvip.service.dto.ArticleSearchResultDTO;
+import com.trustvip.service.dto.RelatedDocumentDTO;
 import com.trustvip.service.dto.TaskDTO;
 import com.trustvip.web.rest.errors.BadRequestAlertException;
+import com.trustvip.web.rest.util.DownloadUtil;
 import com.trustvip.web.rest.util.HeaderUtil;
 import com.trustvip.web.rest.util.PaginationUtil;
 
@@ -58,6 +75,8 @@ public class ArticleResource {
 
     private static final String ENTITY_NAME = "article";
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final ArticleService articleService;
     private final RelatedDocumentService documentService;
     private final TaskService taskService;
@@ -144,9 +163,8 @@ public class ArticleResource {
         Collection<SimpleGrantedAuthority> authorities = (Collection<SimpleGrantedAuthority>) SecurityContextHolder
                 .getContext().getAuthentication().getAuthorities();
         // by default, only published articles are accessible
-        Page<ArticleDTO> page = articleService.findAllByStatus(ArticleStatus.PUBLISHED, pageable);
+        Page<ArticleDTO> page = null;
         for (SimpleGrantedAuthority authority : authorities) {
-            System.out.println(authority.getAuthority());
             // admins can see everything
             if (authority.getAuthority().equals(AuthoritiesConstants.ADMIN)) {
                 page = articleService.findAll(pageable);
@@ -156,10 +174,12 @@ public class ArticleResource {
             else if (authority.getAuthority().equals(AuthoritiesConstants.REVIEWER)
                     || authority.getAuthority().equals(AuthoritiesConstants.AUTHOR)) {
                 page = articleService.findAllByStatus(ArticleStatus.DRAFT, pageable);
-                ;
                 break;
             }
         }
+        if (page == null) {
+            page = articleService.findAllByStatus(ArticleStatus.PUBLISHED, pageable);
+        }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/articles");
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
@@ -176,12 +196,71 @@ public class ArticleResource {
     @Timed
     public ResponseEntity<ArticleDTO> getArticle(@PathVariable Long id) {
         log.debug("REST request to get Article : {}", id);
-        ArticleDTO articleDTO = articleService.findOne(id);
+        ArticleDTO articleDTO = articleService.findOneWithDocuments(id);
+        return ResponseUtil.wrapOrNotFound(Optional.ofNullable(articleDTO));
+    }
 
-        articleDTO.setDocList(documentService.findAllByArticleId(articleDTO.getId()));
-        log.debug("DOCLIST: " + articleDTO.getDocList().toString());
+    /**
+     * GET /articles/:id/pdf/status : get the render status of the "id" article PDF.
+     *
+     * @param id
+     *            the id of the article
+     * @return the ResponseEntity with status 200 (OK) and with body the render status,
+     *         or with status 404 (Not Found) if no render was requested
+     */
+    @GetMapping("/articles/{id}/pdf/status")
+    @Timed
+    public ResponseEntity<RenderStatus> getArticlePdfStatus(@PathVariable Long id) {
+        log.debug("REST request to get the PDF render status of Article : {}", id);
+        return ResponseUtil.wrapOrNotFound(articleService.getPdfRenderStatus(id));
+    }
 
-        return ResponseUtil.wrapOrNotFound(Optional.ofNullable(articleDTO));
+    /**
+     * GET /articles/:id/pdf : get the PDF of the "id" article, rendering it on the first request.
+     * <p>
+     * The response carries an ETag derived from the content the PDF was rendered from, so clients sending it
+     * back in If-None-Match get a 304 (Not Modified) without the PDF being loaded while the content is unchanged. Viewers can
+     * fetch parts of the PDF with "Range" requests.
+     *
+     * @param id
+     *            the id of the article
+     * @param request
+     *            the current request
+     * @param response
+     *            the current response, the PDF being written directly to it
+     * @return the ResponseEntity with status 304 (Not Modified) or 404 (Not Found), or null once the PDF is
+     *         written with status 200 (OK) or 206 (Partial Content)
+     * @throws DocumentException
+     *             if the article content could not be laid out
+     * @throws IOException
+     *             if the PDF could not be written
+     */
+    @GetMapping("/articles/{id}/pdf")
+    @Timed
+    public ResponseEntity<Void> getArticlePdf(@PathVariable Long id, HttpServletRequest request,
+            HttpServletResponse response) throws DocumentException, IOException {
+        log.debug("REST request to get the PDF of Article : {}", id);
+        ArticleDTO articleDTO = articleService.findOne(id);
+        if (articleDTO == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String currentETag = articleService.getPdfETag(articleDTO);
+        if (new ServletWebRequest(request, response).checkNotModified(currentETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(currentETag).build();
+        }
+        Optional<RelatedDocumentDTO> pdf = articleService.getPdf(id);
+        Optional<Resource> content = pdf.isPresent() ? documentService.getContent(pdf.get().getId()) : Optional.empty();
+        if (!content.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        // The article may have changed since it was read, so the tag is the one of the content actually rendered
+        String eTag = articleService.getPdfETag(pdf.get());
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"article-" + id + ".pdf\"");
+        DownloadUtil.writeContent(request, response, content.get(), pdf.get().getDocSize(), eTag);
+        return null;
     }
 
     /**
@@ -200,24 +279,84 @@ public class ArticleResource {
     }
 
     /**
-     * SEARCH /_search/articles?query=:query : search for the article corresponding
-     * to the query.
+     * SEARCH /_search/articles?query=:query&type=:type&status=:status&publishedFrom=:from&publishedTo=:to :
+     * search for the articles matching the criteria.
+     * <p>
+     * The query is plain text matched against the name and the content of the articles, the other
+     * parameters are optional exact filters.
+     * <p>
+     * With a "cursor" parameter (empty for the first page), the results are read by id and the "next" link
+     * carries the cursor of the following page, the total only being counted when "count" is true.
      *
-     * @param query
-     *            the query of the article search
+     * @param criteria
+     *            the criteria of the article search
+     * @param cursor
+     *            the cursor of the page, to page through the results by id
+     * @param count
+     *            whether the total of the cursor pages must be counted
      * @param pageable
      *            the pagination information
-     * @return the result of the search
+     * @return the result of the search, with the highlighted fragments of each article
      */
     @GetMapping("/_search/articles")
     @Timed
-    public ResponseEntity<List<ArticleDTO>> searchArticles(@RequestParam String query, Pageable pageable) {
-        log.debug("REST request to search for a page of Articles for query {}", query);
-        Page<ArticleDTO> page = articleService.search(query, pageable);
-        HttpHeaders headers = PaginationUtil.generateSearchPaginationHttpHeaders(query, page, "/api/_search/articles");
+    public ResponseEntity<List<ArticleSearchResultDTO>> searchArticles(ArticleSearchCriteria criteria,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "false") boolean count,
+            Pageable pageable) {
+        log.debug("REST request to search for a page of Articles for criteria {}", criteria);
+        String baseUrl = searchBaseUrl(criteria);
+        if (cursor != null) {
+            SearchCursor searchCursor = PaginationUtil.parseCursor(cursor, pageable.getSort(), ENTITY_NAME);
+            CursorPage<ArticleSearchResultDTO> page = articleService.search(criteria, searchCursor,
+                pageable.getPageSize(), count);
+            HttpHeaders headers = PaginationUtil.generateCursorPaginationHttpHeaders(
+                criteria.getQuery() == null ? "" : criteria.getQuery(), page, pageable.getPageSize(), baseUrl);
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        Page<ArticleSearchResultDTO> page = articleService.search(criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generateSearchPaginationHttpHeaders(
+            criteria.getQuery() == null ? "" : criteria.getQuery(), page, baseUrl);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * GET /_suggest/articles?query=:prefix&size=:size : suggest the names of the articles starting with a prefix,
+     * for type-ahead in the search box.
+     *
+     * @param query
+     *            the beginning of the name, as typed
+     * @param size
+     *            the maximum number of names, up to 20
+     * @return the ResponseEntity with status 200 (OK) and the list of matching names in body
+     */
+    @GetMapping("/_suggest/articles")
+    @Timed
+    public ResponseEntity<List<String>> suggestArticles(@RequestParam String query,
+            @RequestParam(defaultValue = "10") int size) {
+        log.debug("REST request to suggest Article names for {}", query);
+        if (query.trim().isEmpty() || size < 1) {
+            return ResponseEntity.ok(new ArrayList<>());
+        }
+        return ResponseEntity.ok(articleService.suggest(query, Math.min(size, MAX_SUGGESTIONS)));
+    }
+
+    private String searchBaseUrl(ArticleSearchCriteria criteria) {
+        UriComponentsBuilder baseUrl = UriComponentsBuilder.fromUriString("/api/_search/articles");
+        if (criteria.getType() != null) {
+            baseUrl.queryParam("type", criteria.getType());
+        }
+        if (criteria.getStatus() != null) {
+            baseUrl.queryParam("status", criteria.getStatus());
+        }
+        if (criteria.getPublishedFrom() != null) {
+            baseUrl.queryParam("publishedFrom", criteria.getPublishedFrom());
+        }
+        if (criteria.getPublishedTo() != null) {
+            baseUrl.queryParam("publishedTo", criteria.getPublishedTo());
+        }
+        return baseUrl.toUriString();
+    }
+
 
     /**
      * POST /articles : Create a new article.
@@ -263,13 +402,9 @@ public class ArticleResource {
     }
     
     /**
-     * POST /articles : Create a new article.
+     * GET /data/pie : get the number of articles of each type, in the order of the labels.
      *
-     * @param articleDTO
-     *            the articleDTO to create
-     * @return the ResponseEntity with status 201 (Created) and with body the new
-     *         articleDTO, or with status 400 (Bad Request) if the article has
-     *         already an ID
+     * @return the ResponseEntity with status 200 (OK) and the counts in body
      * @throws URISyntaxException
      *             if the Location URI syntax is incorrect
      */
@@ -277,10 +412,11 @@ public class ArticleResource {
     @Timed
     public ResponseEntity<List<Long>> getPieChartTypeData()
             throws URISyntaxException {
+        ArticleFacetsDTO facets = articleService.getFacets();
         List<Long> data = new ArrayList<Long>();
-        data.add(articleService.getCountByType(ArticleType.CONTENT));
-        data.add(articleService.getCountByType(ArticleType.JOBAID));
-        data.add(articleService.getCountByType(ArticleType.PACKAGE));
+        data.add(facets.getTypes().get(ArticleType.CONTENT));
+        data.add(facets.getTypes().get(ArticleType.JOBAID));
+        data.add(facets.getTypes().get(ArticleType.PACKAGE));
         return ResponseUtil.wrapOrNotFound(Optional.ofNullable(data));
     }
     
@@ -306,13 +442,9 @@ public class ArticleResource {
     }
     
     /**
-     * POST /articles : Create a new article.
+     * GET /data/pie/status : get the number of articles of each status, in the order of the labels.
      *
-     * @param articleDTO
-     *            the articleDTO to create
-     * @return the ResponseEntity with status 201 (Created) and with body the new
-     *         articleDTO, or with status 400 (Bad Request) if the article has
-     *         already an ID
+     * @return the ResponseEntity with status 200 (OK) and the counts in body
      * @throws URISyntaxException
      *             if the Location URI syntax is incorrect
      */
@@ -320,11 +452,25 @@ public class ArticleResource {
     @Timed
     public ResponseEntity<List<Long>> getPieChartTypeDataByStatus()
             throws URISyntaxException {
+        ArticleFacetsDTO facets = articleService.getFacets();
         List<Long> data = new ArrayList<Long>();
-        data.add(articleService.getCountByStatus(ArticleStatus.DRAFT));
-        data.add(articleService.getCountByStatus(ArticleStatus.PUBLISHED));
+        data.add(facets.getStatuses().get(ArticleStatus.DRAFT));
+        data.add(facets.getStatuses().get(ArticleStatus.PUBLISHED));
         return ResponseUtil.wrapOrNotFound(Optional.ofNullable(data));
     }
+
+    /**
+     * GET /_facets/articles : get the number of articles by type, by status and by publish month, for the
+     * dashboard.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the counts in body
+     */
+    @GetMapping("/_facets/articles")
+    @Timed
+    public ResponseEntity<ArticleFacetsDTO> getArticleFacets() {
+        log.debug("REST request to get the Article counts");
+        return ResponseEntity.ok(articleService.getFacets());
+    }
     
     private void createTask(ArticleDTO article)
     {
@@ -0,0 +1,48 @@
+package com.trustvip.web.rest;
+
+import com.trustvip.service.CoverPageTemplate;
+import com.trustvip.web.rest.vm.CoverPageTemplateVM;
+
+import com.codahale.metrics.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Controller for viewing and reloading the cover page template of the article PDFs at runtime.
+ */
+@RestController
+@RequestMapping("/management")
+public class CoverPageTemplateResource {
+
+    private final Logger log = LoggerFactory.getLogger(CoverPageTemplateResource.class);
+
+    private final CoverPageTemplate coverPageTemplate;
+
+    public CoverPageTemplateResource(CoverPageTemplate coverPageTemplate) {
+        this.coverPageTemplate = coverPageTemplate;
+    }
+
+    @GetMapping("/pdf/cover-template")
+    @Timed
+    public CoverPageTemplateVM getCoverPageTemplate() {
+        return new CoverPageTemplateVM(coverPageTemplate.getSnapshot());
+    }
+
+    /**
+     * POST  /pdf/cover-template/reload : reload the cover page template from its configured location.
+     * <p>
+     * The PDFs rendered with the previous template are rendered again on the next save of their article.
+     *
+     * @return the loaded template
+     * @throws IOException if the template could not be read, in which case the previous one is kept
+     */
+    @PostMapping("/pdf/cover-template/reload")
+    @Timed
+    public CoverPageTemplateVM reloadCoverPageTemplate() throws IOException {
+        log.debug("REST request to reload the PDF cover page template");
+        return new CoverPageTemplateVM(coverPageTemplate.reload());
+    }
+}
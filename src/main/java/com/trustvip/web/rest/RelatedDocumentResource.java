@@ -1,27 +1,43 @@
 package com.trustvip.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.service.RelatedDocumentService;
 import com.trustvip.web.rest.errors.BadRequestAlertException;
+import com.trustvip.web.rest.errors.PayloadTooLargeException;
+import com.trustvip.web.rest.util.DownloadUtil;
 import com.trustvip.web.rest.util.HeaderUtil;
 import com.trustvip.web.rest.util.PaginationUtil;
 import com.trustvip.service.dto.RelatedDocumentDTO;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.StreamSupport;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
@@ -39,8 +55,14 @@ public class RelatedDocumentResource {
 
     private final RelatedDocumentService relatedDocumentService;
 
-    public RelatedDocumentResource(RelatedDocumentService relatedDocumentService) {
+    private final ApplicationProperties.Storage storageProperties;
+
+    private final Semaphore uploadPermits;
+
+    public RelatedDocumentResource(RelatedDocumentService relatedDocumentService, ApplicationProperties applicationProperties) {
         this.relatedDocumentService = relatedDocumentService;
+        this.storageProperties = applicationProperties.getStorage();
+        this.uploadPermits = new Semaphore(storageProperties.getMaxConcurrentUploads(), true);
     }
 
     /**
@@ -63,6 +85,65 @@ public class RelatedDocumentResource {
             .body(result);
     }
 
+    /**
+     * POST  /related-documents/upload : Upload the payload of a new or existing relatedDocument as multipart/form-data.
+     * <p>
+     * The payload is streamed to the blob store while its size and checksum are computed. At most
+     * "application.storage.max-concurrent-uploads" uploads are stored at the same time; further uploads wait for
+     * "application.storage.upload-wait-timeout" and are then rejected.
+     *
+     * @param file the payload
+     * @param id the id of the relatedDocument to update, or null to create a new one
+     * @param articleId the id of the article of the relatedDocument
+     * @param docName the name of the relatedDocument, the name of the file by default
+     * @return the ResponseEntity with status 201 (Created) or 200 (OK) and with body the relatedDocumentDTO,
+     * with status 404 (Not Found) if the relatedDocument to update does not exist, with status 413 (Request Entity
+     * Too Large) if the payload is too large, or with status 503 (Service Unavailable) if too many uploads are running
+     * @throws URISyntaxException if the Location URI syntax is incorrect
+     * @throws IOException if the payload could not be stored
+     */
+    @PostMapping("/related-documents/upload")
+    @Timed
+    public ResponseEntity<RelatedDocumentDTO> uploadRelatedDocument(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Long id, @RequestParam Long articleId,
+            @RequestParam(required = false) String docName) throws URISyntaxException, IOException {
+        log.debug("REST request to upload RelatedDocument : {}, {} ({} bytes)", id, file.getOriginalFilename(), file.getSize());
+        if (file.getSize() > storageProperties.getMaxUploadSize()) {
+            throw new PayloadTooLargeException("The document cannot be larger than " + storageProperties.getMaxUploadSize() + " bytes");
+        }
+        RelatedDocumentDTO relatedDocumentDTO = id == null ? new RelatedDocumentDTO() : relatedDocumentService.findOne(id);
+        if (relatedDocumentDTO == null) {
+            return ResponseEntity.notFound().build();
+        }
+        relatedDocumentDTO.setArticleId(articleId);
+        if (docName != null && !docName.trim().isEmpty()) {
+            relatedDocumentDTO.setDocName(docName);
+        } else if (relatedDocumentDTO.getDocName() == null) {
+            relatedDocumentDTO.setDocName(file.getOriginalFilename());
+        }
+        relatedDocumentDTO.setDocFileContentType(file.getContentType());
+
+        if (!acquireUploadPermit()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, storageProperties.getUploadWaitTimeout() / 1000)))
+                .build();
+        }
+        RelatedDocumentDTO result;
+        try (InputStream content = file.getInputStream()) {
+            result = relatedDocumentService.save(relatedDocumentDTO, content);
+        } finally {
+            uploadPermits.release();
+        }
+        if (id == null) {
+            return ResponseEntity.created(new URI("/api/related-documents/" + result.getId()))
+                .headers(HeaderUtil.createEntityCreationAlert(ENTITY_NAME, result.getId().toString()))
+                .body(result);
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
     /**
      * PUT  /related-documents : Updates an existing relatedDocument.
      *
@@ -114,6 +195,43 @@ public class RelatedDocumentResource {
         return ResponseUtil.wrapOrNotFound(Optional.ofNullable(relatedDocumentDTO));
     }
 
+    /**
+     * GET  /related-documents/:id/content : download the payload of the "id" relatedDocument.
+     * <p>
+     * Supports conditional requests with "If-None-Match" and resumable downloads with "Range"; the payload is
+     * written directly to the response.
+     *
+     * @param id the id of the relatedDocument
+     * @param request the current request
+     * @param response the current response
+     * @return the ResponseEntity with status 404 (Not Found) or 304 (Not Modified), or null once the payload is written
+     *  with status 200 (OK) or 206 (Partial Content)
+     * @throws IOException if the payload could not be read or written
+     */
+    @GetMapping("/related-documents/{id}/content")
+    @Timed
+    public ResponseEntity<Void> getRelatedDocumentContent(@PathVariable Long id, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        log.debug("REST request to get the content of RelatedDocument : {}", id);
+        RelatedDocumentDTO relatedDocumentDTO = relatedDocumentService.findOne(id);
+        if (relatedDocumentDTO == null || relatedDocumentDTO.getDocChecksum() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = "\"" + relatedDocumentDTO.getDocChecksum() + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        Optional<Resource> content = relatedDocumentService.getContent(id);
+        if (!content.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        response.setContentType(contentType(relatedDocumentDTO.getDocFileContentType()).toString());
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName(relatedDocumentDTO) + "\"");
+        DownloadUtil.writeContent(request, response, content.get(), relatedDocumentDTO.getDocSize(), eTag);
+        return null;
+    }
+
     /**
      * DELETE  /related-documents/:id : delete the "id" relatedDocument.
      *
@@ -131,18 +249,59 @@ public class RelatedDocumentResource {
     /**
      * SEARCH  /_search/related-documents?query=:query : search for the relatedDocument corresponding
      * to the query.
+     * <p>
+     * With a "cursor" parameter (empty for the first page), the results are read by id and the "next" link
+     * carries the cursor of the following page, the total only being counted when "count" is true.
      *
      * @param query the query of the relatedDocument search
+     * @param cursor the cursor of the page, to page through the results by id
+     * @param count whether the total of the cursor pages must be counted
      * @param pageable the pagination information
      * @return the result of the search
      */
     @GetMapping("/_search/related-documents")
     @Timed
-    public ResponseEntity<List<RelatedDocumentDTO>> searchRelatedDocuments(@RequestParam String query, Pageable pageable) {
+    public ResponseEntity<List<RelatedDocumentDTO>> searchRelatedDocuments(@RequestParam String query,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "false") boolean count,
+            Pageable pageable) {
         log.debug("REST request to search for a page of RelatedDocuments for query {}", query);
+        if (cursor != null) {
+            SearchCursor searchCursor = PaginationUtil.parseCursor(cursor, pageable.getSort(), ENTITY_NAME);
+            CursorPage<RelatedDocumentDTO> cursorPage = relatedDocumentService.search(query, searchCursor, pageable.getPageSize(), count);
+            HttpHeaders headers = PaginationUtil.generateCursorPaginationHttpHeaders(query, cursorPage,
+                pageable.getPageSize(), "/api/_search/related-documents");
+            return new ResponseEntity<>(cursorPage.getContent(), headers, HttpStatus.OK);
+        }
         Page<RelatedDocumentDTO> page = relatedDocumentService.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generateSearchPaginationHttpHeaders(query, page, "/api/_search/related-documents");
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    private static MediaType contentType(String docFileContentType) {
+        try {
+            return docFileContentType == null ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(docFileContentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+
+    /**
+     * Name of the downloaded file, restricted to the characters which are safe in a header.
+     */
+    private static String fileName(RelatedDocumentDTO relatedDocumentDTO) {
+        String docName = relatedDocumentDTO.getDocName();
+        if (docName == null || docName.trim().isEmpty()) {
+            return "document-" + relatedDocumentDTO.getId();
+        }
+        return docName.replaceAll("[^A-Za-z0-9 ._()-]", "_");
+    }
+
+    private boolean acquireUploadPermit() {
+        try {
+            return uploadPermits.tryAcquire(storageProperties.getUploadWaitTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.trustvip.web.rest;
+
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.service.SearchReindexService;
+import com.trustvip.service.dto.SearchReindexDTO;
+
+import com.codahale.metrics.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Controller for rebuilding the search indices from the database.
+ */
+@RestController
+@RequestMapping("/management")
+public class SearchReindexResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * GET  /search/reindex : get the progress of the running or last reindex.
+     *
+     * @return the progress of the reindex
+     */
+    @GetMapping("/search/reindex")
+    @Timed
+    public SearchReindexDTO getReindexStatus() {
+        return searchReindexService.getStatus();
+    }
+
+    /**
+     * POST  /search/reindex : start rebuilding search indices in the background.
+     * <p>
+     * The indices are searchable during the whole reindex, and switch to the rebuilt data at once.
+     *
+     * @param entityTypes the types of the entities to reindex, all of them by default
+     * @return the ResponseEntity with status 202 (Accepted) and the progress of the reindex,
+     * or with status 409 (Conflict) and the progress of the running reindex
+     */
+    @PostMapping("/search/reindex")
+    @Timed
+    public ResponseEntity<SearchReindexDTO> reindex(
+            @RequestParam(name = "entityType", required = false) List<SearchEntityType> entityTypes) {
+        log.debug("REST request to reindex : {}", entityTypes);
+        List<SearchEntityType> types = entityTypes == null || entityTypes.isEmpty()
+            ? Arrays.asList(SearchEntityType.values()) : entityTypes;
+        return searchReindexService.start(types)
+            .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+            .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).body(searchReindexService.getStatus()));
+    }
+}
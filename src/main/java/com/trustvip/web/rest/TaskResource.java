@@ -31,6 +31,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.codahale.metrics.annotation.Timed;
 import com.trustvip.domain.enumeration.ArticleStatus;
 import com.trustvip.domain.enumeration.TaskStatus;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.security.AuthoritiesConstants;
 import com.trustvip.service.ArticleService;
 import com.trustvip.service.TaskService;
@@ -123,16 +125,18 @@ public class TaskResource {
         //Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         Collection<SimpleGrantedAuthority> authorities = (Collection<SimpleGrantedAuthority>) SecurityContextHolder
                 .getContext().getAuthentication().getAuthorities();
-     // by default, only open tasks are accessible
-        Page<TaskDTO> page = taskService.findAllByStatus(TaskStatus.OPEN, pageable);
+        // by default, only open tasks are accessible
+        Page<TaskDTO> page = null;
         for (SimpleGrantedAuthority authority : authorities) {
-            System.out.println(authority.getAuthority());
             // admins can see everything
             if (authority.getAuthority().equals(AuthoritiesConstants.ADMIN)) {
-                page =  taskService.findAll(pageable);
+                page = taskService.findAll(pageable);
                 break;
             }
         }
+        if (page == null) {
+            page = taskService.findAllByStatus(TaskStatus.OPEN, pageable);
+        }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/tasks");
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
@@ -168,15 +172,29 @@ public class TaskResource {
     /**
      * SEARCH  /_search/tasks?query=:query : search for the task corresponding
      * to the query.
+     * <p>
+     * With a "cursor" parameter (empty for the first page), the results are read by id and the "next" link
+     * carries the cursor of the following page, the total only being counted when "count" is true.
      *
      * @param query the query of the task search
+     * @param cursor the cursor of the page, to page through the results by id
+     * @param count whether the total of the cursor pages must be counted
      * @param pageable the pagination information
      * @return the result of the search
      */
     @GetMapping("/_search/tasks")
     @Timed
-    public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam String query, Pageable pageable) {
+    public ResponseEntity<List<TaskDTO>> searchTasks(@RequestParam String query,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "false") boolean count,
+            Pageable pageable) {
         log.debug("REST request to search for a page of Tasks for query {}", query);
+        if (cursor != null) {
+            SearchCursor searchCursor = PaginationUtil.parseCursor(cursor, pageable.getSort(), ENTITY_NAME);
+            CursorPage<TaskDTO> cursorPage = taskService.search(query, searchCursor, pageable.getPageSize(), count);
+            HttpHeaders headers = PaginationUtil.generateCursorPaginationHttpHeaders(query, cursorPage,
+                pageable.getPageSize(), "/api/_search/tasks");
+            return new ResponseEntity<>(cursorPage.getContent(), headers, HttpStatus.OK);
+        }
         Page<TaskDTO> page = taskService.search(query, pageable);
         HttpHeaders headers = PaginationUtil.generateSearchPaginationHttpHeaders(query, page, "/api/_search/tasks");
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
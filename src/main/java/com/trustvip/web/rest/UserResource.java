@@ -4,6 +4,8 @@ import com.trustvip.config.Constants;
 import com.codahale.metrics.annotation.Timed;
 import com.trustvip.domain.User;
 import com.trustvip.repository.UserRepository;
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
 import com.trustvip.repository.search.UserSearchRepository;
 import com.trustvip.security.AuthoritiesConstants;
 import com.trustvip.service.MailService;
@@ -16,15 +18,18 @@ import com.trustvip.web.rest.util.HeaderUtil;
 import com.trustvip.web.rest.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 
+import org.elasticsearch.index.query.QueryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
@@ -33,7 +38,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
-import static org.elasticsearch.index.query.QueryBuilders.*;
+import static com.trustvip.service.util.SearchQueryUtil.boundedQueryString;
 
 /**
  * REST controller for managing users.
@@ -199,15 +204,34 @@ public class UserResource {
     /**
      * SEARCH /_search/users/:query : search for the User corresponding
      * to the query.
+     * <p>
+     * With a "cursor" parameter (empty for the first page), only a page of users is returned, read by id, and
+     * the "next" link carries the cursor of the following page, the total only being counted when "count" is true.
      *
      * @param query the query to search
+     * @param cursor the cursor of the page, to page through the results by id
+     * @param count whether the total of the cursor pages must be counted
+     * @param pageable the pagination information
      * @return the result of the search
      */
     @GetMapping("/_search/users/{query}")
     @Timed
-    public List<User> search(@PathVariable String query) {
-        return StreamSupport
-            .stream(userSearchRepository.search(queryStringQuery(query)).spliterator(), false)
-            .collect(Collectors.toList());
+    public ResponseEntity<List<User>> search(@PathVariable String query,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "false") boolean count,
+            Pageable pageable) {
+        QueryBuilder queryBuilder = boundedQueryString(query);
+        if (cursor != null) {
+            SearchCursor searchCursor = PaginationUtil.parseCursor(cursor, pageable.getSort(), "userManagement");
+            int size = pageable.getPageSize();
+            Page<User> result = userSearchRepository.search(searchCursor.apply(queryBuilder), searchCursor.pageRequest(size));
+            Long totalCount = count ? userSearchRepository.search(queryBuilder, new PageRequest(0, 1)).getTotalElements() : null;
+            CursorPage<User> page = searchCursor.toPage(result.getContent(), size, User::getId, totalCount);
+            HttpHeaders headers = PaginationUtil.generateCursorPaginationHttpHeaders(null, page, size,
+                UriComponentsBuilder.fromPath("/api/_search/users/{query}").buildAndExpand(query).encode().toUriString());
+            return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        }
+        return ResponseEntity.ok(StreamSupport
+            .stream(userSearchRepository.search(queryBuilder).spliterator(), false)
+            .collect(Collectors.toList()));
     }
 }
@@ -9,6 +9,8 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 import org.zalando.problem.DefaultProblem;
 import org.zalando.problem.Problem;
 import org.zalando.problem.ProblemBuilder;
@@ -95,4 +97,13 @@ public class ExceptionTranslator implements ProblemHandling {
             .build();
         return create(ex, problem, request);
     }
+
+    @ExceptionHandler(MultipartException.class)
+    public ResponseEntity<Problem> handleMultipartException(MultipartException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(ex instanceof MaxUploadSizeExceededException ? Status.REQUEST_ENTITY_TOO_LARGE : Status.BAD_REQUEST)
+            .withDetail(ex.getMessage())
+            .build();
+        return create(ex, problem, request);
+    }
 }
@@ -0,0 +1,14 @@
+package com.trustvip.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+/**
+ * Simple exception with a message, that returns a Request Entity Too Large code.
+ */
+public class PayloadTooLargeException extends AbstractThrowableProblem {
+
+    public PayloadTooLargeException(String message) {
+        super(ErrorConstants.DEFAULT_TYPE, message, Status.REQUEST_ENTITY_TOO_LARGE);
+    }
+}
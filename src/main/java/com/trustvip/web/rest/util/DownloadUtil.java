@@ -0,0 +1,109 @@
+package com.trustvip.web.rest.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Utility class for streaming downloads, with support for resumable "Range" requests.
+ */
+public final class DownloadUtil {
+
+    private DownloadUtil() {
+    }
+
+    /**
+     * Write a payload to the response, honouring a single byte range.
+     * <p>
+     * A "Range" header with one range gets a 206 (Partial Content) response, unless an "If-Range" header does not
+     * match the current entity tag. Several ranges and invalid "Range" headers are answered with the whole
+     * payload, as required by RFC 7233, and a valid range outside of the payload with a 416 (Requested Range Not
+     * Satisfiable). Files are sent with
+     * {@link FileChannel#transferTo}, so no payload is buffered in memory.
+     * <p>
+     * The content type and other entity headers must be set on the response before calling this method.
+     *
+     * @param request the current request
+     * @param response the current response
+     * @param content the payload
+     * @param length the length of the payload
+     * @param eTag the quoted entity tag of the payload, compared to "If-Range"
+     * @throws IOException if the payload could not be read or written
+     */
+    public static void writeContent(HttpServletRequest request, HttpServletResponse response, Resource content,
+            long length, String eTag) throws IOException {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(eTag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                // An invalid header is ignored, the whole payload is sent
+                ranges = Collections.emptyList();
+            }
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = Math.min(ranges.get(0).getRangeEnd(length), length - 1);
+                if (start >= length || start > end) {
+                    rejectRange(response, length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(count));
+        if (count > 0) {
+            transfer(content, start, count, response.getOutputStream());
+        }
+    }
+
+    private static void rejectRange(HttpServletResponse response, long length) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+        response.setHeader(HttpHeaders.CONTENT_LENGTH, "0");
+    }
+
+    private static void transfer(Resource content, long position, long count, OutputStream outputStream)
+            throws IOException {
+        if (content instanceof FileSystemResource) {
+            try (FileChannel channel = FileChannel.open(((FileSystemResource) content).getFile().toPath(),
+                    StandardOpenOption.READ)) {
+                WritableByteChannel target = Channels.newChannel(outputStream);
+                while (count > 0) {
+                    long transferred = channel.transferTo(position, count, target);
+                    if (transferred <= 0) {
+                        throw new IOException("The payload is shorter than expected: " + content.getDescription());
+                    }
+                    position += transferred;
+                    count -= transferred;
+                }
+            }
+        } else {
+            try (InputStream inputStream = content.getInputStream()) {
+                StreamUtils.copyRange(inputStream, outputStream, position, position + count - 1);
+            }
+        }
+        outputStream.flush();
+    }
+}
@@ -1,6 +1,11 @@
 package com.trustvip.web.rest.util;
 
+import com.trustvip.repository.search.CursorPage;
+import com.trustvip.repository.search.SearchCursor;
+import com.trustvip.web.rest.errors.BadRequestAlertException;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -73,4 +78,57 @@ public final class PaginationUtil {
         headers.add(HttpHeaders.LINK, link);
         return headers;
     }
+
+    /**
+     * Read the cursor sent by a client.
+     *
+     * @param cursor the cursor returned with the previous page, or an empty string for the first page
+     * @param sort the requested sort
+     * @param entityName the name of the searched entity, for the error message
+     * @return the cursor
+     * @throws BadRequestAlertException if the cursor is not valid
+     */
+    public static SearchCursor parseCursor(String cursor, Sort sort, String entityName) {
+        try {
+            return SearchCursor.of(cursor, sort);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid search cursor", entityName, "invalidcursor");
+        }
+    }
+
+    /**
+     * Generate the headers of a page of search results read with a cursor.
+     * <p>
+     * Only a "next" link is generated, carrying the cursor of the next page, and the "X-Total-Count" header is
+     * only sent if the exact count was requested.
+     *
+     * @param query the query of the search, or null if the base URL already carries the search parameters
+     * @param page the page of results
+     * @param size the size of the pages
+     * @param baseUrl the URL of the search, with its parameters already encoded
+     * @return the headers
+     */
+    public static HttpHeaders generateCursorPaginationHttpHeaders(String query, CursorPage<?> page, int size,
+            String baseUrl) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.getTotalCount() != null) {
+            headers.add("X-Total-Count", Long.toString(page.getTotalCount()));
+        }
+        if (page.getNext() != null) {
+            String link = baseUrl + (baseUrl.contains("?") ? "&" : "?") + "cursor=" + page.getNext().encode()
+                + "&size=" + size;
+            if (page.getTotalCount() != null) {
+                link += "&count=true";
+            }
+            if (query != null) {
+                try {
+                    link += "&query=" + URLEncoder.encode(query, "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
 }
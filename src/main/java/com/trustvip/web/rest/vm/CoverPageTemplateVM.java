@@ -0,0 +1,84 @@
+package com.trustvip.web.rest.vm;
+
+import java.time.Instant;
+
+import com.trustvip.service.CoverPageTemplate;
+
+/**
+ * View Model object for the cover page template of the article PDFs.
+ */
+public class CoverPageTemplateVM {
+
+    private String location;
+
+    private String version;
+
+    private int numberOfPages;
+
+    private int size;
+
+    private Instant loadedOn;
+
+    public CoverPageTemplateVM(CoverPageTemplate.Snapshot snapshot) {
+        this.location = snapshot.getLocation();
+        this.version = snapshot.getVersion();
+        this.numberOfPages = snapshot.getNumberOfPages();
+        this.size = snapshot.getSize();
+        this.loadedOn = snapshot.getLoadedOn();
+    }
+
+    public CoverPageTemplateVM() {
+        // Empty public constructor used by Jackson.
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public int getNumberOfPages() {
+        return numberOfPages;
+    }
+
+    public void setNumberOfPages(int numberOfPages) {
+        this.numberOfPages = numberOfPages;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Instant getLoadedOn() {
+        return loadedOn;
+    }
+
+    public void setLoadedOn(Instant loadedOn) {
+        this.loadedOn = loadedOn;
+    }
+
+    @Override
+    public String toString() {
+        return "CoverPageTemplateVM{" +
+            "location='" + location + '\'' +
+            ", version='" + version + '\'' +
+            ", numberOfPages=" + numberOfPages +
+            ", size=" + size +
+            ", loadedOn=" + loadedOn +
+            '}';
+    }
+}
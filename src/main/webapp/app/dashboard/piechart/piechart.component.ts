@@ -1,5 +1,5 @@
 import { Component, OnInit } from '@angular/core';
-import { PieChartService } from './piechart.service';
+import { ArticleFacets, PieChartService } from './piechart.service';
 import { HttpResponse } from '@angular/common/http';
 
 @Component({
@@ -23,34 +23,16 @@ export class PiechartComponent implements OnInit {
        }
 
     load() {
-        this.pieChartService.getPieLabels()
-            .subscribe((res: HttpResponse<string[]>) => this.onSuccessLabels(res.body, res.headers));
-        this.pieChartService.getPieData()
-            .subscribe((res: HttpResponse<number[]>) => this.onSuccessData(res.body, res.headers))        ;
-        this.pieChartService.getPieStatusLabels()
-            .subscribe((res: HttpResponse<string[]>) => this.onSuccessStatusLabels(res.body, res.headers));
-        this.pieChartService.getPieStatusData()
-            .subscribe((res: HttpResponse<number[]>) => this.onSuccessStatusData(res.body, res.headers));
+        // both charts are drawn from a single request, counted once on the server
+        this.pieChartService.getFacets()
+            .subscribe((res: HttpResponse<ArticleFacets>) => this.onSuccessFacets(res.body, res.headers));
        }
 
-    private onSuccessStatusLabels(data, headers) {
-        this.statusLabels = data;
-        this.statusData = {
-            labels: this.statusLabels,
-            datasets: [{
-                data: [300, 50, 100],
-                backgroundColor: [
-                    '#C82333',
-                    '#164675',
-                    '#FDB81E'
-                ],
-                hoverBackgroundColor: [
-                    '#dd3c4c',
-                    '#1d5996',
-                    '#fdc64e'
-                ]
-            }]
-        };
+    private onSuccessFacets(facets: ArticleFacets, headers) {
+        this.labels = Object.keys(facets.types);
+        this.onSuccessData(this.labels.map((type) => facets.types[type]), headers);
+        this.statusLabels = Object.keys(facets.statuses);
+        this.onSuccessStatusData(this.statusLabels.map((status) => facets.statuses[status]), headers);
     }
 
     private onSuccessStatusData(pieData, headers) {
@@ -71,24 +53,6 @@ export class PiechartComponent implements OnInit {
                 ]
             }]
         };
-    }    private onSuccessLabels(data, headers) {
-        this.labels = data;
-        this.data = {
-            labels: this.labels,
-            datasets: [{
-                data: [300, 50, 100],
-                backgroundColor: [
-                    '#C82333',
-                    '#164675',
-                    '#FDB81E'
-                ],
-                hoverBackgroundColor: [
-                    '#dd3c4c',
-                    '#1d5996',
-                    '#fdc64e'
-                ]
-            }]
-        };
     }
 
     private onSuccessData(pieData, headers) {
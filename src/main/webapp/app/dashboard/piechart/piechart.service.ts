@@ -5,6 +5,13 @@ import { SERVER_API_URL } from '../../app.constants';
 
 export type EntityResponseType = HttpResponse<string>;
 
+export interface ArticleFacets {
+    total: number;
+    types: { [type: string]: number };
+    statuses: { [status: string]: number };
+    publishMonths: { [month: string]: number };
+}
+
 @Injectable()
 export class PieChartService {
     private resourceUrl = SERVER_API_URL + 'api';
@@ -12,6 +19,7 @@ export class PieChartService {
     private pieDataUrl = this.resourceUrl + '/data/pie';
     private pieStatusLabelsUrl = this.resourceUrl + '/labels/pie/status';
     private pieStatusDataUrl = this.resourceUrl + '/data/pie/status';
+    private facetsUrl = this.resourceUrl + '/_facets/articles';
 
     constructor(private http: HttpClient) { }
 
@@ -36,6 +44,10 @@ export class PieChartService {
             .map((res: HttpResponse<number[]>) => this.convertArrayResponseData(res));
     }
 
+    getFacets(): Observable<HttpResponse<ArticleFacets>> {
+        return this.http.get<ArticleFacets>(`${this.facetsUrl}`, { observe: 'response' });
+    }
+
     private convertArrayResponse(res: HttpResponse<string[]>): HttpResponse<string[]> {
         const jsonResponse: string[] = res.body;
         const body: string[] = [];
@@ -15,6 +15,7 @@ export class ArticleService {
 
     private resourceUrl = SERVER_API_URL + 'api/articles';
     private resourceSearchUrl = SERVER_API_URL + 'api/_search/articles';
+    private resourceSuggestUrl = SERVER_API_URL + 'api/_suggest/articles';
     private resourceShareUrl = SERVER_API_URL + 'api/share';
 
     constructor(private http: HttpClient, private dateUtils: JhiDateUtils) { }
@@ -56,6 +57,11 @@ export class ArticleService {
             .map((res: HttpResponse<Article[]>) => this.convertArrayResponse(res));
     }
 
+    suggest(query: string, size?: number): Observable<string[]> {
+        const options = createRequestOption({ query, size: size || 10 });
+        return this.http.get<string[]>(this.resourceSuggestUrl, { params: options });
+    }
+
     private convertResponse(res: EntityResponseType): EntityResponseType {
         const body: Article = this.convertItemFromServer(res.body);
         return res.clone({ body });
@@ -4,7 +4,7 @@ import { HttpResponse, HttpErrorResponse } from '@angular/common/http';
 
 import { Observable } from 'rxjs/Observable';
 import { NgbActiveModal } from '@ng-bootstrap/ng-bootstrap';
-import { JhiEventManager, JhiAlertService, JhiDataUtils } from 'ng-jhipster';
+import { JhiEventManager, JhiAlertService } from 'ng-jhipster';
 
 import { RelatedDocument } from './related-document.model';
 import { RelatedDocumentPopupService } from './related-document-popup.service';
@@ -18,13 +18,13 @@ import { Article, ArticleService } from '../article';
 export class RelatedDocumentDialogComponent implements OnInit {
 
     relatedDocument: RelatedDocument;
+    file: File;
     isSaving: boolean;
 
     articles: Article[];
 
     constructor(
         public activeModal: NgbActiveModal,
-        private dataUtils: JhiDataUtils,
         private jhiAlertService: JhiAlertService,
         private relatedDocumentService: RelatedDocumentService,
         private articleService: ArticleService,
@@ -38,16 +38,17 @@ export class RelatedDocumentDialogComponent implements OnInit {
             .subscribe((res: HttpResponse<Article[]>) => { this.articles = res.body; }, (res: HttpErrorResponse) => this.onError(res.message));
     }
 
-    byteSize(field) {
-        return this.dataUtils.byteSize(field);
-    }
-
-    openFile(contentType, field) {
-        return this.dataUtils.openFile(contentType, field);
+    setFileData(event) {
+        // The file is sent as it is by the upload, instead of being read into the JSON body
+        if (event && event.target.files && event.target.files[0]) {
+            this.file = event.target.files[0];
+            this.relatedDocument.docFileContentType = this.file.type;
+        }
     }
 
-    setFileData(event, entity, field, isImage) {
-        this.dataUtils.setFileData(event, entity, field, isImage);
+    clearFile() {
+        this.file = null;
+        this.relatedDocument.docFileContentType = null;
     }
 
     clear() {
@@ -56,7 +57,10 @@ export class RelatedDocumentDialogComponent implements OnInit {
 
     save() {
         this.isSaving = true;
-        if (this.relatedDocument.id !== undefined) {
+        if (this.file) {
+            this.subscribeToSaveResponse(
+                this.relatedDocumentService.upload(this.relatedDocument, this.file));
+        } else if (this.relatedDocument.id !== undefined) {
             this.subscribeToSaveResponse(
                 this.relatedDocumentService.update(this.relatedDocument));
         } else {
@@ -6,6 +6,8 @@ export class RelatedDocument implements BaseEntity {
         public docName?: string,
         public docFileContentType?: string,
         public docFile?: any,
+        public docSize?: number,
+        public docChecksum?: string,
         public articleId?: number,
     ) {
     }
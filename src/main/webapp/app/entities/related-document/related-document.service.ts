@@ -28,6 +28,20 @@ export class RelatedDocumentService {
             .map((res: EntityResponseType) => this.convertResponse(res));
     }
 
+    upload(relatedDocument: RelatedDocument, file: File): Observable<EntityResponseType> {
+        const formData: FormData = new FormData();
+        formData.append('file', file, file.name);
+        formData.append('articleId', String(relatedDocument.articleId));
+        if (relatedDocument.id !== undefined) {
+            formData.append('id', String(relatedDocument.id));
+        }
+        if (relatedDocument.docName) {
+            formData.append('docName', relatedDocument.docName);
+        }
+        return this.http.post<RelatedDocument>(`${this.resourceUrl}/upload`, formData, { observe: 'response' })
+            .map((res: EntityResponseType) => this.convertResponse(res));
+    }
+
     find(id: number): Observable<EntityResponseType> {
         return this.http.get<RelatedDocument>(`${this.resourceUrl}/${id}`, { observe: 'response'})
             .map((res: EntityResponseType) => this.convertResponse(res));
@@ -0,0 +1,112 @@
+package com.trustvip.repository;
+
+import com.trustvip.VipAdpqApp;
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.domain.enumeration.ArticleType;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Regression benchmark of the article listing by status, run with "-Dbenchmark=true".
+ * <p>
+ * Loads "benchmark.articles" articles (100000 by default), checks the listing by status uses its index, and
+ * fails when the median time to get a page exceeds "benchmark.max-millis" milliseconds.
+ *
+ * @see ArticleRepository#findAllByStatus
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+@Transactional
+public class ArticleListingBenchmarkIntTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int RUNS = 10;
+
+    private final Logger log = LoggerFactory.getLogger(ArticleListingBenchmarkIntTest.class);
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    public void benchmarkListingByStatus() {
+        assumeTrue(Boolean.getBoolean("benchmark"));
+        int articles = Integer.getInteger("benchmark.articles", 100000);
+        long maxMillis = Long.getLong("benchmark.max-millis", 500L);
+        insertArticles(articles);
+
+        assertThat(plan("select id from article where status = 'PUBLISHED' order by publish_date desc"))
+            .contains("idx_article_status_publish_date");
+
+        int lastPage = articles * 9 / 10 / PAGE_SIZE - 1;
+        for (int page : Arrays.asList(0, 10, 100, lastPage)) {
+            PageRequest pageRequest = new PageRequest(page, PAGE_SIZE, Sort.Direction.DESC, "publishDate");
+            long median = medianMillis(() -> assertThat(
+                articleRepository.findAllByStatus(ArticleStatus.PUBLISHED, pageRequest).getContent()).hasSize(PAGE_SIZE));
+            log.info("Listed page {} of the published articles among {} articles in {} ms", page, articles, median);
+            assertThat(median).isLessThanOrEqualTo(maxMillis);
+        }
+    }
+
+    private void insertArticles(int count) {
+        LocalDate today = LocalDate.now();
+        ArticleType[] types = ArticleType.values();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ArticleStatus status = i % 10 == 0 ? ArticleStatus.DRAFT : ArticleStatus.PUBLISHED;
+            rows.add(new Object[] { "Article " + i, Date.valueOf(today.minusDays(i % 3650)), "Content " + i,
+                types[i % types.length].name(), status.name() });
+            if (rows.size() == 1000 || i == count - 1) {
+                jdbcTemplate.batchUpdate(
+                    "insert into article (article_name, publish_date, content, jhi_type, status) values (?, ?, ?, ?, ?)",
+                    rows);
+                rows.clear();
+            }
+        }
+        jdbcTemplate.execute("analyze");
+    }
+
+    private String plan(String query) {
+        return jdbcTemplate.queryForObject("explain " + query, String.class).toLowerCase();
+    }
+
+    private long medianMillis(Runnable listing) {
+        long[] millis = new long[RUNS];
+        for (int run = -3; run < RUNS; run++) {
+            em.clear();
+            long start = System.nanoTime();
+            listing.run();
+            if (run >= 0) {
+                millis[run] = (System.nanoTime() - start) / 1000000;
+            }
+        }
+        Arrays.sort(millis);
+        return millis[RUNS / 2];
+    }
+}
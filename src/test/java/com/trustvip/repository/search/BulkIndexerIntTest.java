@@ -0,0 +1,60 @@
+package com.trustvip.repository.search;
+
+import com.trustvip.VipAdpqApp;
+import com.trustvip.domain.TaskOwner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the BulkIndexer.
+ *
+ * @see BulkIndexer
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+public class BulkIndexerIntTest {
+
+    private static final Long TASK_OWNER_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private BulkIndexer bulkIndexer;
+
+    @Autowired
+    private TaskOwnerSearchRepository taskOwnerSearchRepository;
+
+    @Test
+    public void assertThatOperationsOlderThanTheDocumentAreIgnored() {
+        assertThat(execute(index("BBBBBBBBBB").withVersion(2))).isEmpty();
+
+        // A stale operation arriving late neither overwrites the document nor fails
+        assertThat(execute(index("AAAAAAAAAA").withVersion(1))).isEmpty();
+        assertThat(taskOwnerSearchRepository.findOne(TASK_OWNER_ID).getName()).isEqualTo("BBBBBBBBBB");
+        assertThat(execute(BulkIndexer.Operation.delete(TaskOwner.class, TASK_OWNER_ID).withVersion(1))).isEmpty();
+        assertThat(taskOwnerSearchRepository.exists(TASK_OWNER_ID)).isTrue();
+
+        // The operations for the same or a later change are applied
+        assertThat(execute(index("CCCCCCCCCC").withVersion(2))).isEmpty();
+        assertThat(taskOwnerSearchRepository.findOne(TASK_OWNER_ID).getName()).isEqualTo("CCCCCCCCCC");
+        assertThat(execute(BulkIndexer.Operation.delete(TaskOwner.class, TASK_OWNER_ID).withVersion(3))).isEmpty();
+        assertThat(taskOwnerSearchRepository.exists(TASK_OWNER_ID)).isFalse();
+    }
+
+    private BulkIndexer.Operation index(String name) {
+        TaskOwner taskOwner = new TaskOwner().name(name);
+        taskOwner.setId(TASK_OWNER_ID);
+        return BulkIndexer.Operation.index(taskOwner, TASK_OWNER_ID);
+    }
+
+    private Map<BulkIndexer.Operation, String> execute(BulkIndexer.Operation operation) {
+        return bulkIndexer.execute(Collections.singletonList(operation));
+    }
+}
@@ -0,0 +1,130 @@
+package com.trustvip.service;
+
+import com.trustvip.VipAdpqApp;
+import com.trustvip.config.ApplicationProperties;
+import com.trustvip.repository.ArticleRepository;
+import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.service.ArticlePdfRenderService.RenderStatus;
+import com.trustvip.service.mapper.RelatedDocumentMapper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the render queue of the ArticlePdfRenderService.
+ *
+ * @see ArticlePdfRenderService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+public class ArticlePdfRenderServiceIntTest {
+
+    private static final Long FIRST_ARTICLE_ID = Long.MAX_VALUE - 1;
+
+    private static final Long SECOND_ARTICLE_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private RelatedDocumentService relatedDocumentService;
+
+    @Autowired
+    private RelatedDocumentRepository relatedDocumentRepository;
+
+    @Autowired
+    private RelatedDocumentMapper relatedDocumentMapper;
+
+    @Autowired
+    private PDFService pdfService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private ArticlePdfRenderService articlePdfRenderService;
+
+    private final CountDownLatch busy = new CountDownLatch(1);
+
+    @Before
+    public void setup() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        articlePdfRenderService = new ArticlePdfRenderService(articleRepository, relatedDocumentService,
+            relatedDocumentRepository, relatedDocumentMapper, pdfService, executor, transactionManager,
+            applicationProperties);
+        // Keep the only worker busy so the renders stay in the queue
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        busy.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    public void assertThatRendersAreQueued() throws Exception {
+        articlePdfRenderService.requestRender(FIRST_ARTICLE_ID);
+        assertThat(articlePdfRenderService.getStatus(FIRST_ARTICLE_ID)).contains(RenderStatus.QUEUED);
+
+        // A render already waiting in the queue is not queued again
+        articlePdfRenderService.requestRender(FIRST_ARTICLE_ID);
+        assertThat(executor.getThreadPoolExecutor().getQueue()).hasSize(1);
+
+        busy.countDown();
+        // The article does not exist, so there is nothing to render
+        assertThat(awaitStatus(FIRST_ARTICLE_ID, RenderStatus.COMPLETED)).contains(RenderStatus.COMPLETED);
+    }
+
+    @Test
+    public void assertThatRendersOverflowingTheQueueAreLeftForTheFirstGet() {
+        articlePdfRenderService.requestRender(FIRST_ARTICLE_ID);
+
+        // The request does not fail, the PDF is rendered on demand instead
+        articlePdfRenderService.requestRender(SECOND_ARTICLE_ID);
+        assertThat(articlePdfRenderService.getStatus(SECOND_ARTICLE_ID)).isEmpty();
+        assertThat(articlePdfRenderService.getStatus(FIRST_ARTICLE_ID)).contains(RenderStatus.QUEUED);
+
+        // A render already waiting in the queue is still deduplicated while the queue is full
+        articlePdfRenderService.requestRender(FIRST_ARTICLE_ID);
+        assertThat(executor.getThreadPoolExecutor().getQueue()).hasSize(1);
+    }
+
+    @Test
+    public void assertThatUnknownArticlesHaveNoStatus() {
+        assertThat(articlePdfRenderService.getStatus(SECOND_ARTICLE_ID)).isEmpty();
+    }
+
+    private Optional<RenderStatus> awaitStatus(Long articleId, RenderStatus expected) throws InterruptedException {
+        for (int i = 0; i < 100 && !articlePdfRenderService.getStatus(articleId).equals(Optional.of(expected)); i++) {
+            Thread.sleep(50);
+        }
+        return articlePdfRenderService.getStatus(articleId);
+    }
+}
@@ -0,0 +1,120 @@
+package com.trustvip.service;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfWriter;
+import com.trustvip.VipAdpqApp;
+import com.trustvip.domain.ExtractedText;
+import com.trustvip.domain.RelatedDocument;
+import com.trustvip.domain.enumeration.ExtractionStatus;
+import com.trustvip.repository.ExtractedTextRepository;
+import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.service.storage.StoredBlob;
+import com.trustvip.web.rest.RelatedDocumentResourceIntTest;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the DocumentTextExtractionService.
+ *
+ * @see DocumentTextExtractionService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+@Transactional
+public class DocumentTextExtractionServiceIntTest {
+
+    @Autowired
+    private DocumentTextExtractionService documentTextExtractionService;
+
+    @Autowired
+    private StoredPayloadService storedPayloadService;
+
+    @Autowired
+    private RelatedDocumentRepository relatedDocumentRepository;
+
+    @Autowired
+    private ExtractedTextRepository extractedTextRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Test
+    public void assertThatPlainTextIsExtracted() throws Exception {
+        RelatedDocument relatedDocument = saveDocument("text/plain",
+            "Emergency procurement job aid".getBytes(StandardCharsets.UTF_8));
+
+        Optional<ExtractedText> extractedText = documentTextExtractionService.extract(relatedDocument);
+
+        assertThat(extractedText).isPresent();
+        assertThat(extractedText.get().getStatus()).isEqualTo(ExtractionStatus.EXTRACTED);
+        assertThat(extractedText.get().getContent()).isEqualTo("Emergency procurement job aid");
+        assertThat(extractedText.get().isTruncated()).isFalse();
+    }
+
+    @Test
+    public void assertThatPdfTextIsExtracted() throws Exception {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        Document document = new Document();
+        PdfWriter.getInstance(document, pdf);
+        document.open();
+        document.add(new Paragraph("Statement of work template"));
+        document.close();
+        RelatedDocument relatedDocument = saveDocument("application/pdf", pdf.toByteArray());
+
+        Optional<ExtractedText> extractedText = documentTextExtractionService.extract(relatedDocument);
+
+        assertThat(extractedText).isPresent();
+        assertThat(extractedText.get().getStatus()).isEqualTo(ExtractionStatus.EXTRACTED);
+        assertThat(extractedText.get().getContent()).contains("Statement of work template");
+    }
+
+    @Test
+    public void assertThatIdenticalPayloadsAreExtractedOnce() throws Exception {
+        byte[] content = "Contract amendment checklist".getBytes(StandardCharsets.UTF_8);
+        RelatedDocument first = saveDocument("text/plain", content);
+        ExtractedText extracted = documentTextExtractionService.extract(first).get();
+        int count = extractedTextRepository.findAll().size();
+
+        RelatedDocument second = saveDocument("text/plain", content);
+        ExtractedText reused = documentTextExtractionService.extract(second).get();
+
+        assertThat(second.getDocKey()).isEqualTo(first.getDocKey());
+        assertThat(reused.getExtractedOn()).isEqualTo(extracted.getExtractedOn());
+        assertThat(extractedTextRepository.findAll()).hasSize(count);
+    }
+
+    @Test
+    public void assertThatUnsupportedPayloadsAreSkipped() throws Exception {
+        RelatedDocument relatedDocument = saveDocument("image/png", new byte[] {(byte) 0x89, 'P', 'N', 'G'});
+
+        Optional<ExtractedText> extractedText = documentTextExtractionService.extract(relatedDocument);
+
+        assertThat(extractedText).isPresent();
+        assertThat(extractedText.get().getStatus()).isEqualTo(ExtractionStatus.UNSUPPORTED);
+        assertThat(extractedText.get().getContent()).isNull();
+    }
+
+    private RelatedDocument saveDocument(String contentType, byte[] content) throws Exception {
+        StoredBlob blob = storedPayloadService.store(new ByteArrayInputStream(content));
+        RelatedDocument relatedDocument = RelatedDocumentResourceIntTest.createEntity(em)
+            .docFileContentType(contentType)
+            .docKey(blob.getKey())
+            .docSize(blob.getSize())
+            .docChecksum(blob.getChecksum());
+        return relatedDocumentRepository.saveAndFlush(relatedDocument);
+    }
+}
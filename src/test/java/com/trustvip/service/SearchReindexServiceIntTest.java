@@ -0,0 +1,88 @@
+package com.trustvip.service;
+
+import com.trustvip.VipAdpqApp;
+import com.trustvip.domain.TaskOwner;
+import com.trustvip.domain.enumeration.SearchEntityType;
+import com.trustvip.repository.TaskOwnerRepository;
+import com.trustvip.repository.search.SearchReindexStateRepository;
+import com.trustvip.repository.search.TaskOwnerSearchRepository;
+import com.trustvip.service.dto.SearchReindexDTO;
+
+import org.elasticsearch.cluster.metadata.AliasMetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.elasticsearch.core.ElasticsearchTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the SearchReindexService.
+ *
+ * @see SearchReindexService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+@Transactional
+public class SearchReindexServiceIntTest {
+
+    @Autowired
+    private SearchReindexService searchReindexService;
+
+    @Autowired
+    private TaskOwnerRepository taskOwnerRepository;
+
+    @Autowired
+    private TaskOwnerSearchRepository taskOwnerSearchRepository;
+
+    @Autowired
+    private SearchReindexStateRepository searchReindexStateRepository;
+
+    @Autowired
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Test
+    public void assertThatReindexLoadsTheDatabaseBehindAnAlias() {
+        TaskOwner taskOwner = taskOwnerRepository.saveAndFlush(new TaskOwner().name("AAAAAAAAAA"));
+        assertThat(taskOwnerSearchRepository.exists(taskOwner.getId())).isFalse();
+
+        for (int run = 0; run < 2; run++) {
+            Optional<SearchReindexDTO> result = searchReindexService.reindex(
+                Collections.singletonList(SearchEntityType.TASK_OWNER));
+
+            assertThat(result).isPresent();
+            assertThat(result.get().getState()).isEqualTo(SearchReindexDTO.State.COMPLETED);
+            SearchReindexDTO.IndexProgress progress = result.get().getIndices().get(0);
+            assertThat(progress.getAlias()).isEqualTo("taskowner");
+            assertThat(progress.getIndexed()).isEqualTo(progress.getTotal());
+            assertThat(progress.getFailed()).isZero();
+
+            ImmutableOpenMap<String, List<AliasMetaData>> aliases = elasticsearchTemplate.getClient().admin().indices()
+                .prepareGetAliases("taskowner").get().getAliases();
+            assertThat(aliases.containsKey(progress.getIndex())).isTrue();
+            assertThat(aliases.size()).isEqualTo(1);
+        }
+        assertThat(taskOwnerSearchRepository.findOne(taskOwner.getId())).isNotNull();
+        assertThat(searchReindexService.getStatus().getState()).isEqualTo(SearchReindexDTO.State.COMPLETED);
+        assertThat(searchReindexStateRepository.findAllInProgress()).isEmpty();
+    }
+
+    @Test
+    public void assertThatAnIndexRebuiltByAnotherNodeIsNotRebuilt() {
+        assertThat(searchReindexStateRepository.claim("taskowner")).isTrue();
+
+        Optional<SearchReindexDTO> result = searchReindexService.reindex(
+            Collections.singletonList(SearchEntityType.TASK_OWNER));
+
+        assertThat(result).isNotPresent();
+        assertThat(searchReindexStateRepository.findAllInProgress()).containsOnlyKeys("taskowner");
+    }
+}
@@ -0,0 +1,97 @@
+package com.trustvip.service;
+
+import com.trustvip.VipAdpqApp;
+import com.trustvip.repository.StoredPayloadRepository;
+import com.trustvip.service.storage.BlobStore;
+import com.trustvip.service.storage.StoredBlob;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the StoredPayloadService.
+ *
+ * @see StoredPayloadService
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+public class StoredPayloadServiceIntTest {
+
+    @Autowired
+    private StoredPayloadService storedPayloadService;
+
+    @Autowired
+    private StoredPayloadRepository storedPayloadRepository;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Test
+    @Transactional
+    public void assertThatIdenticalPayloadsAreShared() throws Exception {
+        byte[] content = uniqueContent();
+
+        StoredBlob first = storedPayloadService.store(new ByteArrayInputStream(content));
+        StoredBlob second = storedPayloadService.store(new ByteArrayInputStream(content));
+
+        assertThat(second.getKey()).isEqualTo(first.getKey());
+        assertThat(storedPayloadRepository.findOne(first.getKey()).getRefCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @Transactional
+    public void assertThatDeletedPayloadIsWrittenAgain() throws Exception {
+        byte[] content = uniqueContent();
+        StoredBlob blob = storedPayloadService.store(new ByteArrayInputStream(content));
+
+        // Deleted by a release which committed before the next reference was added
+        blobStore.delete(blob.getKey());
+        storedPayloadService.store(new ByteArrayInputStream(content));
+
+        try (InputStream stored = blobStore.getResource(blob.getKey()).getInputStream()) {
+            assertThat(StreamUtils.copyToByteArray(stored)).isEqualTo(content);
+        }
+    }
+
+    @Test
+    public void assertThatOrphanPayloadsAreSwept() throws Exception {
+        // Committed, as the sweep only sees the committed references
+        StoredBlob referenced = storedPayloadService.store(new ByteArrayInputStream(uniqueContent()));
+        // Written by a transaction which rolled back
+        StoredBlob orphan = blobStore.store(new ByteArrayInputStream(uniqueContent()));
+        long twoDaysAgo = Instant.now().minus(Duration.ofDays(2)).toEpochMilli();
+        for (StoredBlob blob : new StoredBlob[] { referenced, orphan }) {
+            File file = blobStore.getResource(blob.getKey()).getFile();
+            assertThat(file.setLastModified(twoDaysAgo)).isTrue();
+        }
+
+        storedPayloadService.sweepOrphanPayloads();
+
+        assertThat(blobStore.getResource(referenced.getKey()).exists()).isTrue();
+        assertThatThrownBy(() -> blobStore.getResource(orphan.getKey())).isInstanceOf(NoSuchFileException.class);
+
+        storedPayloadService.release(referenced.getKey());
+        assertThat(storedPayloadRepository.exists(referenced.getKey())).isFalse();
+    }
+
+    private byte[] uniqueContent() {
+        return UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
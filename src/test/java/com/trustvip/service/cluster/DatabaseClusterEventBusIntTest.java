@@ -0,0 +1,183 @@
+package com.trustvip.service.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trustvip.VipAdpqApp;
+import com.trustvip.domain.User;
+import com.trustvip.domain.enumeration.ArticleStatus;
+import com.trustvip.domain.enumeration.ArticleType;
+import com.trustvip.repository.UserRepository;
+import com.trustvip.security.AuthoritiesConstants;
+import com.trustvip.service.PublishedArticleCache;
+import com.trustvip.service.UserService;
+import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.dto.UserDTO;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.ArticleFacet;
+import com.trustvip.service.event.UserChangedEvent;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the DatabaseClusterEventBus.
+ *
+ * @see DatabaseClusterEventBus
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = VipAdpqApp.class)
+@Transactional
+public class DatabaseClusterEventBusIntTest {
+
+    private static final Long ARTICLE_ID = Long.MAX_VALUE;
+
+    @Autowired
+    private ClusterEventBus clusterEventBus;
+
+    @Autowired
+    private PublishedArticleCache publishedArticleCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ApplicationEventMulticaster applicationEventMulticaster;
+
+    private DatabaseClusterEventBus databaseClusterEventBus;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void init() {
+        assertThat(clusterEventBus).isInstanceOf(DatabaseClusterEventBus.class);
+        databaseClusterEventBus = (DatabaseClusterEventBus) clusterEventBus;
+        databaseClusterEventBus.poll();
+        publishedArticleCache.invalidateAll();
+        loads.set(0);
+    }
+
+    @Test
+    public void assertThatEventsOfOtherNodesAreReceived() throws Exception {
+        loadArticle();
+        ArticleFacet published = new ArticleFacet(ArticleType.CONTENT, ArticleStatus.PUBLISHED, LocalDate.now());
+        jdbcTemplate.update("insert into cluster_event (node_id, event_type, payload, created_on) values (?, ?, ?, ?)",
+            "other-node", ArticleChangedEvent.class.getSimpleName(),
+            objectMapper.writeValueAsString(new ArticleChangedEvent(ARTICLE_ID, published, published)),
+            Timestamp.from(Instant.now()));
+
+        databaseClusterEventBus.poll();
+        loadArticle();
+        assertThat(loads.get()).isEqualTo(2);
+
+        // Each event is received once
+        databaseClusterEventBus.poll();
+        loadArticle();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void assertThatEventsOfThisNodeAreNotReceived() {
+        loadArticle();
+        ArticleFacet published = new ArticleFacet(ArticleType.CONTENT, ArticleStatus.PUBLISHED, LocalDate.now());
+        clusterEventBus.broadcast(new ArticleChangedEvent(ARTICLE_ID, published, published));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from cluster_event where node_id = ?", Long.class,
+            databaseClusterEventBus.getNodeId())).isEqualTo(1);
+
+        databaseClusterEventBus.poll();
+        loadArticle();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void assertThatAuthorityChangesEvictTheUsersOfOtherNodes() {
+        // The relay to the other nodes runs when the transaction updating the user commits
+        User user = new User();
+        user.setLogin("cluster-user");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail("cluster-user@localhost");
+        user.setLangKey("en");
+        user = userRepository.saveAndFlush(user);
+        Long userId = user.getId();
+        Cache cache = mock(Cache.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        SecondLevelCacheEvictor evictor = new SecondLevelCacheEvictor(entityManagerFactory);
+        ApplicationListener<ApplicationEvent> listener = event -> {
+            if (event instanceof PayloadApplicationEvent
+                    && ((PayloadApplicationEvent<?>) event).getPayload() instanceof UserChangedEvent) {
+                evictor.onUserChanged((UserChangedEvent) ((PayloadApplicationEvent<?>) event).getPayload());
+            }
+        };
+        applicationEventMulticaster.addApplicationListener(listener);
+        try {
+            UserDTO userDTO = new UserDTO(user);
+            userDTO.setAuthorities(new HashSet<>(Arrays.asList(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)));
+            userService.updateUser(userDTO);
+
+            // Replay the event committed by this node as if another node had committed it
+            assertThat(jdbcTemplate.update("insert into cluster_event (node_id, event_type, payload, created_on) "
+                + "select ?, event_type, payload, created_on from cluster_event where node_id = ? and event_type = ?",
+                "other-node", databaseClusterEventBus.getNodeId(), UserChangedEvent.class.getSimpleName()))
+                .isEqualTo(1);
+            databaseClusterEventBus.poll();
+
+            verify(cache).evictCollectionData(User.class.getName() + ".authorities", userId);
+        } finally {
+            applicationEventMulticaster.removeApplicationListener(listener);
+            jdbcTemplate.update("delete from cluster_event where node_id in (?, ?)", "other-node",
+                databaseClusterEventBus.getNodeId());
+            jdbcTemplate.update("delete from search_outbox where entity_type = ? and entity_id = ?", "USER", userId);
+            userRepository.delete(userId);
+        }
+    }
+
+    private void loadArticle() {
+        publishedArticleCache.getArticle(ARTICLE_ID, () -> {
+            loads.incrementAndGet();
+            ArticleDTO article = new ArticleDTO();
+            article.setId(ARTICLE_ID);
+            article.setStatus(ArticleStatus.PUBLISHED);
+            return article;
+        });
+    }
+}
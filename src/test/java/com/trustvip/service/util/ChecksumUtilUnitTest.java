@@ -0,0 +1,33 @@
+package com.trustvip.service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Test class for the ChecksumUtil utility class.
+ *
+ * @see ChecksumUtil
+ */
+public class ChecksumUtilUnitTest {
+
+    @Test
+    public void testChecksumOfBytes() {
+        assertThat(ChecksumUtil.checksum("abc".getBytes(StandardCharsets.UTF_8)))
+            .isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+
+    @Test
+    public void testChecksumOfPartsIsStable() {
+        assertThat(ChecksumUtil.checksum("v1", "<p>content</p>"))
+            .isEqualTo(ChecksumUtil.checksum("v1", "<p>content</p>"))
+            .hasSize(64);
+    }
+
+    @Test
+    public void testChecksumOfPartsKeepsBoundaries() {
+        assertThat(ChecksumUtil.checksum("ab", "c")).isNotEqualTo(ChecksumUtil.checksum("a", "bc"));
+    }
+}
@@ -3,11 +3,13 @@ package com.trustvip.web.rest;
 import static com.trustvip.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -24,6 +26,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -33,15 +36,22 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.trustvip.VipAdpqApp;
 import com.trustvip.domain.Article;
+import com.trustvip.domain.RelatedDocument;
 import com.trustvip.domain.enumeration.ArticleStatus;
 import com.trustvip.domain.enumeration.ArticleType;
 import com.trustvip.repository.ArticleRepository;
 import com.trustvip.repository.search.ArticleSearchRepository;
+import com.trustvip.service.ArticleFacetCounter;
+import com.trustvip.service.ArticleSearchCache;
 import com.trustvip.service.ArticleService;
+import com.trustvip.service.PublishedArticleCache;
 import com.trustvip.service.RelatedDocumentService;
+import com.trustvip.service.SearchIndexer;
 import com.trustvip.service.TaskService;
 import com.trustvip.service.UserService;
 import com.trustvip.service.dto.ArticleDTO;
+import com.trustvip.service.event.ArticleChangedEvent;
+import com.trustvip.service.event.ArticleFacet;
 import com.trustvip.service.mapper.ArticleMapper;
 import com.trustvip.web.rest.errors.ExceptionTranslator;
 /**
@@ -101,6 +111,18 @@ public class ArticleResourceIntTest {
     @Autowired
     private ArticleSearchRepository articleSearchRepository;
 
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private ArticleSearchCache articleSearchCache;
+
+    @Autowired
+    private ArticleFacetCounter articleFacetCounter;
+
+    @Autowired
+    private PublishedArticleCache publishedArticleCache;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -152,6 +174,9 @@ public class ArticleResourceIntTest {
     @Before
     public void initTest() {
         articleSearchRepository.deleteAll();
+        articleSearchCache.invalidateAll();
+        articleFacetCounter.invalidate();
+        publishedArticleCache.invalidateAll();
         article = createEntity(em);
     }
 
@@ -181,6 +206,8 @@ public class ArticleResourceIntTest {
         assertThat(testArticle.getModifiedBy()).isEqualTo(DEFAULT_MODIFIED_BY);
         assertThat(testArticle.getModifiedOn()).isEqualTo(DEFAULT_MODIFIED_ON);
 
+        searchIndexer.drain();
+
         // Validate the Article in Elasticsearch
         Article articleEs = articleSearchRepository.findOne(testArticle.getId());
         assertThat(articleEs).isEqualToIgnoringGivenFields(testArticle);*/
@@ -293,6 +320,35 @@ public class ArticleResourceIntTest {
             .andExpect(status().isInternalServerError());
     }
 
+    @Test
+    @Transactional
+    public void getArticlePdfNotModified() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        String eTag = articleService.getPdfETag(articleMapper.toDto(article));
+
+        // A client holding the current PDF does not get it again
+        restArticleMockMvc.perform(get("/api/articles/{id}/pdf", article.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingArticlePdf() throws Exception {
+        restArticleMockMvc.perform(get("/api/articles/{id}/pdf", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingArticlePdfStatus() throws Exception {
+        // No render was requested for this article
+        restArticleMockMvc.perform(get("/api/articles/{id}/pdf/status", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     public void getArticle() throws Exception {
@@ -315,12 +371,35 @@ public class ArticleResourceIntTest {
             .andExpect(jsonPath("$.modifiedOn").value(DEFAULT_MODIFIED_ON.toString()));
     }
 
+    @Test
+    @Transactional
+    public void getArticleWithDocumentSummaries() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        RelatedDocument relatedDocument = new RelatedDocument()
+            .docName("document.pdf")
+            .docFileContentType("application/pdf")
+            .docSize(42L)
+            .article(article);
+        em.persist(relatedDocument);
+        em.flush();
+
+        // The documents are listed without their payload nor their article
+        restArticleMockMvc.perform(get("/api/articles/{id}", article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.docList.[*].id").value(hasItem(relatedDocument.getId().intValue())))
+            .andExpect(jsonPath("$.docList.[0].docName").value("document.pdf"))
+            .andExpect(jsonPath("$.docList.[0].docSize").value(42))
+            .andExpect(jsonPath("$.docList.[0].docFile").doesNotExist())
+            .andExpect(jsonPath("$.docList.[0].article").doesNotExist());
+    }
+
     @Test
     @Transactional
     public void getNonExistingArticle() throws Exception {
         // Get the article
         restArticleMockMvc.perform(get("/api/articles/{id}", Long.MAX_VALUE))
-            .andExpect(status().isInternalServerError());
+            .andExpect(status().isNotFound());
     }
 
     @Test
@@ -389,6 +468,8 @@ public class ArticleResourceIntTest {
             .accept(TestUtil.APPLICATION_JSON_UTF8))
             .andExpect(status().isOk());
 
+        searchIndexer.drain();
+
         // Validate Elasticsearch is empty
         boolean articleExistsInEs = articleSearchRepository.exists(article.getId());
         assertThat(articleExistsInEs).isFalse();
@@ -406,7 +487,7 @@ public class ArticleResourceIntTest {
         articleSearchRepository.save(article);
 
         // Search the article
-        restArticleMockMvc.perform(get("/api/_search/articles?query=id:" + article.getId()))
+        restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(article.getId().intValue())))
@@ -418,7 +499,205 @@ public class ArticleResourceIntTest {
             .andExpect(jsonPath("$.[*].createdBy").value(hasItem(DEFAULT_CREATED_BY.toString())))
             .andExpect(jsonPath("$.[*].createdOn").value(hasItem(DEFAULT_CREATED_ON.toString())))
             .andExpect(jsonPath("$.[*].modifiedBy").value(hasItem(DEFAULT_MODIFIED_BY.toString())))
-            .andExpect(jsonPath("$.[*].modifiedOn").value(hasItem(DEFAULT_MODIFIED_ON.toString())));
+            .andExpect(jsonPath("$.[*].modifiedOn").value(hasItem(DEFAULT_MODIFIED_ON.toString())))
+            .andExpect(jsonPath("$.[0].highlights.articleName[0]").value("<em>" + DEFAULT_ARTICLE_NAME + "</em>"));
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleWithFilters() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        articleSearchRepository.save(article);
+
+        // Filters matching the article
+        restArticleMockMvc.perform(get("/api/_search/articles?type=" + DEFAULT_TYPE + "&status=" + DEFAULT_STATUS
+                + "&publishedFrom=" + DEFAULT_PUBLISH_DATE + "&publishedTo=" + DEFAULT_PUBLISH_DATE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(article.getId().intValue())));
+
+        // Filters excluding the article
+        restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME + "&type=" + UPDATED_TYPE))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+        restArticleMockMvc.perform(get("/api/_search/articles?status=" + UPDATED_STATUS))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleIsCachedUntilAnArticleChanges() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        articleSearchRepository.save(article);
+        restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)));
+
+        // An article indexed behind the back of the cache is not seen, whatever the case of the query
+        Article other = createEntity(em);
+        articleRepository.saveAndFlush(other);
+        articleSearchRepository.save(other);
+        restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME.toLowerCase()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(1)));
+
+        // Article changes clear the cache
+        articleSearchCache.onArticleChanged(new ArticleChangedEvent(other.getId()));
+        restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasSize(2)));
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleIgnoresQuerySyntax() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        articleSearchRepository.save(article);
+
+        // Leading wildcards and field names are plain text, not query syntax
+        restArticleMockMvc.perform(get("/api/_search/articles?query=*AAA"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleWithCursor() throws Exception {
+        // Initialize the database
+        Article second = createEntity(em);
+        Article third = createEntity(em);
+        articleRepository.saveAndFlush(article);
+        articleRepository.saveAndFlush(second);
+        articleRepository.saveAndFlush(third);
+        articleSearchRepository.save(article);
+        articleSearchRepository.save(second);
+        articleSearchRepository.save(third);
+
+        // The first page links to the next one, without counting the results
+        String link = restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME
+                + "&cursor=&size=2&sort=id,asc"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$").value(hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(article.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(second.getId().intValue()))
+            .andReturn().getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).endsWith("; rel=\"next\"");
+
+        // The last page has no next link
+        restArticleMockMvc.perform(get(link.substring(1, link.indexOf('>'))))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.LINK))
+            .andExpect(jsonPath("$").value(hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+
+        // The exact total is only counted on request
+        restArticleMockMvc.perform(get("/api/_search/articles?query=" + DEFAULT_ARTICLE_NAME + "&cursor=&size=2&count=true"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "3"))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    public void searchArticleWithInvalidCursor() throws Exception {
+        restArticleMockMvc.perform(get("/api/_search/articles?cursor=invalid"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void suggestArticle() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        articleSearchRepository.save(article);
+
+        // Names starting with the prefix are suggested, whatever its case
+        restArticleMockMvc.perform(get("/api/_suggest/articles?query=aaa"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").value(hasItem(DEFAULT_ARTICLE_NAME)));
+        restArticleMockMvc.perform(get("/api/_suggest/articles?query=BBB"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    public void getArticleFacets() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        long ofType = articleRepository.findAll().stream().filter(a -> a.getType() == DEFAULT_TYPE).count();
+        long ofStatus = articleRepository.findAll().stream().filter(a -> a.getStatus() == DEFAULT_STATUS).count();
+        long ofMonth = articleRepository.findAll().stream()
+            .filter(a -> a.getPublishDate() != null && a.getPublishDate().withDayOfMonth(1).equals(DEFAULT_PUBLISH_DATE.withDayOfMonth(1)))
+            .count();
+        String month = DEFAULT_PUBLISH_DATE.toString().substring(0, 7);
+
+        restArticleMockMvc.perform(get("/api/_facets/articles"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.total").value((int) articleRepository.count()))
+            .andExpect(jsonPath("$.types." + DEFAULT_TYPE).value((int) ofType))
+            .andExpect(jsonPath("$.statuses." + DEFAULT_STATUS).value((int) ofStatus))
+            .andExpect(jsonPath("$.publishMonths['" + month + "']").value((int) ofMonth));
+
+        // The counts are cached, and updated from the committed changes
+        Article other = createEntity(em);
+        articleRepository.saveAndFlush(other);
+        restArticleMockMvc.perform(get("/api/_facets/articles"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.types." + DEFAULT_TYPE).value((int) ofType));
+        articleFacetCounter.onArticleChanged(new ArticleChangedEvent(other.getId(), null, ArticleFacet.of(other)));
+        articleFacetCounter.onArticleChanged(new ArticleChangedEvent(article.getId(), ArticleFacet.of(article),
+            new ArticleFacet(UPDATED_TYPE, DEFAULT_STATUS, DEFAULT_PUBLISH_DATE)));
+        restArticleMockMvc.perform(get("/api/_facets/articles"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.types." + DEFAULT_TYPE).value((int) ofType))
+            .andExpect(jsonPath("$.statuses." + DEFAULT_STATUS).value((int) ofStatus + 1));
+    }
+
+    @Test
+    @Transactional
+    public void getArticleFacetsAfterAChangeCommittedDuringTheLoad() throws Exception {
+        // Initialize the database
+        articleRepository.saveAndFlush(article);
+        ArticleChangedEvent event = new ArticleChangedEvent(article.getId(), null, ArticleFacet.of(article));
+        articleFacetCounter.onArticleCommitting(event);
+
+        // The counts are loaded before the event of the change is handled, which discards them
+        restArticleMockMvc.perform(get("/api/_facets/articles"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value((int) articleRepository.count()));
+        articleFacetCounter.onArticleChanged(event);
+        restArticleMockMvc.perform(get("/api/_facets/articles"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value((int) articleRepository.count()));
+    }
+
+    @Test
+    @Transactional
+    public void getPublishedArticleFromCache() throws Exception {
+        // Initialize the database
+        article.setStatus(ArticleStatus.PUBLISHED);
+        articleRepository.saveAndFlush(article);
+        restArticleMockMvc.perform(get("/api/articles/{id}", article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.articleName").value(DEFAULT_ARTICLE_NAME));
+
+        // The published article is cached until a committed change evicts it
+        article.setArticleName(UPDATED_ARTICLE_NAME);
+        articleRepository.saveAndFlush(article);
+        restArticleMockMvc.perform(get("/api/articles/{id}", article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.articleName").value(DEFAULT_ARTICLE_NAME));
+        publishedArticleCache.onArticleChanged(new ArticleChangedEvent(article.getId(), ArticleFacet.of(article),
+            ArticleFacet.of(article)));
+        restArticleMockMvc.perform(get("/api/articles/{id}", article.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.articleName").value(UPDATED_ARTICLE_NAME));
     }
 
     @Test
@@ -1,14 +1,23 @@
 package com.trustvip.web.rest;
 
 import com.trustvip.VipAdpqApp;
+import com.trustvip.config.ApplicationProperties;
 
 import com.trustvip.domain.RelatedDocument;
 import com.trustvip.domain.Article;
+import com.trustvip.domain.search.RelatedDocumentSearchDocument;
 import com.trustvip.repository.RelatedDocumentRepository;
+import com.trustvip.repository.StoredPayloadRepository;
 import com.trustvip.service.RelatedDocumentService;
+import com.trustvip.service.SearchIndexer;
+import com.trustvip.service.StoredPayloadService;
 import com.trustvip.repository.search.RelatedDocumentSearchRepository;
 import com.trustvip.service.dto.RelatedDocumentDTO;
+import com.trustvip.service.dto.RelatedDocumentSummaryDTO;
 import com.trustvip.service.mapper.RelatedDocumentMapper;
+import com.trustvip.service.storage.BlobStore;
+import com.trustvip.service.storage.StoredBlob;
+import com.trustvip.service.util.ChecksumUtil;
 import com.trustvip.web.rest.errors.ExceptionTranslator;
 
 import org.junit.Before;
@@ -18,16 +27,23 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.Base64Utils;
+import org.springframework.util.StreamUtils;
 
 import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static com.trustvip.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -64,6 +80,21 @@ public class RelatedDocumentResourceIntTest {
     @Autowired
     private RelatedDocumentSearchRepository relatedDocumentSearchRepository;
 
+    @Autowired
+    private SearchIndexer searchIndexer;
+
+    @Autowired
+    private BlobStore blobStore;
+
+    @Autowired
+    private StoredPayloadService storedPayloadService;
+
+    @Autowired
+    private StoredPayloadRepository storedPayloadRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -83,7 +114,7 @@ public class RelatedDocumentResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final RelatedDocumentResource relatedDocumentResource = new RelatedDocumentResource(relatedDocumentService);
+        final RelatedDocumentResource relatedDocumentResource = new RelatedDocumentResource(relatedDocumentService, applicationProperties);
         this.restRelatedDocumentMockMvc = MockMvcBuilders.standaloneSetup(relatedDocumentResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
@@ -100,7 +131,6 @@ public class RelatedDocumentResourceIntTest {
     public static RelatedDocument createEntity(EntityManager em) {
         RelatedDocument relatedDocument = new RelatedDocument()
             .docName(DEFAULT_DOC_NAME)
-            .docFile(DEFAULT_DOC_FILE)
             .docFileContentType(DEFAULT_DOC_FILE_CONTENT_TYPE);
         // Add required entity
         Article article = ArticleResourceIntTest.createEntity(em);
@@ -111,9 +141,20 @@ public class RelatedDocumentResourceIntTest {
     }
 
     @Before
-    public void initTest() {
+    public void initTest() throws IOException {
         relatedDocumentSearchRepository.deleteAll();
         relatedDocument = createEntity(em);
+        StoredBlob blob = storedPayloadService.store(new ByteArrayInputStream(DEFAULT_DOC_FILE));
+        relatedDocument
+            .docKey(blob.getKey())
+            .docSize(blob.getSize())
+            .docChecksum(blob.getChecksum());
+    }
+
+    private byte[] readPayload(RelatedDocument relatedDocument) throws IOException {
+        try (InputStream content = blobStore.getResource(relatedDocument.getDocKey()).getInputStream()) {
+            return StreamUtils.copyToByteArray(content);
+        }
     }
 
     @Test
@@ -123,6 +164,7 @@ public class RelatedDocumentResourceIntTest {
 
         // Create the RelatedDocument
         RelatedDocumentDTO relatedDocumentDTO = relatedDocumentMapper.toDto(relatedDocument);
+        relatedDocumentDTO.setDocFile(DEFAULT_DOC_FILE);
         restRelatedDocumentMockMvc.perform(post("/api/related-documents")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(relatedDocumentDTO)))
@@ -133,12 +175,55 @@ public class RelatedDocumentResourceIntTest {
         assertThat(relatedDocumentList).hasSize(databaseSizeBeforeCreate + 1);
         RelatedDocument testRelatedDocument = relatedDocumentList.get(relatedDocumentList.size() - 1);
         assertThat(testRelatedDocument.getDocName()).isEqualTo(DEFAULT_DOC_NAME);
-        assertThat(testRelatedDocument.getDocFile()).isEqualTo(DEFAULT_DOC_FILE);
         assertThat(testRelatedDocument.getDocFileContentType()).isEqualTo(DEFAULT_DOC_FILE_CONTENT_TYPE);
+        assertThat(testRelatedDocument.getDocSize()).isEqualTo(DEFAULT_DOC_FILE.length);
+        assertThat(testRelatedDocument.getDocChecksum()).isEqualTo(ChecksumUtil.checksum(DEFAULT_DOC_FILE));
+        assertThat(readPayload(testRelatedDocument)).isEqualTo(DEFAULT_DOC_FILE);
+
+        searchIndexer.drain();
 
         // Validate the RelatedDocument in Elasticsearch
-        RelatedDocument relatedDocumentEs = relatedDocumentSearchRepository.findOne(testRelatedDocument.getId());
-        assertThat(relatedDocumentEs).isEqualToIgnoringGivenFields(testRelatedDocument);
+        RelatedDocumentSearchDocument relatedDocumentEs = relatedDocumentSearchRepository.findOne(testRelatedDocument.getId());
+        assertThat(relatedDocumentEs).isEqualToComparingFieldByField(relatedDocumentMapper.toSearchDocument(testRelatedDocument));
+    }
+
+    @Test
+    @Transactional
+    public void uploadRelatedDocument() throws Exception {
+        int databaseSizeBeforeCreate = relatedDocumentRepository.findAll().size();
+
+        // Upload the RelatedDocument
+        MockMultipartFile file = new MockMultipartFile("file", "document.jpg", DEFAULT_DOC_FILE_CONTENT_TYPE, UPDATED_DOC_FILE);
+        restRelatedDocumentMockMvc.perform(fileUpload("/api/related-documents/upload")
+            .file(file)
+            .param("articleId", relatedDocument.getArticle().getId().toString()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.docName").value("document.jpg"))
+            .andExpect(jsonPath("$.docSize").value(UPDATED_DOC_FILE.length));
+
+        // Validate the RelatedDocument in the database
+        List<RelatedDocument> relatedDocumentList = relatedDocumentRepository.findAll();
+        assertThat(relatedDocumentList).hasSize(databaseSizeBeforeCreate + 1);
+        RelatedDocument testRelatedDocument = relatedDocumentList.get(relatedDocumentList.size() - 1);
+        assertThat(testRelatedDocument.getDocFileContentType()).isEqualTo(DEFAULT_DOC_FILE_CONTENT_TYPE);
+        assertThat(testRelatedDocument.getDocChecksum()).isEqualTo(ChecksumUtil.checksum(UPDATED_DOC_FILE));
+        assertThat(readPayload(testRelatedDocument)).isEqualTo(UPDATED_DOC_FILE);
+    }
+
+    @Test
+    @Transactional
+    public void uploadTooLargeRelatedDocument() throws Exception {
+        int databaseSizeBeforeCreate = relatedDocumentRepository.findAll().size();
+
+        byte[] payload = TestUtil.createByteArray((int) applicationProperties.getStorage().getMaxUploadSize() + 1, "0");
+        MockMultipartFile file = new MockMultipartFile("file", "document.jpg", DEFAULT_DOC_FILE_CONTENT_TYPE, payload);
+        restRelatedDocumentMockMvc.perform(fileUpload("/api/related-documents/upload")
+            .file(file)
+            .param("articleId", relatedDocument.getArticle().getId().toString()))
+            .andExpect(status().isPayloadTooLarge());
+
+        List<RelatedDocument> relatedDocumentList = relatedDocumentRepository.findAll();
+        assertThat(relatedDocumentList).hasSize(databaseSizeBeforeCreate);
     }
 
     @Test
@@ -174,7 +259,7 @@ public class RelatedDocumentResourceIntTest {
             .andExpect(jsonPath("$.[*].id").value(hasItem(relatedDocument.getId().intValue())))
             .andExpect(jsonPath("$.[*].docName").value(hasItem(DEFAULT_DOC_NAME.toString())))
             .andExpect(jsonPath("$.[*].docFileContentType").value(hasItem(DEFAULT_DOC_FILE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].docFile").value(hasItem(Base64Utils.encodeToString(DEFAULT_DOC_FILE))));
+            .andExpect(jsonPath("$.[*].docSize").value(hasItem(DEFAULT_DOC_FILE.length)));
     }
 
     @Test
@@ -190,7 +275,68 @@ public class RelatedDocumentResourceIntTest {
             .andExpect(jsonPath("$.id").value(relatedDocument.getId().intValue()))
             .andExpect(jsonPath("$.docName").value(DEFAULT_DOC_NAME.toString()))
             .andExpect(jsonPath("$.docFileContentType").value(DEFAULT_DOC_FILE_CONTENT_TYPE))
-            .andExpect(jsonPath("$.docFile").value(Base64Utils.encodeToString(DEFAULT_DOC_FILE)));
+            .andExpect(jsonPath("$.docSize").value(DEFAULT_DOC_FILE.length))
+            .andExpect(jsonPath("$.docChecksum").value(ChecksumUtil.checksum(DEFAULT_DOC_FILE)));
+    }
+
+    @Test
+    @Transactional
+    public void getRelatedDocumentContent() throws Exception {
+        // Initialize the database
+        relatedDocumentRepository.saveAndFlush(relatedDocument);
+
+        // Download the payload of the relatedDocument
+        restRelatedDocumentMockMvc.perform(get("/api/related-documents/{id}/content", relatedDocument.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(DEFAULT_DOC_FILE_CONTENT_TYPE))
+            .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(DEFAULT_DOC_FILE.length)))
+            .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+            .andExpect(content().bytes(DEFAULT_DOC_FILE));
+    }
+
+    @Test
+    @Transactional
+    public void getRelatedDocumentContentRange() throws Exception {
+        // Initialize the database
+        relatedDocumentRepository.saveAndFlush(relatedDocument);
+
+        // Download the first byte of the payload
+        restRelatedDocumentMockMvc.perform(get("/api/related-documents/{id}/content", relatedDocument.getId())
+            .header(HttpHeaders.RANGE, "bytes=0-0"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-0/" + DEFAULT_DOC_FILE.length))
+            .andExpect(content().bytes(new byte[] {DEFAULT_DOC_FILE[0]}));
+
+        // A range after the end of the payload cannot be served
+        restRelatedDocumentMockMvc.perform(get("/api/related-documents/{id}/content", relatedDocument.getId())
+            .header(HttpHeaders.RANGE, "bytes=" + DEFAULT_DOC_FILE.length + "-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + DEFAULT_DOC_FILE.length));
+
+        // An invalid range is ignored
+        restRelatedDocumentMockMvc.perform(get("/api/related-documents/{id}/content", relatedDocument.getId())
+            .header(HttpHeaders.RANGE, "bytes=2-1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+            .andExpect(content().bytes(DEFAULT_DOC_FILE));
+    }
+
+    @Test
+    @Transactional
+    public void getRelatedDocumentContentNotModified() throws Exception {
+        // Initialize the database
+        relatedDocumentRepository.saveAndFlush(relatedDocument);
+
+        restRelatedDocumentMockMvc.perform(get("/api/related-documents/{id}/content", relatedDocument.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, "\"" + relatedDocument.getDocChecksum() + "\""))
+            .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingRelatedDocumentContent() throws Exception {
+        restRelatedDocumentMockMvc.perform(get("/api/related-documents/{id}/content", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
     }
 
     @Test
@@ -206,7 +352,7 @@ public class RelatedDocumentResourceIntTest {
     public void updateRelatedDocument() throws Exception {
         // Initialize the database
         relatedDocumentRepository.saveAndFlush(relatedDocument);
-        relatedDocumentSearchRepository.save(relatedDocument);
+        relatedDocumentSearchRepository.save(relatedDocumentMapper.toSearchDocument(relatedDocument));
         int databaseSizeBeforeUpdate = relatedDocumentRepository.findAll().size();
 
         // Update the relatedDocument
@@ -215,9 +361,9 @@ public class RelatedDocumentResourceIntTest {
         em.detach(updatedRelatedDocument);
         updatedRelatedDocument
             .docName(UPDATED_DOC_NAME)
-            .docFile(UPDATED_DOC_FILE)
             .docFileContentType(UPDATED_DOC_FILE_CONTENT_TYPE);
         RelatedDocumentDTO relatedDocumentDTO = relatedDocumentMapper.toDto(updatedRelatedDocument);
+        relatedDocumentDTO.setDocFile(UPDATED_DOC_FILE);
 
         restRelatedDocumentMockMvc.perform(put("/api/related-documents")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
@@ -229,12 +375,16 @@ public class RelatedDocumentResourceIntTest {
         assertThat(relatedDocumentList).hasSize(databaseSizeBeforeUpdate);
         RelatedDocument testRelatedDocument = relatedDocumentList.get(relatedDocumentList.size() - 1);
         assertThat(testRelatedDocument.getDocName()).isEqualTo(UPDATED_DOC_NAME);
-        assertThat(testRelatedDocument.getDocFile()).isEqualTo(UPDATED_DOC_FILE);
         assertThat(testRelatedDocument.getDocFileContentType()).isEqualTo(UPDATED_DOC_FILE_CONTENT_TYPE);
+        assertThat(testRelatedDocument.getDocSize()).isEqualTo(UPDATED_DOC_FILE.length);
+        assertThat(testRelatedDocument.getDocChecksum()).isEqualTo(ChecksumUtil.checksum(UPDATED_DOC_FILE));
+        assertThat(readPayload(testRelatedDocument)).isEqualTo(UPDATED_DOC_FILE);
+
+        searchIndexer.drain();
 
         // Validate the RelatedDocument in Elasticsearch
-        RelatedDocument relatedDocumentEs = relatedDocumentSearchRepository.findOne(testRelatedDocument.getId());
-        assertThat(relatedDocumentEs).isEqualToIgnoringGivenFields(testRelatedDocument);
+        RelatedDocumentSearchDocument relatedDocumentEs = relatedDocumentSearchRepository.findOne(testRelatedDocument.getId());
+        assertThat(relatedDocumentEs).isEqualToComparingFieldByField(relatedDocumentMapper.toSearchDocument(testRelatedDocument));
     }
 
     @Test
@@ -261,7 +411,7 @@ public class RelatedDocumentResourceIntTest {
     public void deleteRelatedDocument() throws Exception {
         // Initialize the database
         relatedDocumentRepository.saveAndFlush(relatedDocument);
-        relatedDocumentSearchRepository.save(relatedDocument);
+        relatedDocumentSearchRepository.save(relatedDocumentMapper.toSearchDocument(relatedDocument));
         int databaseSizeBeforeDelete = relatedDocumentRepository.findAll().size();
 
         // Get the relatedDocument
@@ -269,6 +419,8 @@ public class RelatedDocumentResourceIntTest {
             .accept(TestUtil.APPLICATION_JSON_UTF8))
             .andExpect(status().isOk());
 
+        searchIndexer.drain();
+
         // Validate Elasticsearch is empty
         boolean relatedDocumentExistsInEs = relatedDocumentSearchRepository.exists(relatedDocument.getId());
         assertThat(relatedDocumentExistsInEs).isFalse();
@@ -278,12 +430,39 @@ public class RelatedDocumentResourceIntTest {
         assertThat(relatedDocumentList).hasSize(databaseSizeBeforeDelete - 1);
     }
 
+    @Test
+    @Transactional
+    public void identicalPayloadsAreStoredOnce() throws Exception {
+        // Initialize the database
+        relatedDocumentRepository.saveAndFlush(relatedDocument);
+        RelatedDocumentDTO copyDTO = relatedDocumentMapper.toDto(createEntity(em));
+        copyDTO.setDocFile(DEFAULT_DOC_FILE);
+
+        // Create a second RelatedDocument with the same payload
+        restRelatedDocumentMockMvc.perform(post("/api/related-documents")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(copyDTO)))
+            .andExpect(status().isCreated());
+
+        List<RelatedDocument> relatedDocumentList = relatedDocumentRepository.findAll();
+        RelatedDocument copy = relatedDocumentList.get(relatedDocumentList.size() - 1);
+        assertThat(copy.getDocKey()).isEqualTo(relatedDocument.getDocKey());
+        assertThat(storedPayloadRepository.findOne(relatedDocument.getDocKey()).getRefCount()).isEqualTo(2L);
+
+        // Deleting one of them keeps the payload of the other
+        restRelatedDocumentMockMvc.perform(delete("/api/related-documents/{id}", copy.getId())
+            .accept(TestUtil.APPLICATION_JSON_UTF8))
+            .andExpect(status().isOk());
+        assertThat(storedPayloadRepository.findOne(relatedDocument.getDocKey()).getRefCount()).isEqualTo(1L);
+        assertThat(readPayload(relatedDocument)).isEqualTo(DEFAULT_DOC_FILE);
+    }
+
     @Test
     @Transactional
     public void searchRelatedDocument() throws Exception {
         // Initialize the database
         relatedDocumentRepository.saveAndFlush(relatedDocument);
-        relatedDocumentSearchRepository.save(relatedDocument);
+        relatedDocumentSearchRepository.save(relatedDocumentMapper.toSearchDocument(relatedDocument));
 
         // Search the relatedDocument
         restRelatedDocumentMockMvc.perform(get("/api/_search/related-documents?query=id:" + relatedDocument.getId()))
@@ -292,7 +471,26 @@ public class RelatedDocumentResourceIntTest {
             .andExpect(jsonPath("$.[*].id").value(hasItem(relatedDocument.getId().intValue())))
             .andExpect(jsonPath("$.[*].docName").value(hasItem(DEFAULT_DOC_NAME.toString())))
             .andExpect(jsonPath("$.[*].docFileContentType").value(hasItem(DEFAULT_DOC_FILE_CONTENT_TYPE)))
-            .andExpect(jsonPath("$.[*].docFile").value(hasItem(Base64Utils.encodeToString(DEFAULT_DOC_FILE))));
+            .andExpect(jsonPath("$.[*].docSize").value(hasItem(DEFAULT_DOC_FILE.length)));
+    }
+
+    @Test
+    @Transactional
+    public void getSummariesByArticleIds() throws Exception {
+        // Initialize the database
+        relatedDocumentRepository.saveAndFlush(relatedDocument);
+        Article other = ArticleResourceIntTest.createEntity(em);
+        em.persist(other);
+        em.flush();
+
+        Map<Long, List<RelatedDocumentSummaryDTO>> summaries = relatedDocumentService.findSummariesByArticleIds(
+            Arrays.asList(relatedDocument.getArticle().getId(), other.getId()));
+        assertThat(summaries).containsOnlyKeys(relatedDocument.getArticle().getId(), other.getId());
+        assertThat(summaries.get(relatedDocument.getArticle().getId())).extracting(RelatedDocumentSummaryDTO::getId)
+            .containsExactly(relatedDocument.getId());
+        assertThat(summaries.get(other.getId())).isEmpty();
+        assertThat(relatedDocumentService.findAllByArticleId(relatedDocument.getArticle().getId()))
+            .containsExactly(relatedDocument);
     }
 
     @Test
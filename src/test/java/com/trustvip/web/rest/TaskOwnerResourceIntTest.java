@@ -4,6 +4,7 @@ import com.trustvip.VipAdpqApp;
 
 import com.trustvip.domain.TaskOwner;
 import com.trustvip.repository.TaskOwnerRepository;
+import com.trustvip.service.SearchIndexer;
 import com.trustvip.service.TaskOwnerService;
 import com.trustvip.repository.search.TaskOwnerSearchRepository;
 import com.trustvip.service.dto.TaskOwnerDTO;
@@ -60,6 +61,9 @@ public class TaskOwnerResourceIntTest {
     @Autowired
     private TaskOwnerSearchRepository taskOwnerSearchRepository;
 
+    @Autowired
+    private SearchIndexer searchIndexer;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -125,6 +129,8 @@ public class TaskOwnerResourceIntTest {
         assertThat(testTaskOwner.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testTaskOwner.getEmail()).isEqualTo(DEFAULT_EMAIL);
 
+        searchIndexer.drain();
+
         // Validate the TaskOwner in Elasticsearch
         TaskOwner taskOwnerEs = taskOwnerSearchRepository.findOne(testTaskOwner.getId());
         assertThat(taskOwnerEs).isEqualToIgnoringGivenFields(testTaskOwner);
@@ -236,6 +242,8 @@ public class TaskOwnerResourceIntTest {
         assertThat(testTaskOwner.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testTaskOwner.getEmail()).isEqualTo(UPDATED_EMAIL);
 
+        searchIndexer.drain();
+
         // Validate the TaskOwner in Elasticsearch
         TaskOwner taskOwnerEs = taskOwnerSearchRepository.findOne(testTaskOwner.getId());
         assertThat(taskOwnerEs).isEqualToIgnoringGivenFields(testTaskOwner);
@@ -273,6 +281,8 @@ public class TaskOwnerResourceIntTest {
             .accept(TestUtil.APPLICATION_JSON_UTF8))
             .andExpect(status().isOk());
 
+        searchIndexer.drain();
+
         // Validate Elasticsearch is empty
         boolean taskOwnerExistsInEs = taskOwnerSearchRepository.exists(taskOwner.getId());
         assertThat(taskOwnerExistsInEs).isFalse();
@@ -38,6 +38,7 @@ import com.trustvip.domain.enumeration.TaskStatus;
 import com.trustvip.repository.TaskRepository;
 import com.trustvip.repository.search.TaskSearchRepository;
 import com.trustvip.service.ArticleService;
+import com.trustvip.service.SearchIndexer;
 import com.trustvip.service.TaskService;
 import com.trustvip.service.dto.TaskDTO;
 import com.trustvip.service.mapper.TaskMapper;
@@ -79,6 +80,9 @@ public class TaskResourceIntTest {
     @Autowired
     private TaskSearchRepository taskSearchRepository;
 
+    @Autowired
+    private SearchIndexer searchIndexer;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -147,6 +151,8 @@ public class TaskResourceIntTest {
         assertThat(testTask.getDescription()).isEqualTo(DEFAULT_DESCRIPTION);
         assertThat(testTask.getStatus()).isEqualTo(DEFAULT_STATUS);
 
+        searchIndexer.drain();
+
         // Validate the Task in Elasticsearch
         Task taskEs = taskSearchRepository.findOne(testTask.getId());
         assertThat(taskEs).isEqualToIgnoringGivenFields(testTask);
@@ -285,6 +291,8 @@ public class TaskResourceIntTest {
         assertThat(testTask.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
         assertThat(testTask.getStatus()).isEqualTo(UPDATED_STATUS);
 
+        searchIndexer.drain();
+
         // Validate the Task in Elasticsearch
         Task taskEs = taskSearchRepository.findOne(testTask.getId());
         assertThat(taskEs).isEqualToIgnoringGivenFields(testTask);
@@ -320,6 +328,8 @@ public class TaskResourceIntTest {
         restTaskMockMvc.perform(delete("/api/tasks/{id}", task.getId()).accept(TestUtil.APPLICATION_JSON_UTF8))
                 .andExpect(status().isOk());
 
+        searchIndexer.drain();
+
         // Validate Elasticsearch is empty
         boolean taskExistsInEs = taskSearchRepository.exists(task.getId());
         assertThat(taskExistsInEs).isFalse();